@@ -0,0 +1,81 @@
+package benchmarks;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible sets of rays for the benchmarks
+ */
+final class BenchmarkRays {
+    /** seed of the random rays, so every run measures the same work */
+    private static final long SEED = 5784;
+
+    private BenchmarkRays() {
+    }
+
+    /**
+     * Rays from a fixed head toward random points of a square on the xy plane
+     *
+     * @param count number of the rays
+     * @param head  head of all the rays
+     * @param half  half of the edge of the square around the origin
+     * @return the rays
+     */
+    static Ray[] towardSquare(int count, Point head, double half) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Ray[] rays = new Ray[count];
+        for (int i = 0; i < count; ++i) {
+            Point target = new Point(random.nextDouble(-half, half), random.nextDouble(-half, half), 0);
+            rays[i] = new Ray(head, target.subtract(head));
+        }
+        return rays;
+    }
+
+    /**
+     * Rays between random points of a cube around the origin
+     *
+     * @param count number of the rays
+     * @param half  half of the edge of the cube
+     * @return the rays
+     */
+    static Ray[] insideCube(int count, double half) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Ray[] rays = new Ray[count];
+        for (int i = 0; i < count; ++i) {
+            Point from = randomPoint(random, half);
+            Point to = randomPoint(random, half);
+            while (from.equals(to)) {
+                to = randomPoint(random, half);
+            }
+            rays[i] = new Ray(from, to.subtract(from));
+        }
+        return rays;
+    }
+
+    /**
+     * @param random the generator
+     * @param half   half of the edge of the cube around the origin
+     * @return random point in the cube
+     */
+    static Point randomPoint(SplittableRandom random, double half) {
+        return new Point(random.nextDouble(-half, half), random.nextDouble(-half, half),
+                random.nextDouble(-half, half));
+    }
+
+    /**
+     * @param count number of the vectors
+     * @return random non-zero vectors
+     */
+    static Vector[] vectors(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Vector[] vectors = new Vector[count];
+        for (int i = 0; i < count; ++i) {
+            vectors[i] = new Vector(random.nextDouble(1, 100), random.nextDouble(-100, 100),
+                    random.nextDouble(-100, 100));
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,170 @@
+package benchmarks;
+
+import geometries.Geometry;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
+import renderer.Camera;
+import scene.Scene;
+
+import static java.awt.Color.*;
+
+/**
+ * The scenes of ReflectionRefractionTests and LightsTests, rebuilt for the
+ * end-to-end benchmarks (the test classes are not a part of the main sources)
+ */
+final class BenchmarkScenes {
+    private BenchmarkScenes() {
+    }
+
+    /**
+     * Build a scene and set the camera the test renders it with
+     *
+     * @param name   name of the test method that renders the scene
+     * @param camera builder to set the location, direction and view plane of the camera on
+     * @return the scene
+     */
+    static Scene create(String name, Camera.Builder camera) {
+        Scene scene = new Scene(name);
+        camera.setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0));
+        switch (name) {
+            case "twoSpheres" -> twoSpheres(scene, camera);
+            case "twoSpheresOnMirrors" -> twoSpheresOnMirrors(scene, camera);
+            case "trianglesTransparentSphere" -> trianglesTransparentSphere(scene, camera);
+            case "reflectionRefractionFiveObjects" -> reflectionRefractionFiveObjects(scene, camera);
+            case "sphereSpot" -> sphereSpot(scene, camera);
+            case "trianglesSpot" -> trianglesSpot(scene, camera);
+            case "sphereIntegration" -> sphereIntegration(scene, camera);
+            default -> throw new IllegalArgumentException("Unknown scene " + name);
+        }
+        return scene;
+    }
+
+    // ***************** ReflectionRefractionTests ********************** //
+
+    private static void twoSpheres(Scene scene, Camera.Builder camera) {
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -50), 50d).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setkD(0.4).setkS(0.3).setnShininess(100).setkT(0.3)),
+                new Sphere(new Point(0, 0, -50), 25d).setEmission(new Color(RED))
+                        .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(100)));
+        scene.lights.add(
+                new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
+                        .setkL(0.0004).setkQ(0.0000006));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(150, 150);
+    }
+
+    private static void twoSpheresOnMirrors(Scene scene, Camera.Builder camera) {
+        scene.geometries.add(
+                new Sphere(new Point(-950, -900, -1000), 400d).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setkD(0.25).setkS(0.25).setnShininess(20)
+                                .setkT(new Double3(0.5, 0, 0))),
+                new Sphere(new Point(-950, -900, -1000), 200d).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setkD(0.25).setkS(0.25).setnShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setkR(1)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setkR(new Double3(0.5, 0, 0.4))));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setkL(0.00001).setkQ(0.000005));
+        camera.setLocation(new Point(0, 0, 10000)).setVpDistance(10000).setVpSize(2500, 2500);
+    }
+
+    private static void trianglesTransparentSphere(Scene scene, Camera.Builder camera) {
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(60)),
+                new Sphere(new Point(60, 50, -50), 30d).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setkD(0.2).setkS(0.2).setnShininess(30).setkT(0.6)));
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+        scene.lights.add(
+                new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
+                        .setkL(4E-5).setkQ(2E-7));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(200, 200);
+    }
+
+    private static void reflectionRefractionFiveObjects(Scene scene, Camera.Builder camera) {
+        scene.setAmbientLight(new AmbientLight(new Color(YELLOW), new Double3(0.15)));
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(60)),
+                new Sphere(new Point(60, 50, -50), 30).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setkD(0.2).setkS(0.2).setnShininess(30).setkT(0.6)),
+                new Sphere(new Point(-50, -100, 100), 25.7).setEmission(new Color(GREEN))
+                        .setMaterial(new Material().setkD(0.002).setkS(0.2).setnShininess(30).setkT(0.9)),
+                new Sphere(new Point(-50, -80, 100), 17).setEmission(new Color(GREEN))
+                        .setMaterial(new Material().setkD(0.002).setkS(0.2).setnShininess(30).setkT(0.9)),
+                new Sphere(new Point(30, -60, 100), 22).setEmission(new Color(CYAN))
+                        .setMaterial(new Material().setkD(0.002).setkS(0.2).setnShininess(30).setkT(0.9)),
+                new Sphere(new Point(-60, 50, 100), 10).setEmission(new Color(YELLOW))
+                        .setMaterial(new Material().setkD(0.2).setkS(0.2).setnShininess(2).setkT(0.8)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(30, 25, 0), new Vector(0, 0, -1))
+                .setkL(4E-5).setkQ(2E-7));
+        scene.lights.add(new PointLight(new Color(160, 80, 240), new Point(-100, -100, 100))
+                .setkL(0.00000000001).setkQ(0.0000000001));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(200, 200);
+    }
+
+    // ***************** LightsTests ********************** //
+
+    /** light color of the scenes with the sphere */
+    private static final Color SPHERE_LIGHT_COLOR = new Color(800, 500, 0);
+    /** light position of the scenes with the sphere */
+    private static final Point SPHERE_LIGHT_POSITION = new Point(-50, -50, 25);
+    /** light color of the scenes with the triangles */
+    private static final Color TRIANGLES_LIGHT_COLOR = new Color(800, 500, 250);
+    /** light position of the scenes with the triangles */
+    private static final Point TRIANGLES_LIGHT_POSITION = new Point(30, 10, -100);
+
+    /**
+     * @return the sphere of the lights tests
+     */
+    private static Geometry lightsSphere() {
+        return new Sphere(new Point(0, 0, -50), 50d).setEmission(new Color(BLUE).reduce(2))
+                .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(301));
+    }
+
+    private static void sphereSpot(Scene scene, Camera.Builder camera) {
+        scene.geometries.add(lightsSphere());
+        scene.lights.add(new SpotLight(SPHERE_LIGHT_COLOR, SPHERE_LIGHT_POSITION, new Vector(1, 1, -0.5))
+                .setkL(0.001).setkQ(0.0001));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(150, 150);
+    }
+
+    private static void trianglesSpot(Scene scene, Camera.Builder camera) {
+        Point[] vertices = {
+                new Point(-110, -110, -150), new Point(95, 100, -150),
+                new Point(110, -110, -150), new Point(-75, 78, 100)
+        };
+        Material material = new Material().setkD(new Double3(0.2, 0.6, 0.4)).setkS(new Double3(0.2, 0.4, 0.3))
+                .setnShininess(301);
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.15)));
+        scene.geometries.add(new Triangle(vertices[0], vertices[1], vertices[2]).setMaterial(material),
+                new Triangle(vertices[0], vertices[1], vertices[3]).setMaterial(material));
+        scene.lights.add(new SpotLight(TRIANGLES_LIGHT_COLOR, TRIANGLES_LIGHT_POSITION, new Vector(-2, -2, -2))
+                .setkL(0.001).setkQ(0.0001));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(200, 200);
+    }
+
+    private static void sphereIntegration(Scene scene, Camera.Builder camera) {
+        scene.geometries.add(lightsSphere());
+        scene.lights.add(new DirectionalLight(new Color(500, 300, 0), new Vector(1, 1, -1)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-300, 200, 100))
+                .setkL(0.00001).setkQ(0.000001));
+        scene.lights.add(new SpotLight(new Color(500, 300, 0), new Point(250, 200, 100), new Vector(-1, -1, -1)));
+        camera.setLocation(new Point(0, 0, 1000)).setVpDistance(1000).setVpSize(150, 150);
+    }
+}
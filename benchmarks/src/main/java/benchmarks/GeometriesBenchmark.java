@@ -0,0 +1,86 @@
+package benchmarks;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans of {@link Geometries} collections of several sizes, as a flat list and
+ * after {@link Geometries#buildBVH()}. The collections are half small spheres
+ * and half small triangles scattered in a cube, each operation is one ray
+ * crossing the cube
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometriesBenchmark {
+    /** number of rays in every invocation */
+    private static final int RAYS = 256;
+    /** half of the edge of the cube the geometries are scattered in */
+    private static final double HALF = 100;
+
+    /** number of geometries in the collection */
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+    /** whether to build the bounding volume hierarchy */
+    @Param({"false", "true"})
+    public boolean bvh;
+
+    private Geometries geometries;
+    private Ray[] rays;
+
+    /**
+     * Scatter the geometries and prepare the rays
+     */
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(size);
+        Material glass = new Material().setkT(0.5);
+        geometries = new Geometries();
+        for (int i = 0; i < size; ++i) {
+            Point center = BenchmarkRays.randomPoint(random, HALF);
+            if (i % 2 == 0) {
+                geometries.add(new Sphere(center, random.nextDouble(1, 3)).setMaterial(glass));
+            } else {
+                geometries.add(new Triangle(center,
+                        center.add(new Vector(random.nextDouble(1, 5), 0, random.nextDouble(-1, 1))),
+                        center.add(new Vector(0, random.nextDouble(1, 5), random.nextDouble(-1, 1))))
+                        .setMaterial(glass));
+            }
+        }
+        if (bvh) {
+            geometries.buildBVH();
+        }
+        rays = BenchmarkRays.insideCube(RAYS, HALF);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void findGeoIntersections(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(geometries.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void findClosestGeoIntersection(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(geometries.findClosestGeoIntersection(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RAYS)
+    public void findTransparency(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(geometries.findTransparency(ray, HALF, 0.001));
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Triangle;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection throughput of the single geometries and the cost of
+ * {@link Vector#normalize()}. Each operation is one ray (or one vector);
+ * about half of the rays hit the geometries
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitivesBenchmark {
+    /** number of rays (and vectors) in every invocation */
+    private static final int COUNT = 1024;
+
+    private final Sphere sphere = new Sphere(Point.ZERO, 1);
+    private final Triangle triangle = new Triangle(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(0, 1, 0));
+    private final Polygon polygon = new Polygon(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(1, 1, 0),
+            new Point(-1, 1, 0));
+    private final Plane plane = new Plane(Point.ZERO, new Vector(0, 0, 1));
+
+    private Ray[] rays;
+    private Vector[] vectors;
+
+    /**
+     * Prepare the rays - from above the geometries toward a square twice as big as them
+     */
+    @Setup
+    public void setup() {
+        rays = BenchmarkRays.towardSquare(COUNT, new Point(0.1, 0.2, 10), 1.5);
+        vectors = BenchmarkRays.vectors(COUNT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void sphereFindGeoIntersections(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(sphere.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void sphereFindClosest(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(sphere.findClosestGeoIntersection(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void triangleFindGeoIntersections(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(triangle.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void triangleFindClosest(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(triangle.findClosestGeoIntersection(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void polygonFindGeoIntersections(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(polygon.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void planeFindGeoIntersections(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(plane.findGeoIntersections(ray));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void vectorNormalize(Blackhole blackhole) {
+        for (Vector vector : vectors) blackhole.consume(vector.normalize());
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import primitives.Ray;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of {@link SimpleRayTracer#traceRay(Ray)} - primary
+ * rays per second through the pixels of the scenes of ReflectionRefractionTests
+ * and LightsTests, including all the shadow, reflected and refracted rays
+ * they spawn
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SceneBenchmark {
+    /** resolution of the grid of primary rays (in each direction) */
+    private static final int RESOLUTION = 64;
+
+    /** name of the test method that renders the scene */
+    @Param({"twoSpheres", "twoSpheresOnMirrors", "trianglesTransparentSphere", "reflectionRefractionFiveObjects",
+            "sphereSpot", "trianglesSpot", "sphereIntegration"})
+    public String scene;
+    /** whether to build the bounding volume hierarchy of the scene */
+    @Param({"false", "true"})
+    public boolean bvh;
+
+    private SimpleRayTracer tracer;
+    private Ray[] rays;
+
+    /**
+     * Build the scene and the primary rays through the center of every pixel
+     */
+    @Setup
+    public void setup() {
+        Camera.Builder builder = Camera.getBuilder();
+        Scene benchmarkScene = BenchmarkScenes.create(scene, builder);
+        if (bvh) {
+            benchmarkScene.geometries.buildBVH();
+        }
+        tracer = new SimpleRayTracer(benchmarkScene);
+        Camera camera = builder.setRayTracer(tracer)
+                .setImageWriter(new ImageWriter(scene, RESOLUTION, RESOLUTION))
+                .build();
+        rays = new Ray[RESOLUTION * RESOLUTION];
+        for (int i = 0; i < RESOLUTION; ++i) {
+            for (int j = 0; j < RESOLUTION; ++j) {
+                rays[i * RESOLUTION + j] = camera.constructRay(RESOLUTION, RESOLUTION, j, i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RESOLUTION * RESOLUTION)
+    public void traceRay(Blackhole blackhole) {
+        for (Ray ray : rays) blackhole.consume(tracer.traceRay(ray));
+    }
+}
@@ -0,0 +1,210 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis aligned bounding box (AABB) of an intersectable object.
+ * A ray that does not cross the box can not intersect anything inside of it,
+ * so the box is used to skip the exact intersection calculation
+ */
+public class BoundingBox {
+    /** relative tolerance of the slab test */
+    private static final double EPSILON = 1e-9;
+    /** box of the unbounded geometries (such as planes and tubes) - every ray crosses it */
+    public static final BoundingBox INFINITE = new BoundingBox(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    /** box of an empty collection of geometries - no ray crosses it */
+    public static final BoundingBox EMPTY = new BoundingBox(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    /** lower corner of the box */
+    public final double minX, minY, minZ;
+    /** upper corner of the box */
+    public final double maxX, maxY, maxZ;
+    /** whether the box is unbounded in any direction */
+    private final boolean infinite;
+    /** whether the box contains nothing */
+    private final boolean empty;
+
+    /**
+     * Constructor of a box by its lower and upper corners coordinates
+     *
+     * @param minX lower x coordinate
+     * @param minY lower y coordinate
+     * @param minZ lower z coordinate
+     * @param maxX upper x coordinate
+     * @param maxY upper y coordinate
+     * @param maxZ upper z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        infinite = minX == Double.NEGATIVE_INFINITY || minY == Double.NEGATIVE_INFINITY
+                || minZ == Double.NEGATIVE_INFINITY || maxX == Double.POSITIVE_INFINITY
+                || maxY == Double.POSITIVE_INFINITY || maxZ == Double.POSITIVE_INFINITY;
+        empty = minX > maxX || minY > maxY || minZ > maxZ;
+    }
+
+    /**
+     * @return true if the box is unbounded in any direction
+     */
+    public boolean isInfinite() {
+        return infinite;
+    }
+
+    /**
+     * @return true if the box contains nothing
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Build the smallest box that contains all the given points
+     *
+     * @param points the points to wrap
+     * @return the box around the points
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * @param other another box
+     * @return the smallest box that contains both boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        if (other.empty) return this;
+        if (empty) return other;
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * @return the surface area of the box (used by the surface area heuristic)
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the center coordinate of the box on the axis
+     */
+    public double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Slab test - check whether the ray crosses the box
+     *
+     * @param ray the ray
+     * @return true if the ray crosses the box in front of its head
+     */
+    public boolean intersects(Ray ray) {
+        return intersects(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Slab test - check whether the ray crosses the box not farther than the
+     * given distance from its head
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance along the ray
+     * @return true if the ray crosses the box between its head and the distance
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return intersectionDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Slab test - find where the ray enters the box
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance along the ray
+     * @return distance from the ray head to the point the ray enters the box (0 if
+     * the head is inside the box), or positive infinity if the ray doesn't cross
+     * the box between its head and the maximal distance
+     */
+    public double intersectionDistance(Ray ray, double maxDistance) {
+        if (infinite) return 0;
+        if (empty) return Double.POSITIVE_INFINITY;
+        return intersectionDistance(ray, maxDistance, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Slab test of a finite box given by its corners coordinates (for boxes kept
+     * in flat arrays, such as the nodes of {@link TriangleMesh})
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance along the ray
+     * @param minX        lower x coordinate
+     * @param minY        lower y coordinate
+     * @param minZ        lower z coordinate
+     * @param maxX        upper x coordinate
+     * @param maxY        upper y coordinate
+     * @param maxZ        upper z coordinate
+     * @return distance from the ray head to the point the ray enters the box (0 if
+     * the head is inside the box), or positive infinity if the ray doesn't cross
+     * the box between its head and the maximal distance
+     */
+    static double intersectionDistance(Ray ray, double maxDistance, double minX, double minY, double minZ,
+                                       double maxX, double maxY, double maxZ) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double tNear = Double.NEGATIVE_INFINITY, tFar = maxDistance;
+
+        // x slab
+        double d = dir.getX(), o = head.getX();
+        if (d == 0) {
+            if (o < minX || o > maxX) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - o) / d, t2 = (maxX - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+        // y slab
+        d = dir.getY();
+        o = head.getY();
+        if (d == 0) {
+            if (o < minY || o > maxY) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - o) / d, t2 = (maxY - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+        // z slab
+        d = dir.getZ();
+        o = head.getZ();
+        if (d == 0) {
+            if (o < minZ || o > maxZ) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minZ - o) / d, t2 = (maxZ - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+        // relative tolerance, so hits on flat (zero thickness) boxes are not lost to rounding
+        double tolerance = EPSILON * (1 + Math.abs(tFar));
+        return tNear - tFar <= tolerance && tFar >= -tolerance ? Math.max(tNear, 0) : Double.POSITIVE_INFINITY;
+    }
+}
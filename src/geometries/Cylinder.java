@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Util;
@@ -23,6 +24,29 @@ public class Cylinder extends Tube {
         this.height = height;
     }
 
+    /**
+     * @return box around the two bases of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Point bottom = ray.getHead();
+        Point top = ray.getPoint(height);
+        Vector v = ray.getDirection();
+        // a base disc reaches radius * sin(angle between the axis and the coordinate axis)
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        return new BoundingBox(Math.min(bottom.getX(), top.getX()) - ex, Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez, Math.max(bottom.getX(), top.getX()) + ex,
+                Math.max(bottom.getY(), top.getY()) + ey, Math.max(bottom.getZ(), top.getZ()) + ez);
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        super.fingerprintHelper(fingerprint);
+        fingerprint.add(height);
+    }
+
     @Override
     public Vector getNormal(Point p0) {
         // Check that surface point is different from head of axisRay to avoid creating
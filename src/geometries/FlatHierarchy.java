@@ -0,0 +1,458 @@
+package geometries;
+
+import primitives.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Hierarchy of intersectables (a collection of geometries with its bounding
+ * volume hierarchy) flattened into arrays - for saving a built scene and
+ * restoring it without building the hierarchy again. The nodes of the tree are
+ * listed in pre-order (a collection is followed by its children), and the data
+ * of every node is taken in order from an array of ints and an array of
+ * doubles. The meshes keep their own hierarchies, and the materials are kept in
+ * a table - a material shared by many geometries is saved once and restored as
+ * one object. A collection shared by many instances is saved once, after its
+ * first instance, and restored as one collection.
+ * <ul>
+ * <li>collection - ints: amount of the children</li>
+ * <li>geometry - ints: index of the material, doubles: emission, and then:</li>
+ * <li>sphere - doubles: center, radius</li>
+ * <li>triangle - doubles: 3 vertices</li>
+ * <li>polygon - ints: amount of the vertices, doubles: the vertices</li>
+ * <li>plane - doubles: point, normal</li>
+ * <li>tube - doubles: radius, head and direction of the axis;
+ * cylinder - the same and the height</li>
+ * <li>mesh - ints: sizes of the arrays, depth of the hierarchy, whether the mesh was transformed,
+ * the vertex indices and the hierarchy nodes, doubles: the vertices, the boxes of the hierarchy
+ * nodes and, for a transformed mesh, the vertices in their original placement</li>
+ * <li>instance - ints: index of the shared collection (in the order of their first instances), doubles: the
+ * placement and the current transform (12 numbers each), and then the collection itself if this is its
+ * first instance</li>
+ * </ul>
+ */
+public final class FlatHierarchy {
+    /** type of a collection of intersectables */
+    private static final int GEOMETRIES = 0;
+    /** type of a sphere */
+    private static final int SPHERE = 1;
+    /** type of a triangle */
+    private static final int TRIANGLE = 2;
+    /** type of a polygon */
+    private static final int POLYGON = 3;
+    /** type of a plane */
+    private static final int PLANE = 4;
+    /** type of a tube */
+    private static final int TUBE = 5;
+    /** type of a cylinder */
+    private static final int CYLINDER = 6;
+    /** type of a triangle mesh */
+    private static final int MESH = 7;
+    /** type of an instance of a shared collection */
+    private static final int INSTANCE = 8;
+    /** amount of the doubles of a transform */
+    private static final int TRANSFORM_SIZE = 12;
+    /** amount of the doubles of a material */
+    private static final int MATERIAL_SIZE = 18;
+
+    /** types of the nodes, in pre-order */
+    private final int[] types;
+    /** ints of the nodes, in their order */
+    private final int[] ints;
+    /** doubles of the nodes, in their order */
+    private final double[] doubles;
+    /** the materials table - {@link #MATERIAL_SIZE} doubles for every material */
+    private final double[] materials;
+
+    /** position of the restoring in the ints */
+    private int intPosition;
+    /** position of the restoring in the doubles */
+    private int doublePosition;
+    /** the shared collections restored so far, in the order of their first instances */
+    private List<Geometries> shared;
+
+    /**
+     * Constructor of flattened hierarchy by its arrays
+     *
+     * @param types     types of the nodes
+     * @param ints      ints of the nodes
+     * @param doubles   doubles of the nodes
+     * @param materials the materials table
+     */
+    private FlatHierarchy(int[] types, int[] ints, double[] doubles, double[] materials) {
+        this.types = types;
+        this.ints = ints;
+        this.doubles = doubles;
+        this.materials = materials;
+    }
+
+    /**
+     * Flatten a collection of intersectables, with all its descendants
+     *
+     * @param root the collection
+     * @return the flattened hierarchy
+     * @throws IllegalArgumentException if an intersectable is of an unknown type
+     */
+    public static FlatHierarchy flatten(Geometries root) {
+        return new Flattener().flatten(root);
+    }
+
+    /**
+     * @return size of the hierarchy in bytes, as written by {@link #write(ByteBuffer)}
+     */
+    public long byteSize() {
+        return 16 + 4L * (types.length + ints.length) + 8L * (doubles.length + materials.length);
+    }
+
+    /**
+     * Write the hierarchy at the position of a buffer - the sizes of the arrays
+     * and the arrays
+     *
+     * @param buffer the buffer
+     */
+    public void write(ByteBuffer buffer) {
+        buffer.putInt(types.length).putInt(ints.length).putInt(doubles.length).putInt(materials.length);
+        buffer.asIntBuffer().put(types).put(ints);
+        buffer.position(buffer.position() + 4 * (types.length + ints.length));
+        buffer.asDoubleBuffer().put(doubles).put(materials);
+        buffer.position(buffer.position() + 8 * (doubles.length + materials.length));
+    }
+
+    /**
+     * Read a hierarchy written by {@link #write(ByteBuffer)} at the position of a buffer
+     *
+     * @param buffer the buffer
+     * @return the hierarchy
+     * @throws IllegalArgumentException if the sizes don't fit the buffer
+     */
+    public static FlatHierarchy read(ByteBuffer buffer) {
+        int typesCount = buffer.getInt(), intsCount = buffer.getInt();
+        int doublesCount = buffer.getInt(), materialsCount = buffer.getInt();
+        if (typesCount < 1 || intsCount < 0 || doublesCount < 0 || materialsCount % MATERIAL_SIZE != 0
+                || 4L * (typesCount + intsCount) + 8L * (doublesCount + materialsCount) > buffer.remaining()) {
+            throw new IllegalArgumentException("Broken flattened hierarchy");
+        }
+        int[] types = new int[typesCount], ints = new int[intsCount];
+        buffer.asIntBuffer().get(types).get(ints);
+        buffer.position(buffer.position() + 4 * (typesCount + intsCount));
+        double[] doubles = new double[doublesCount], materials = new double[materialsCount];
+        buffer.asDoubleBuffer().get(doubles).get(materials);
+        buffer.position(buffer.position() + 8 * (doublesCount + materialsCount));
+        return new FlatHierarchy(types, ints, doubles, materials);
+    }
+
+    /**
+     * Restore the collection of intersectables - the same tree of collections, with
+     * the same geometries, their materials and the hierarchies of the meshes
+     *
+     * @return the collection
+     * @throws IllegalArgumentException if the arrays are broken
+     */
+    public Geometries restore() {
+        if (types[0] != GEOMETRIES) {
+            throw new IllegalArgumentException("Broken flattened hierarchy - the root is not a collection");
+        }
+        Material[] table = new Material[materials.length / MATERIAL_SIZE];
+        for (int i = 0; i < table.length; ++i) table[i] = restoreMaterial(MATERIAL_SIZE * i);
+        intPosition = doublePosition = 0;
+        shared = new ArrayList<>();
+        try {
+            int[] node = {0};
+            Geometries root = (Geometries) restoreNode(node, table);
+            if (node[0] != types.length || intPosition != ints.length || doublePosition != doubles.length) {
+                throw new IllegalArgumentException("Broken flattened hierarchy - extra data");
+            }
+            return root;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Broken flattened hierarchy - missing data", e);
+        }
+    }
+
+    /**
+     * Restore a node and its descendants
+     *
+     * @param node  index of the node (advanced past its descendants)
+     * @param table the materials
+     * @return the intersectable of the node
+     */
+    private Intersectable restoreNode(int[] node, Material[] table) {
+        int type = types[node[0]++];
+        if (type == GEOMETRIES) {
+            Intersectable[] children = new Intersectable[ints[intPosition++]];
+            for (int i = 0; i < children.length; ++i) children[i] = restoreNode(node, table);
+            return new Geometries(children);
+        }
+        if (type == INSTANCE) {
+            int index = ints[intPosition++];
+            Transform placement = Transform.of(nextDoubles(TRANSFORM_SIZE));
+            Transform transform = Transform.of(nextDoubles(TRANSFORM_SIZE));
+            if (index == shared.size()) {
+                // first instance of the collection - the collection follows it
+                shared.add(null);
+                if (!(restoreNode(node, table) instanceof Geometries geometries)) {
+                    throw new IllegalArgumentException("Broken flattened hierarchy - instance of a geometry");
+                }
+                shared.set(index, geometries);
+            } else if (index > shared.size() || shared.get(index) == null) {
+                throw new IllegalArgumentException("Broken flattened hierarchy - unknown shared collection " + index);
+            }
+            return new Instance(shared.get(index), placement, transform);
+        }
+        Material material = table[ints[intPosition++]];
+        Color emission = new Color(nextDouble(), nextDouble(), nextDouble());
+        Geometry geometry = switch (type) {
+            case SPHERE -> new Sphere(nextPoint(), nextDouble());
+            case TRIANGLE -> new Triangle(nextPoint(), nextPoint(), nextPoint());
+            case POLYGON -> {
+                Point[] vertices = new Point[ints[intPosition++]];
+                for (int i = 0; i < vertices.length; ++i) vertices[i] = nextPoint();
+                yield new Polygon(vertices);
+            }
+            case PLANE -> new Plane(nextPoint(), nextVector());
+            case TUBE -> new Tube(nextDouble(), new Ray(nextPoint(), nextVector()));
+            case CYLINDER -> new Cylinder(nextDouble(), new Ray(nextPoint(), nextVector()), nextDouble());
+            case MESH -> {
+                int verticesCount = ints[intPosition++], indicesCount = ints[intPosition++];
+                int nodesCount = ints[intPosition++], depth = ints[intPosition++];
+                boolean transformed = ints[intPosition++] != 0;
+                int[] indices = nextInts(indicesCount), nodes = nextInts(nodesCount);
+                double[] vertices = nextDoubles(verticesCount), nodeBounds = nextDoubles(3 * nodesCount);
+                yield new TriangleMesh(vertices, indices, nodeBounds, nodes, depth,
+                        transformed ? nextDoubles(verticesCount) : null);
+            }
+            default -> throw new IllegalArgumentException("Broken flattened hierarchy - unknown type " + type);
+        };
+        return geometry.setEmission(emission).setMaterial(material);
+    }
+
+    /**
+     * @param offset offset of the material in the table
+     * @return the material
+     */
+    private Material restoreMaterial(int offset) {
+        Material material = new Material()
+                .setkD(new Double3(materials[offset], materials[offset + 1], materials[offset + 2]))
+                .setkS(new Double3(materials[offset + 3], materials[offset + 4], materials[offset + 5]))
+                .setkT(new Double3(materials[offset + 6], materials[offset + 7], materials[offset + 8]))
+                .setkR(new Double3(materials[offset + 9], materials[offset + 10], materials[offset + 11]))
+                .setKg(materials[offset + 12]).setKb(materials[offset + 13])
+                .setnShininess((int) materials[offset + 14]);
+        material.numOfRays = (int) materials[offset + 15];
+        material.blurGlassDistance = materials[offset + 16];
+        material.blurGlassRadius = materials[offset + 17];
+        return material;
+    }
+
+    /**
+     * @return the next double of the nodes
+     */
+    private double nextDouble() {
+        return doubles[doublePosition++];
+    }
+
+    /**
+     * @return the point of the next 3 doubles of the nodes
+     */
+    private Point nextPoint() {
+        return new Point(nextDouble(), nextDouble(), nextDouble());
+    }
+
+    /**
+     * @return the vector of the next 3 doubles of the nodes
+     */
+    private Vector nextVector() {
+        return new Vector(nextDouble(), nextDouble(), nextDouble());
+    }
+
+    /**
+     * @param count amount of the ints
+     * @return the next ints of the nodes
+     */
+    private int[] nextInts(int count) {
+        int[] result = new int[count];
+        System.arraycopy(ints, intPosition, result, 0, count);
+        intPosition += count;
+        return result;
+    }
+
+    /**
+     * @param count amount of the doubles
+     * @return the next doubles of the nodes
+     */
+    private double[] nextDoubles(int count) {
+        double[] result = new double[count];
+        System.arraycopy(doubles, doublePosition, result, 0, count);
+        doublePosition += count;
+        return result;
+    }
+
+    /**
+     * Flattening of a tree of intersectables into the arrays
+     */
+    private static class Flattener {
+        /** types of the nodes */
+        private final IntStream.Builder types = IntStream.builder();
+        /** ints of the nodes */
+        private final IntStream.Builder ints = IntStream.builder();
+        /** doubles of the nodes */
+        private final DoubleStream.Builder doubles = DoubleStream.builder();
+        /** the materials table */
+        private final DoubleStream.Builder materials = DoubleStream.builder();
+        /** indices of the materials in the table */
+        private final Map<Material, Integer> materialIndices = new IdentityHashMap<>();
+        /** indices of the collections shared by instances */
+        private final Map<Geometries, Integer> sharedIndices = new IdentityHashMap<>();
+
+        /**
+         * @param root the collection
+         * @return the flattened collection
+         */
+        FlatHierarchy flatten(Geometries root) {
+            add(root);
+            return new FlatHierarchy(types.build().toArray(), ints.build().toArray(), doubles.build().toArray(),
+                    materials.build().toArray());
+        }
+
+        /**
+         * Add a node and its descendants
+         *
+         * @param intersectable the intersectable of the node
+         */
+        private void add(Intersectable intersectable) {
+            if (intersectable instanceof Geometries geometries) {
+                types.add(GEOMETRIES);
+                List<Intersectable> children = new ArrayList<>(geometries.MyIntersectables);
+                ints.add(children.size());
+                for (Intersectable child : children) add(child);
+                return;
+            }
+            if (intersectable instanceof Instance instance) {
+                types.add(INSTANCE);
+                Integer index = sharedIndices.get(instance.getGeometries());
+                ints.add(index == null ? sharedIndices.size() : index);
+                for (double value : instance.getPlacement().toArray()) doubles.add(value);
+                for (double value : instance.getTransform().toArray()) doubles.add(value);
+                if (index == null) {
+                    sharedIndices.put(instance.getGeometries(), sharedIndices.size());
+                    add(instance.getGeometries());
+                }
+                return;
+            }
+            if (!(intersectable instanceof Geometry geometry)) {
+                throw new IllegalArgumentException("Can't flatten " + intersectable.getClass().getName());
+            }
+            // the subclasses are checked before their superclasses
+            int type = geometry instanceof Sphere ? SPHERE : geometry instanceof Triangle ? TRIANGLE
+                    : geometry instanceof Polygon ? POLYGON : geometry instanceof Plane ? PLANE
+                    : geometry instanceof Cylinder ? CYLINDER : geometry instanceof Tube ? TUBE
+                    : geometry instanceof TriangleMesh ? MESH : -1;
+            if (type < 0 || geometry.getClass() != typeClass(type)) {
+                throw new IllegalArgumentException("Can't flatten " + geometry.getClass().getName());
+            }
+            types.add(type);
+            ints.add(materialIndex(geometry.getMaterial()));
+            add(geometry.getEmission().getRed(), geometry.getEmission().getGreen(), geometry.getEmission().getBlue());
+            switch (type) {
+                case SPHERE -> {
+                    Sphere sphere = (Sphere) geometry;
+                    add(sphere.getCenter());
+                    doubles.add(sphere.radius);
+                }
+                case TRIANGLE, POLYGON -> {
+                    List<Point> vertices = ((Polygon) geometry).vertices;
+                    if (type == POLYGON) ints.add(vertices.size());
+                    for (Point vertex : vertices) add(vertex);
+                }
+                case PLANE -> {
+                    Plane plane = (Plane) geometry;
+                    add(plane.q);
+                    add(plane.normal);
+                }
+                case TUBE, CYLINDER -> {
+                    Tube tube = (Tube) geometry;
+                    doubles.add(tube.radius);
+                    add(tube.ray.getHead());
+                    add(tube.ray.getDirection());
+                    if (type == CYLINDER) doubles.add(((Cylinder) tube).height);
+                }
+                case MESH -> {
+                    TriangleMesh mesh = (TriangleMesh) geometry;
+                    ints.add(mesh.getVertices().length);
+                    ints.add(mesh.getIndices().length);
+                    ints.add(mesh.getNodes().length);
+                    ints.add(mesh.getDepth());
+                    ints.add(mesh.getOriginalVertices() == null ? 0 : 1);
+                    for (int index : mesh.getIndices()) ints.add(index);
+                    for (int node : mesh.getNodes()) ints.add(node);
+                    for (double value : mesh.getVertices()) doubles.add(value);
+                    for (double value : mesh.getNodeBounds()) doubles.add(value);
+                    if (mesh.getOriginalVertices() != null) {
+                        for (double value : mesh.getOriginalVertices()) doubles.add(value);
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown type " + type);
+            }
+        }
+
+        /**
+         * @param type a type of nodes
+         * @return the class of the geometries of the type
+         */
+        private static Class<?> typeClass(int type) {
+            return switch (type) {
+                case SPHERE -> Sphere.class;
+                case TRIANGLE -> Triangle.class;
+                case POLYGON -> Polygon.class;
+                case PLANE -> Plane.class;
+                case TUBE -> Tube.class;
+                case CYLINDER -> Cylinder.class;
+                default -> TriangleMesh.class;
+            };
+        }
+
+        /**
+         * @param material a material
+         * @return index of the material in the table (added to the table if it is new)
+         */
+        private int materialIndex(Material material) {
+            Integer index = materialIndices.get(material);
+            if (index != null) return index;
+            index = materialIndices.size();
+            materialIndices.put(material, index);
+            for (Double3 factor : new Double3[]{material.kD, material.kS, material.kT, material.kR}) {
+                for (double value : factor.toArray()) materials.add(value);
+            }
+            materials.add(material.kG);
+            materials.add(material.kB);
+            materials.add(material.nShininess);
+            materials.add(material.numOfRays);
+            materials.add(material.blurGlassDistance);
+            materials.add(material.blurGlassRadius);
+            return index;
+        }
+
+        /**
+         * @param x first double
+         * @param y second double
+         * @param z third double
+         */
+        private void add(double x, double y, double z) {
+            doubles.add(x);
+            doubles.add(y);
+            doubles.add(z);
+        }
+
+        /**
+         * @param point a point (or a vector)
+         */
+        private void add(Point point) {
+            add(point.getX(), point.getY(), point.getZ());
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package geometries;
 
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 public class Geometries extends Intersectable{
+    /**
+     * maximal amount of children in a leaf of the bounding volume hierarchy
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * cost of visiting a node relative to the cost of an intersection test (for the surface area heuristic)
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+
     List<Intersectable> MyIntersectables= new LinkedList<Intersectable>();
 
 
@@ -17,20 +29,264 @@ public class Geometries extends Intersectable{
     public Geometries(Intersectable...intersectables) {
         MyIntersectables = new LinkedList<Intersectable>();
         Collections.addAll(MyIntersectables,intersectables);
+        for (Intersectable geometry : intersectables) {
+            geometry.addParent(this);
+        }
+    }
+
+    /**
+     * constructor of a node in the bounding volume hierarchy
+     * @param intersectables the children of the node
+     */
+    private Geometries(List<Intersectable> intersectables) {
+        MyIntersectables = intersectables;
+        for (Intersectable geometry : intersectables) {
+            geometry.addParent(this);
+        }
     }
 
+    /**
+     * Add children to the collection. The cached boxes of the collection and of
+     * all the collections (and instances) holding it are dropped, so the new
+     * children are seen by all of them, even after the hierarchy was built
+     *
+     * @param intersectables the children
+     */
     public void add(Intersectable... intersectables){
         Collections.addAll(MyIntersectables,intersectables);
+        for (Intersectable geometry : intersectables) {
+            geometry.addParent(this);
+        }
+        resetBoundingBox();
+    }
+
+    /**
+     * @return box around all the children
+     * (infinite if any of them is unbounded, empty if there are no children)
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = BoundingBox.EMPTY;
+        for (Intersectable geometry : MyIntersectables) {
+            result = result.union(geometry.getBoundingBox());
+        }
+        return result;
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprint.add(getClass().getName()).add(MyIntersectables.size());
+        for (Intersectable intersectable : MyIntersectables) {
+            intersectable.fingerprint(fingerprint);
+        }
+    }
+
+    /**
+     * Reorganize the children into a bounding volume hierarchy (BVH), built
+     * according to the surface area heuristic (SAH).
+     * Unbounded children (such as planes) stay direct children of this collection,
+     * the bounded children are grouped into a tree of nested boxes, so a ray visits
+     * only the boxes it crosses.
+     * The intersections found are the same as before building the hierarchy
+     *
+     * @return this collection
+     */
+    public Geometries buildBVH() {
+        List<Intersectable> unbounded = new LinkedList<>();
+        List<BvhItem> bounded = new ArrayList<>();
+        for (Intersectable geometry : MyIntersectables) {
+            BoundingBox childBox = geometry.getBoundingBox();
+            if (childBox.isInfinite()) {
+                unbounded.add(geometry);
+            } else if (!childBox.isEmpty()) { // empty children have no intersections at all
+                bounded.add(new BvhItem(geometry, childBox));
+            }
+        }
+
+        MyIntersectables = unbounded;
+        if (!bounded.isEmpty()) {
+            Geometries root = buildNode(bounded);
+            if (unbounded.isEmpty()) {
+                MyIntersectables = root.MyIntersectables;
+                for (Intersectable geometry : MyIntersectables) {
+                    geometry.replaceParent(root, this);
+                }
+            } else {
+                MyIntersectables.add(root);
+            }
+        }
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * Refit the bounding volume hierarchy to children that were moved (see
+     * {@link Transformable}) - the boxes of the nested collections are
+     * calculated again, and the tree itself is kept. Much cheaper than building
+     * the hierarchy again, but the tree gets less efficient as the children move
+     * away from where it was built
+     *
+     * @return this collection
+     */
+    public Geometries refit() {
+        for (Intersectable geometry : MyIntersectables) {
+            if (geometry instanceof Geometries geometries) {
+                geometries.refit();
+            }
+        }
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * Build recursively a node of the hierarchy. The items are split into two groups
+     * along the axis and position of the lowest SAH cost, or kept in a leaf when
+     * splitting is not cheaper than testing all of them
+     *
+     * @param items the children with their boxes
+     * @return the node
+     */
+    private static Geometries buildNode(List<BvhItem> items) {
+        int n = items.size();
+        BoundingBox nodeBox = BoundingBox.EMPTY;
+        for (BvhItem item : items) {
+            nodeBox = nodeBox.union(item.box);
+        }
+        if (n <= 2) {
+            return leaf(items);
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestSplit = -1;
+        double[] rightAreas = new double[n];
+        for (int axis = 0; axis < 3; ++axis) {
+            sortByCenter(items, axis);
+            // areas of the boxes around the items from i to the end
+            BoundingBox right = items.get(n - 1).box;
+            for (int i = n - 1; i > 0; --i) {
+                right = right.union(items.get(i).box);
+                rightAreas[i] = right.surfaceArea();
+            }
+            // left group is items 0..i-1, right group is items i..n-1
+            BoundingBox left = items.get(0).box;
+            for (int i = 1; i < n; ++i) {
+                double cost = left.surfaceArea() * i + rightAreas[i] * (n - i);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = i;
+                }
+                left = left.union(items.get(i).box);
+            }
+        }
+
+        double area = nodeBox.surfaceArea();
+        double splitCost = area == 0 ? n : TRAVERSAL_COST + bestCost / area;
+        if (n <= MAX_LEAF_SIZE && splitCost >= n) {
+            return leaf(items);
+        }
+
+        sortByCenter(items, bestAxis);
+        List<Intersectable> children = new LinkedList<>();
+        children.add(child(items.subList(0, bestSplit)));
+        children.add(child(items.subList(bestSplit, n)));
+        return new Geometries(children);
+    }
+
+    /**
+     * @param items the children with their boxes
+     * @return the single child itself, or a node built from the children
+     */
+    private static Intersectable child(List<BvhItem> items) {
+        return items.size() == 1 ? items.get(0).geometry : buildNode(new ArrayList<>(items));
+    }
+
+    /**
+     * @param items the children with their boxes
+     * @return a leaf node holding the children
+     */
+    private static Geometries leaf(List<BvhItem> items) {
+        List<Intersectable> children = new LinkedList<>();
+        for (BvhItem item : items) {
+            children.add(item.geometry);
+        }
+        return new Geometries(children);
+    }
+
+    /**
+     * @param items the children with their boxes
+     * @param axis  0 for x, 1 for y, 2 for z
+     */
+    private static void sortByCenter(List<BvhItem> items, int axis) {
+        items.sort(Comparator.comparingDouble(item -> item.box.center(axis)));
+    }
+
+    /**
+     * a child with its box, used while the hierarchy is built
+     */
+    private record BvhItem(Intersectable geometry, BoundingBox box) {
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        if (MyIntersectables.size() == 2) {
+            // node of a hierarchy - visit first the child that the ray enters first,
+            // the other one is usually skipped after the closer hit is found
+            Intersectable first = MyIntersectables.get(0);
+            Intersectable second = MyIntersectables.get(1);
+            double firstDistance = first.getBoundingBox().intersectionDistance(ray, hit.distance);
+            double secondDistance = second.getBoundingBox().intersectionDistance(ray, hit.distance);
+            if (secondDistance < firstDistance) {
+                Intersectable geometry = first;
+                first = second;
+                second = geometry;
+                double distance = firstDistance;
+                firstDistance = secondDistance;
+                secondDistance = distance;
+            }
+            if (firstDistance != Double.POSITIVE_INFINITY) {
+                first.findClosestIntersectionHelper(ray, hit);
+            }
+            // the closest hit may have got closer than the box of the second child
+            if (secondDistance != Double.POSITIVE_INFINITY
+                    && (secondDistance < hit.distance || second.getBoundingBox().intersects(ray, hit.distance))) {
+                second.findClosestIntersectionHelper(ray, hit);
+            }
+            return;
+        }
+
+        for (Intersectable geometry : this.MyIntersectables) {
+            // a child that the ray enters farther than the closest hit found so far is skipped
+            if (geometry.getBoundingBox().intersects(ray, hit.distance)) {
+                geometry.findClosestIntersectionHelper(ray, hit);
+            }
+        }
+    }
+
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        for (Intersectable geometry : this.MyIntersectables) {
+            if (occlusion.blocked) {
+                return; // no light passes anyway - no need to look at the rest
+            }
+            // a child that the ray enters farther than the light can't block it
+            if (geometry.getBoundingBox().intersects(ray, occlusion.maxDistance)) {
+                geometry.findOcclusionHelper(ray, occlusion);
+            }
+        }
     }
 
     @Override
 
     //=== find intersection point between a geometry (we know now) and the ray ===//
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-
         List<GeoPoint> intersection = null;
 
         for (Intersectable geometry : this.MyIntersectables) { // loop on all the geometry that implement "the Intersectables"
+            // cheap slab test first - a ray that misses the box of a child can't intersect it
+            if (!geometry.getBoundingBox().intersects(ray)) {
+                continue;
+            }
             // list of crossing point between the ray ana the geometry//
             var geoIntersections = geometry.findGeoIntersections(ray);
             if (geoIntersections != null) { // if there is a crossing
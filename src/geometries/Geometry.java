@@ -1,5 +1,6 @@
 package geometries;
 import primitives.Color;
+import primitives.Fingerprint;
 import primitives.Material;
 import primitives.Point;
 import primitives.Vector;
@@ -45,6 +46,15 @@ public abstract class Geometry extends Intersectable {
     }
 
 
+    /**
+     * Add the kind, the emission and the material of the geometry to a fingerprint
+     *
+     * @param fingerprint the fingerprint
+     */
+    void fingerprintSurface(Fingerprint fingerprint) {
+        fingerprint.add(getClass().getName()).add(emission).add(material);
+    }
+
     /**
      * @param point
      * @return normal from the point to geometrries
@@ -0,0 +1,291 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Instance of a shared collection of geometries, placed in the scene by an
+ * affine transform. Many instances may share one collection (with its
+ * hierarchy), so the memory of a scene grows with its distinct objects and not
+ * with the amount of their copies.
+ * A ray is transformed into the space of the collection, and the intersections
+ * are transformed back - their geometry is a view of the shared geometry, with
+ * its material and emission, whose normals are transformed into the scene
+ */
+public class Instance extends Intersectable implements Transformable {
+    /**
+     * the shared collection of geometries
+     */
+    private final Geometries geometries;
+    /**
+     * transform of the original placement of the instance
+     */
+    private final Transform placement;
+    /**
+     * transform from the space of the collection into the scene
+     */
+    private Transform transform;
+    /**
+     * transform from the scene into the space of the collection
+     */
+    private Transform inverse;
+
+    /**
+     * Constructor of an instance
+     *
+     * @param geometries the shared collection of geometries
+     * @param transform  placement of the collection in the scene
+     */
+    public Instance(Geometries geometries, Transform transform) {
+        this(geometries, transform, transform);
+    }
+
+    /**
+     * Constructor of an instance that was moved from its placement
+     *
+     * @param geometries the shared collection of geometries
+     * @param placement  original placement of the collection in the scene
+     * @param transform  current placement of the collection in the scene
+     */
+    Instance(Geometries geometries, Transform placement, Transform transform) {
+        this.geometries = geometries;
+        this.placement = placement;
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        geometries.addParent(this);
+    }
+
+    /**
+     * @return the shared collection of geometries
+     */
+    public Geometries getGeometries() {
+        return geometries;
+    }
+
+    /**
+     * @return transform from the space of the collection into the scene
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * @return transform of the original placement of the instance
+     */
+    Transform getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Move the instance by a transform of its original placement (the
+     * transform is applied after the placement). Must not be called while the
+     * instance is rendered
+     *
+     * @param transform the transform
+     * @return the instance itself
+     */
+    @Override
+    public Instance setTransform(Transform transform) {
+        this.transform = placement.then(transform);
+        this.inverse = this.transform.inverse();
+        resetBoundingBox();
+        return this;
+    }
+
+    /**
+     * @return box around the transformed box of the collection
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return transformBox(geometries.getBoundingBox());
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprint.add(getClass().getName());
+        for (double value : transform.toArray()) {
+            fingerprint.add(value);
+        }
+        // a collection shared by many instances is added once
+        if (fingerprint.addShared(geometries)) {
+            geometries.fingerprint(fingerprint);
+        }
+    }
+
+    /**
+     * @param box box in the space of the collection
+     * @return box around the transformed box, in the scene
+     */
+    private BoundingBox transformBox(BoundingBox box) {
+        if (box.isEmpty() || box.isInfinite()) {
+            return box;
+        }
+        Point[] corners = new Point[8];
+        for (int i = 0; i < 8; ++i) {
+            corners[i] = transform.apply(new Point((i & 1) == 0 ? box.minX : box.maxX,
+                    (i & 2) == 0 ? box.minY : box.maxY, (i & 4) == 0 ? box.minZ : box.maxZ));
+        }
+        return BoundingBox.of(corners);
+    }
+
+    /**
+     * @param ray ray in the scene
+     * @return the ray in the space of the collection
+     */
+    private Ray toLocal(Ray ray) {
+        return new Ray(inverse.apply(ray.getHead()), inverse.apply(ray.getDirection()));
+    }
+
+    /**
+     * @param ray ray in the scene
+     * @return length of the direction of the ray in the space of the collection -
+     * a distance in the scene is multiplied by it in the space of the collection
+     */
+    private double localScale(Ray ray) {
+        return inverse.apply(ray.getDirection()).length();
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        var intersections = geometries.findGeoIntersections(toLocal(ray));
+        if (intersections == null) {
+            return null;
+        }
+        List<GeoPoint> result = new LinkedList<>();
+        for (GeoPoint gp : intersections) {
+            result.add(new GeoPoint(new InstancedGeometry(this, gp.geometry), transform.apply(gp.point)));
+        }
+        return result;
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        double scale = localScale(ray);
+        ClosestHit localHit = new ClosestHit(hit.distance * scale);
+        geometries.findClosestIntersectionHelper(toLocal(ray), localHit);
+        hit.tests += localHit.tests;
+        if (localHit.geometry != null) {
+            hit.update(new InstancedGeometry(this, localHit.geometry), localHit.distance / scale);
+        }
+    }
+
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        Occlusion localOcclusion = new Occlusion(occlusion.maxDistance * localScale(ray), occlusion.minK);
+        localOcclusion.ktr = occlusion.ktr;
+        geometries.findOcclusionHelper(toLocal(ray), localOcclusion);
+        occlusion.ktr = localOcclusion.ktr;
+        occlusion.blocked = localOcclusion.blocked;
+        occlusion.tests += localOcclusion.tests;
+    }
+
+    @Override
+    public String toString() {
+        return "Instance{" + geometries + ", " + transform + '}';
+    }
+
+    /**
+     * A shared geometry as seen in an instance - with the material and the
+     * emission of the shared geometry, and its normals, box and intersections
+     * transformed into the scene (by the current transform of the instance)
+     */
+    private static final class InstancedGeometry extends Geometry {
+        /**
+         * the instance
+         */
+        private final Instance instance;
+        /**
+         * the shared geometry
+         */
+        private final Geometry geometry;
+
+        /**
+         * @param instance the instance
+         * @param geometry the shared geometry
+         */
+        InstancedGeometry(Instance instance, Geometry geometry) {
+            this.instance = instance;
+            this.geometry = geometry;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return instance.transform.applyNormal(geometry.getNormal(instance.inverse.apply(point)));
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        /**
+         * Set the material of the shared geometry - it changes in all the instances
+         *
+         * @param material the material
+         * @return the instanced geometry itself
+         */
+        @Override
+        public Geometry setMaterial(Material material) {
+            geometry.setMaterial(material);
+            return this;
+        }
+
+        /**
+         * Set the emission of the shared geometry - it changes in all the instances
+         *
+         * @param emission the emission
+         * @return the instanced geometry itself
+         */
+        @Override
+        public Geometry setEmission(Color emission) {
+            geometry.setEmission(emission);
+            return this;
+        }
+
+        /**
+         * @return box around the shared geometry, transformed into the scene
+         */
+        @Override
+        protected BoundingBox calcBoundingBox() {
+            return instance.transformBox(geometry.getBoundingBox());
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+            var intersections = geometry.findGeoIntersections(instance.toLocal(ray));
+            if (intersections == null) {
+                return null;
+            }
+            List<GeoPoint> result = new LinkedList<>();
+            for (GeoPoint gp : intersections) {
+                Geometry hit = gp.geometry == geometry ? this : new InstancedGeometry(instance, gp.geometry);
+                result.add(new GeoPoint(hit, instance.transform.apply(gp.point)));
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            return obj instanceof InstancedGeometry other && instance == other.instance && geometry == other.geometry;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(instance), System.identityHashCode(geometry));
+        }
+
+        @Override
+        public String toString() {
+            return geometry + " in " + instance;
+        }
+    }
+}
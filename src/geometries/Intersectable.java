@@ -1,8 +1,14 @@
 package geometries;
+import primitives.Double3;
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import static primitives.Util.alignZero;
 
 public abstract class Intersectable {
     /**
@@ -20,6 +26,311 @@ public abstract class Intersectable {
         return findGeoIntersectionsHelper(ray);
     }
 
+    /**
+     * Find the closest intersection of the ray with the object.
+     * Unlike {@link #findGeoIntersections(Ray)} it doesn't collect all the
+     * intersections into a list - only the distance to the closest intersection
+     * found so far is kept, and anything farther is skipped
+     *
+     * @param ray the ray
+     * @return the closest intersection, or null if there is none
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the closest intersection of the ray with the object, not farther than
+     * the given distance from the ray head
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray head
+     * @return the closest intersection, or null if there is none
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersection(ray, maxDistance, null);
+    }
+
+    /**
+     * Find the closest intersection of the ray with the object, not farther than
+     * the given distance from the ray head, and count the intersection tests of
+     * the basic geometries it made
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximal distance from the ray head
+     * @param tests       counter of the intersection tests (null - not counted)
+     * @return the closest intersection, or null if there is none
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance, LongAdder tests) {
+        ClosestHit hit = new ClosestHit(maxDistance);
+        findClosestIntersectionHelper(ray, hit);
+        if (tests != null) tests.add(hit.tests);
+        return hit.geometry == null ? null : new GeoPoint(hit.geometry, ray.getPoint(hit.distance));
+    }
+
+    /**
+     * Update the hit if the ray intersects the object closer than the hit distance.
+     * The default implementation scans the list of all the intersections,
+     * geometries override it with a calculation that allocates nothing
+     *
+     * @param ray the ray
+     * @param hit the closest intersection found so far
+     */
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        ++hit.tests;
+        var intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null) {
+            return;
+        }
+        Point head = ray.getHead();
+        for (GeoPoint gp : intersections) {
+            hit.update(gp.geometry, head.distance(gp.point));
+        }
+    }
+
+    /**
+     * the box around the object, calculated at the first request
+     */
+    private BoundingBox boundingBox = null;
+
+    /**
+     * @return axis aligned box that contains the whole object
+     * ({@link BoundingBox#INFINITE} if the object is unbounded)
+     */
+    public BoundingBox getBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = calcBoundingBox();
+        }
+        return boundingBox;
+    }
+
+    /**
+     * the collections (and instances) that hold the object, null while there are none -
+     * their boxes are calculated from its box
+     */
+    private List<Intersectable> parents = null;
+
+    /**
+     * Register a collection (or an instance) that holds the object, so its box
+     * is dropped together with the box of the object
+     *
+     * @param parent the holder
+     */
+    void addParent(Intersectable parent) {
+        if (parents == null) {
+            parents = new ArrayList<>(1);
+        }
+        for (Intersectable holder : parents) {
+            if (holder == parent) return;
+        }
+        parents.add(parent);
+    }
+
+    /**
+     * Replace a holder of the object by another one
+     *
+     * @param parent the old holder
+     * @param other  the new holder
+     */
+    void replaceParent(Intersectable parent, Intersectable other) {
+        if (parents != null) {
+            parents.remove(parent);
+        }
+        addParent(other);
+    }
+
+    /**
+     * drop the cached box, so it is calculated again at the next request
+     * (must be called when the object changes its extent). The boxes of the
+     * holders of the object are dropped as well, up to the root
+     */
+    protected void resetBoundingBox() {
+        boundingBox = null;
+        if (parents != null) {
+            for (Intersectable parent : parents) {
+                parent.resetBoundingBox();
+            }
+        }
+    }
+
+    /**
+     * @return axis aligned box that contains the whole object
+     * ({@link BoundingBox#INFINITE} if the object is unbounded)
+     */
+    protected abstract BoundingBox calcBoundingBox();
+
+    /**
+     * Add everything about the object that affects the rendered image (its kind,
+     * shape, placement, material and emission - and of all its descendants) to a
+     * fingerprint
+     *
+     * @param fingerprint the fingerprint
+     * @throws IllegalArgumentException if the object (or a descendant) is not one of the
+     *                                  intersectables of this package, which are the only ones that can be
+     *                                  fingerprinted
+     */
+    public final void fingerprint(Fingerprint fingerprint) {
+        if (getClass().getPackage() != Intersectable.class.getPackage()) {
+            throw new IllegalArgumentException("Can't fingerprint " + getClass().getName());
+        }
+        fingerprintHelper(fingerprint);
+    }
+
+    /**
+     * Add the attributes of the object to a fingerprint
+     * (every intersectable of this package overrides it)
+     *
+     * @param fingerprint the fingerprint
+     * @throws IllegalArgumentException if the object can't be fingerprinted
+     */
+    void fingerprintHelper(Fingerprint fingerprint) {
+        throw new IllegalArgumentException("Can't fingerprint " + getClass().getName());
+    }
+
+    /**
+     * Calculate how much light passes along the ray up to the given distance -
+     * the product of the transparency factors (kT) of all the intersections
+     * that are not farther than the distance.
+     * The search stops as soon as the product drops below the minimal factor
+     *
+     * @param ray         the ray (from a point towards a light source)
+     * @param maxDistance the maximal distance from the ray head (distance to the light source)
+     * @param minK        the minimal factor that is still considered transparent
+     * @return the product of the transparency factors, or zero if the light is blocked
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparency(ray, maxDistance, minK, null);
+    }
+
+    /**
+     * Calculate how much light passes along the ray up to the given distance, as
+     * {@link #findTransparency(Ray, double, double)}, and count the intersection
+     * tests of the basic geometries it made
+     *
+     * @param ray         the ray (from a point towards a light source)
+     * @param maxDistance the maximal distance from the ray head (distance to the light source)
+     * @param minK        the minimal factor that is still considered transparent
+     * @param tests       counter of the intersection tests (null - not counted)
+     * @return the product of the transparency factors, or zero if the light is blocked
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, double minK, LongAdder tests) {
+        Occlusion occlusion = new Occlusion(maxDistance, minK);
+        findOcclusionHelper(ray, occlusion);
+        if (tests != null) tests.add(occlusion.tests);
+        return occlusion.blocked ? Double3.ZERO : occlusion.ktr;
+    }
+
+    /**
+     * Multiply the occlusion by the transparency factors of the intersections of the
+     * ray with the object that are not farther than the occlusion distance.
+     * The default implementation scans the list of all the intersections
+     *
+     * @param ray       the ray
+     * @param occlusion the transparency accumulated so far
+     */
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        ++occlusion.tests;
+        var intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null) {
+            return;
+        }
+        Point head = ray.getHead();
+        for (GeoPoint gp : intersections) {
+            if (occlusion.blocked) {
+                return;
+            }
+            occlusion.add(gp.geometry, head.distance(gp.point));
+        }
+    }
+
+    /**
+     * the transparency accumulated along a ray by an occlusion (any-hit) query
+     */
+    protected static final class Occlusion {
+        /**
+         * the maximal distance of an intersection that blocks the light
+         */
+        final double maxDistance;
+        /**
+         * the minimal factor that is still considered transparent
+         */
+        final double minK;
+        /**
+         * product of the transparency factors of the intersections found so far
+         */
+        Double3 ktr = Double3.ONE;
+        /**
+         * true when the product dropped below the minimal factor - no need to search any more
+         */
+        boolean blocked = false;
+        /**
+         * amount of the intersection tests of basic geometries made by the query
+         */
+        int tests = 0;
+
+        /**
+         * constructor of an occlusion with no intersections
+         * @param maxDistance the maximal distance of an intersection that blocks the light
+         * @param minK        the minimal factor that is still considered transparent
+         */
+        Occlusion(double maxDistance, double minK) {
+            this.maxDistance = maxDistance;
+            this.minK = minK;
+        }
+
+        /**
+         * multiply by the transparency of an intersection if it is not too far
+         * @param geometry the intersected geometry
+         * @param distance distance from the ray head to the intersection
+         */
+        void add(Geometry geometry, double distance) {
+            if (alignZero(distance - maxDistance) > 0) {
+                return;
+            }
+            ktr = ktr.product(geometry.getMaterial().kT); //the more transparency the less shadow
+            blocked = ktr.lowerThan(minK);
+        }
+    }
+
+    /**
+     * the closest intersection found so far by a closest-hit query
+     */
+    protected static final class ClosestHit {
+        /**
+         * distance from the ray head to the closest intersection found so far
+         * (the maximal distance of the query as long as there is none)
+         */
+        double distance;
+        /**
+         * the geometry of the closest intersection, null as long as there is none
+         */
+        Geometry geometry = null;
+        /**
+         * amount of the intersection tests of basic geometries made by the query
+         */
+        int tests = 0;
+
+        /**
+         * constructor of an empty hit
+         * @param maxDistance the maximal distance of the query
+         */
+        ClosestHit(double maxDistance) {
+            this.distance = maxDistance;
+        }
+
+        /**
+         * keep the intersection if it is closer than the closest one found so far
+         * @param geometry the intersected geometry
+         * @param distance distance from the ray head to the intersection
+         */
+        void update(Geometry geometry, double distance) {
+            if (distance < this.distance) {
+                this.distance = distance;
+                this.geometry = geometry;
+            }
+        }
+    }
+
     /**
      * this class has been written because we want to know the specific geometry the ray cross it over
      * because we added the emission light for each geometry and if we want to calculate the color at the point
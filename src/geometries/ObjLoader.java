@@ -0,0 +1,444 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static primitives.Util.isZero;
+
+/**
+ * Loader of Wavefront OBJ files into a {@link TriangleMesh}. The file is
+ * memory mapped and split into chunks at line ends, and the chunks are parsed
+ * in parallel by a hand-written parser, without creating strings or objects
+ * for the lines. Only the geometry is loaded - the vertices ("v" lines, the
+ * optional w is ignored) and the faces ("f" lines, with the texture and normal
+ * indices ignored, and negative indices relative to the last vertex). Faces of
+ * more than 3 vertices are split into fans of triangles, and triangles whose
+ * vertices are on one line are dropped. Other lines (normals, texture
+ * coordinates, groups, materials, comments) are skipped
+ */
+public final class ObjLoader {
+    /**
+     * nominal size of a chunk of the file (bytes)
+     */
+    private static final long CHUNK_SIZE = 1 << 24;
+    /**
+     * powers of ten that are exact doubles
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; ++i) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private ObjLoader() {
+    }
+
+    /**
+     * Load an OBJ file, with a thread for every processor
+     *
+     * @param file the OBJ file
+     * @return the mesh of the faces of the file
+     * @throws IllegalArgumentException if the file is not a valid OBJ file
+     * @throws IllegalStateException    if the file can't be read
+     */
+    public static TriangleMesh load(Path file) {
+        return load(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Load an OBJ file
+     *
+     * @param file    the OBJ file
+     * @param threads amount of threads parsing the chunks of the file (1 - on the calling thread)
+     * @return the mesh of the faces of the file
+     * @throws IllegalArgumentException if the file is not a valid OBJ file or the amount of threads is not positive
+     * @throws IllegalStateException    if the file can't be read
+     */
+    public static TriangleMesh load(Path file, int threads) {
+        return load(file, threads, CHUNK_SIZE);
+    }
+
+    /**
+     * Load an OBJ file in chunks of the given size
+     *
+     * @param file      the OBJ file
+     * @param threads   amount of threads parsing the chunks of the file (1 - on the calling thread)
+     * @param chunkSize nominal size of a chunk (bytes)
+     * @return the mesh of the faces of the file
+     */
+    static TriangleMesh load(Path file, int threads, long chunkSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads count must be positive");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, chunkSize);
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            for (int c = 0; c + 1 < bounds.length; ++c) {
+                long start = bounds[c], end = bounds[c + 1];
+                tasks.add(() -> new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)).parse());
+            }
+
+            ForkJoinPool pool = threads == 1 || tasks.size() < 2 ? null : new ForkJoinPool(threads);
+            try {
+                List<Future<Chunk>> results = new ArrayList<>();
+                if (pool == null) {
+                    for (Callable<Chunk> task : tasks) {
+                        FutureTask<Chunk> result = new FutureTask<>(task);
+                        result.run();
+                        results.add(result);
+                    }
+                } else {
+                    results = pool.invokeAll(tasks);
+                }
+                Chunk[] chunks = new Chunk[results.size()];
+                int linesBefore = 0;
+                for (int c = 0; c < chunks.length; ++c) {
+                    try {
+                        chunks[c] = results.get(c).get();
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof BadLineException bad) {
+                            throw new IllegalArgumentException("Bad OBJ file " + file + " at line "
+                                    + (linesBefore + bad.line) + " - " + bad.getMessage());
+                        }
+                        if (e.getCause() instanceof RuntimeException cause) throw cause;
+                        throw new IllegalStateException("I/O error - can't read OBJ file " + file, e.getCause());
+                    }
+                    linesBefore += chunks[c].lines;
+                }
+                return assemble(chunks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Loading was interrupted", e);
+            } finally {
+                if (pool != null) pool.shutdownNow();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't read OBJ file " + file, e);
+        }
+    }
+
+    /**
+     * Split the file into chunks - every chunk but the last ends right after a line end
+     *
+     * @param channel   the file
+     * @param chunkSize nominal size of a chunk (bytes)
+     * @return offsets of the chunks, and the size of the file at the end
+     * @throws IOException if the file can't be read
+     */
+    private static long[] chunkBounds(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            // the first line end at or after the nominal end of the chunk
+            long lineEnd = -1;
+            for (long offset = position - 1; lineEnd < 0 && offset < size; offset += buffer.limit()) {
+                buffer.clear();
+                channel.read(buffer, offset);
+                buffer.flip();
+                for (int i = 0; i < buffer.limit(); ++i) {
+                    if (buffer.get(i) == '\n') {
+                        lineEnd = offset + i;
+                        break;
+                    }
+                }
+            }
+            if (lineEnd < 0 || lineEnd + 1 >= size) break;
+            if (lineEnd + 1 - bounds.get(bounds.size() - 1) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Line of the OBJ file is too long");
+            }
+            bounds.add(lineEnd + 1);
+            position = lineEnd + 1 + chunkSize;
+        }
+        if (size - bounds.get(bounds.size() - 1) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Line of the OBJ file is too long");
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Join the parsed chunks into a mesh - resolve the relative vertex indices,
+     * and drop the triangles whose vertices are on one line
+     *
+     * @param chunks the parsed chunks, in the order of the file
+     * @return the mesh
+     * @throws IllegalArgumentException if a face refers to a missing vertex
+     */
+    private static TriangleMesh assemble(Chunk[] chunks) {
+        int vertexCount = 0, indexCount = 0;
+        for (Chunk chunk : chunks) {
+            vertexCount += chunk.vertexCount;
+            indexCount += chunk.indexCount;
+        }
+        double[] vertices = new double[3 * vertexCount];
+        int[] indices = new int[indexCount];
+        int base = 0, count = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.vertices, 0, vertices, 3 * base, 3 * chunk.vertexCount);
+            for (int i = 0; i < chunk.indexCount; i += 3) {
+                for (int k = 0; k < 3; ++k) {
+                    int index = chunk.indices[i + k];
+                    if (chunk.relative.get(i + k)) index += base;
+                    if (index < 0 || index >= vertexCount) {
+                        throw new IllegalArgumentException("Bad OBJ file - face of a missing vertex");
+                    }
+                    indices[count + k] = index;
+                }
+                if (!isDegenerate(vertices, indices, count)) count += 3;
+            }
+            base += chunk.vertexCount;
+        }
+        return new TriangleMesh(vertices, count == indices.length ? indices : Arrays.copyOf(indices, count), false);
+    }
+
+    /**
+     * @param vertices coordinates of the vertices
+     * @param indices  vertex indices of the triangles
+     * @param first    index of the first vertex index of the triangle
+     * @return whether the vertices of the triangle are on one line (as checked by the mesh)
+     */
+    private static boolean isDegenerate(double[] vertices, int[] indices, int first) {
+        int a = 3 * indices[first], b = 3 * indices[first + 1], c = 3 * indices[first + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+        double e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+        double e2z = vertices[c + 2] - vertices[a + 2];
+        return isZero(e1y * e2z - e1z * e2y) && isZero(e1z * e2x - e1x * e2z) && isZero(e1x * e2y - e1y * e2x);
+    }
+
+    /**
+     * Error in a line of a chunk
+     */
+    private static class BadLineException extends RuntimeException {
+        /**
+         * version of the serialized form
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * number of the line in its chunk (1 - the first line)
+         */
+        final int line;
+
+        /**
+         * Constructor
+         *
+         * @param line    number of the line in its chunk
+         * @param message description of the error
+         */
+        BadLineException(int line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    /**
+     * Parser of a chunk of the file, and the vertices and triangles it found
+     */
+    private static class Chunk {
+        /** the bytes of the chunk */
+        private final ByteBuffer buffer;
+        /** position of the parser in the chunk */
+        private int position = 0;
+        /** end of the line being parsed */
+        private int lineEnd;
+        /** amount of the lines of the chunk */
+        int lines = 0;
+        /** coordinates of the vertices of the chunk */
+        double[] vertices = new double[3 * 1024];
+        /** amount of the vertices of the chunk */
+        int vertexCount = 0;
+        /**
+         * vertex indices of the triangles - 0-based indices of the file, or indices
+         * relative to the first vertex of the chunk
+         */
+        int[] indices = new int[3 * 1024];
+        /** which of the indices are relative to the first vertex of the chunk */
+        final BitSet relative = new BitSet();
+        /** amount of the vertex indices of the chunk */
+        int indexCount = 0;
+        /** vertex indices of the face being parsed (as in {@link #indices}) */
+        private int[] face = new int[16];
+        /** which of the indices of the face are relative */
+        private boolean[] faceRelative = new boolean[16];
+
+        /**
+         * Constructor of a parser of a chunk
+         *
+         * @param buffer the bytes of the chunk
+         */
+        Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Parse all the lines of the chunk
+         *
+         * @return the chunk itself
+         * @throws BadLineException if a line is not valid
+         */
+        Chunk parse() {
+            int size = buffer.limit();
+            while (position < size) {
+                ++lines;
+                lineEnd = position;
+                while (lineEnd < size && buffer.get(lineEnd) != '\n') ++lineEnd;
+                parseLine();
+                position = lineEnd + 1;
+            }
+            return this;
+        }
+
+        /**
+         * Parse the line between the position and the line end
+         */
+        private void parseLine() {
+            skipBlanks();
+            if (position + 1 >= lineEnd || !isBlank(buffer.get(position + 1))) {
+                return; // empty line or a keyword that is not loaded
+            }
+            byte keyword = buffer.get(position);
+            position += 2;
+            if (keyword == 'v') {
+                if (3 * vertexCount + 3 > vertices.length) vertices = Arrays.copyOf(vertices, 2 * vertices.length);
+                for (int k = 0; k < 3; ++k) vertices[3 * vertexCount + k] = parseDouble();
+                ++vertexCount;
+            } else if (keyword == 'f') {
+                int count = 0;
+                for (skipBlanks(); position < lineEnd; skipBlanks()) {
+                    int index = parseInt();
+                    if (index == 0) throw new BadLineException(lines, "vertex index 0");
+                    // the texture and normal indices are not loaded
+                    while (position < lineEnd && !isBlank(buffer.get(position))) ++position;
+                    if (count == face.length) {
+                        face = Arrays.copyOf(face, 2 * count);
+                        faceRelative = Arrays.copyOf(faceRelative, 2 * count);
+                    }
+                    faceRelative[count] = index < 0;
+                    face[count++] = index < 0 ? vertexCount + index : index - 1;
+                }
+                if (count < 3) throw new BadLineException(lines, "face of less than 3 vertices");
+                for (int k = 1; k + 1 < count; ++k) {
+                    addIndex(0);
+                    addIndex(k);
+                    addIndex(k + 1);
+                }
+            }
+        }
+
+        /**
+         * Add a vertex index of the face to the triangles
+         *
+         * @param k index of the vertex in the face
+         */
+        private void addIndex(int k) {
+            if (indexCount == indices.length) indices = Arrays.copyOf(indices, 2 * indices.length);
+            if (faceRelative[k]) relative.set(indexCount);
+            indices[indexCount++] = face[k];
+        }
+
+        /**
+         * @param b a byte of the file
+         * @return whether the byte is a space, a tab or a carriage return
+         */
+        private static boolean isBlank(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        /**
+         * Skip to the next non-blank byte of the line, or to the end of the line
+         * before a comment
+         */
+        private void skipBlanks() {
+            while (position < lineEnd && isBlank(buffer.get(position))) ++position;
+            if (position < lineEnd && buffer.get(position) == '#') position = lineEnd;
+        }
+
+        /**
+         * @return the integer at the position
+         * @throws BadLineException if there is no integer at the position
+         */
+        private int parseInt() {
+            boolean negative = position < lineEnd && buffer.get(position) == '-';
+            if (negative || position < lineEnd && buffer.get(position) == '+') ++position;
+            int start = position;
+            long value = 0;
+            for (byte b; position < lineEnd && (b = buffer.get(position)) >= '0' && b <= '9'; ++position) {
+                value = 10 * value + (b - '0');
+                if (value > Integer.MAX_VALUE) throw new BadLineException(lines, "index too big");
+            }
+            if (position == start) throw new BadLineException(lines, "index expected");
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * Parse a decimal number - up to 15 significant digits and a power of ten up
+         * to 22 are calculated exactly, longer numbers are parsed by {@link Double#parseDouble}
+         *
+         * @return the number at the position
+         * @throws BadLineException if there is no number at the position
+         */
+        private double parseDouble() {
+            skipBlanks();
+            int start = position;
+            boolean negative = position < lineEnd && buffer.get(position) == '-';
+            if (negative || position < lineEnd && buffer.get(position) == '+') ++position;
+            long mantissa = 0;
+            int digits = 0, exponent = 0;
+            boolean any = false;
+            byte b;
+            for (; position < lineEnd && (b = buffer.get(position)) >= '0' && b <= '9'; ++position) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = 10 * mantissa + (b - '0');
+                    if (mantissa != 0) ++digits;
+                } else {
+                    ++exponent;
+                }
+            }
+            if (position < lineEnd && buffer.get(position) == '.') {
+                for (++position; position < lineEnd && (b = buffer.get(position)) >= '0' && b <= '9'; ++position) {
+                    any = true;
+                    if (digits < 18) {
+                        mantissa = 10 * mantissa + (b - '0');
+                        if (mantissa != 0) ++digits;
+                        --exponent;
+                    }
+                }
+            }
+            if (!any) throw new BadLineException(lines, "number expected");
+            if (position < lineEnd && ((b = buffer.get(position)) == 'e' || b == 'E')) {
+                ++position;
+                exponent += parseInt();
+            }
+            if (position < lineEnd && !isBlank(buffer.get(position))) {
+                throw new BadLineException(lines, "bad number");
+            }
+            double value;
+            if (digits <= 15 && Math.abs(exponent) < POWERS_OF_TEN.length) {
+                value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            } else {
+                byte[] text = new byte[position - start];
+                buffer.get(start, text);
+                return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+            }
+            return negative ? -value : value;
+        }
+    }
+}
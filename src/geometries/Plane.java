@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -45,17 +46,69 @@ public class Plane extends Geometry{
 
     public Vector getNormal(Point point) {return normal;}
 
+    /**
+     * @return infinite box - a plane is unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprintSurface(fingerprint);
+        fingerprint.add(q).add(normal);
+    }
+
     /**
      * @param ray=Ray object type
      * @return a list of intersection points between the ray and the geometry
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = intersectionDistance(ray);
+        if (t == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        // "this" - the specific geometry, "rey.getPoint(t)" - the point that the ray
+        // cross the geometry
+        return List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        ++hit.tests;
+        hit.update(this, intersectionDistance(ray));
+    }
+
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        ++occlusion.tests;
+        double t = intersectionDistance(ray);
+        if (t != Double.POSITIVE_INFINITY) {
+            occlusion.add(this, t);
+        }
+    }
+
+    /**
+     * Calculate the intersection of the ray with the plane without allocating
+     * any object
+     *
+     * @param ray the ray
+     * @return distance from the ray head to the intersection point,
+     * or positive infinity if the ray doesn't intersect the plane
+     */
+    double intersectionDistance(Ray ray) {
         Point P0 = ray.getHead(); // according to the illustration P0 is the same point of the ray's P0 (that's why the definition))
         Vector v = ray.getDirection(); // according to the illustration v is the same vector of the ray's vector (that's why the definition))
 
-        if (this.q.equals(P0)) { // if the ray starting from the plane it doesn't cut the plane at all
-            return null; // so return null
+        // Q-P0 by its coordinates
+        double qp0X = q.getX() - P0.getX();
+        double qp0Y = q.getY() - P0.getY();
+        double qp0Z = q.getZ() - P0.getZ();
+        if (isZero(qp0X) && isZero(qp0Y) && isZero(qp0Z)) { // if the ray starting from the plane it doesn't cut the plane at all
+            return Double.POSITIVE_INFINITY;
         }
 
         Vector n = this.normal; // the normal to the plane
@@ -64,26 +117,19 @@ public class Plane extends Geometry{
 
         // ray is lying on the plane axis
         if (isZero(nv)) { // can't divide by zero (nv is the denominator)
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
-        Vector Q0_P0 = this.q.subtract(P0);
-        double nP0Q0 = alignZero(n.dotProduct(Q0_P0));
+        double nP0Q0 = alignZero(n.getX() * qp0X + n.getY() * qp0Y + n.getZ() * qp0Z);
 
         // t should be bigger than 0
         if (isZero(nP0Q0)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         double t = alignZero(nP0Q0 / nv);
 
         // t should be bigger than 0
-        if (t <= 0) {
-            return null;
-        }
-
-        // "this" - the specific geometry, "rey.getPoint(t)" - the point that the ray
-        // cross the geometry
-        return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return t <= 0 ? Double.POSITIVE_INFINITY : t;
     }
 }
@@ -5,6 +5,8 @@ import java.util.List;
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
+import primitives.Fingerprint;
+import primitives.MutableVec3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -85,42 +87,84 @@ public class Polygon extends Geometry {
    public Vector getNormal(Point point) { return plane.getNormal(); }
 
    @Override
-   protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+   protected BoundingBox calcBoundingBox() { return BoundingBox.of(vertices.toArray(new Point[size])); }
 
-      List<GeoPoint> intersections = plane.findGeoIntersections(ray);
+   @Override
+   void fingerprintHelper(Fingerprint fingerprint) {
+      fingerprintSurface(fingerprint);
+      fingerprint.add(size);
+      for (Point vertex : vertices) fingerprint.add(vertex);
+   }
+
+   @Override
+   protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+      double t = plane.intersectionDistance(ray);
 
       // Check if the plane of the polygon intersects with the ray
       // if there's no intersection with the plane - there's no intersection with the polygon.
-      if (intersections == null) {
+      if (t == Double.POSITIVE_INFINITY || !isInside(ray)) {
          return null;
       }
+      return List.of(new GeoPoint(this, ray.getPoint(t)));
+   }
+
+   @Override
+   protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+      ++hit.tests;
+      double t = plane.intersectionDistance(ray);
+      // the inside test is done only for a plane intersection closer than the closest hit
+      if (t < hit.distance && isInside(ray)) {
+         hit.update(this, t);
+      }
+   }
+
+   @Override
+   protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+      ++occlusion.tests;
+      double t = plane.intersectionDistance(ray);
+      // the inside test is done only for a plane intersection not farther than the light
+      if (t != Double.POSITIVE_INFINITY && alignZero(t - occlusion.maxDistance) <= 0 && isInside(ray)) {
+         occlusion.add(this, t);
+      }
+   }
+
+   /**
+    * Check whether the ray crosses the polygon inside its edges, given that it
+    * intersects the plane of the polygon
+    * @param  ray the ray
+    * @return     true if the ray crosses the inside of the polygon
+    */
+   private boolean isInside(Ray ray) {
       Point p0 = ray.getHead();
       Vector v = ray.getDirection();
 
-      Vector v1 = vertices.get(1).subtract(p0);
-      Vector v2 = vertices.get(0).subtract(p0);
+      // edge vectors from the head to the vertices, and their cross product - calculated in place
+      MutableVec3 v1 = new MutableVec3().setSubtract(vertices.get(1), p0);
+      MutableVec3 v2 = new MutableVec3().setSubtract(vertices.get(0), p0);
+      MutableVec3 cross = new MutableVec3();
 
-      double sign = v.dotProduct(v1.crossProduct(v2));
+      double sign = cross.setCrossProduct(v1, v2).dotProduct(v);
 
       if (isZero(sign)) {
-         return null;
+         return false;
       }
       boolean positive = sign > 0;
 
       for (int i = vertices.size() - 1; i > 0; --i) {
+         MutableVec3 previous = v1;
          v1 = v2;
-         v2 = vertices.get(i).subtract(p0);
-         sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+         v2 = previous.setSubtract(vertices.get(i), p0);
+         sign = alignZero(cross.setCrossProduct(v1, v2).dotProduct(v));
 
          if (isZero(sign)){
-            return null;
+            return false;
          }
 
          if (positive != (sign > 0)) {
-            return null;
+            return false;
          }
       }
 
-      return List.of(new GeoPoint(this, intersections.get(0).point));
+      return true;
    }
 }
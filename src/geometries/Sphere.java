@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -18,6 +19,25 @@ public class Sphere extends RadialGeometry {
         this.center = center;
     }
 
+    /**
+     * @return the center of the sphere
+     */
+    public Point getCenter() {
+        return center;
+    }
+
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprintSurface(fingerprint);
+        fingerprint.add(center).add(radius);
+    }
 
     @Override
     public Vector getNormal(Point MyPoint) {
@@ -74,9 +94,72 @@ public class Sphere extends RadialGeometry {
         return null;
     }
 
-}
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        ++hit.tests;
+        double t1 = intersectionDistance(ray, false);
+        if (Double.isNaN(t1)) {
+            return;
+        }
+        // t1 < t2, so t2 matters only when the ray starts inside the sphere
+        if (t1 > 0) {
+            hit.update(this, t1);
+            return;
+        }
+        double t2 = intersectionDistance(ray, true);
+        if (t2 > 0) {
+            hit.update(this, t2);
+        }
+    }
 
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        ++occlusion.tests;
+        double t1 = intersectionDistance(ray, false);
+        if (Double.isNaN(t1)) {
+            return;
+        }
+        // the light passes the sphere surface twice if both intersections are in front of the head
+        if (t1 > 0) {
+            occlusion.add(this, t1);
+        }
+        double t2 = intersectionDistance(ray, true);
+        if (t2 > 0 && !occlusion.blocked) {
+            occlusion.add(this, t2);
+        }
+    }
+
+    /**
+     * Calculate the distance from the ray head to an intersection of the ray line
+     * with the sphere, without allocating any object
+     *
+     * @param ray the ray
+     * @param far whether to calculate the far intersection (t2) rather than the near one (t1)
+     * @return the distance (negative if the intersection is behind the head),
+     * or NaN if the ray line doesn't intersect the sphere
+     */
+    private double intersectionDistance(Ray ray, boolean far) {
+        Point p0 = ray.getHead(); // ray's starting point
+        Vector V = ray.getDirection(); // "the v vector" from the presentation
 
+        // U = O - p0 by its coordinates
+        double uX = center.getX() - p0.getX();
+        double uY = center.getY() - p0.getY();
+        double uZ = center.getZ() - p0.getZ();
 
+        // if p0 on center, the intersections are at radius distance on both sides
+        if (isZero(uX) && isZero(uY) && isZero(uZ)) {
+            return far ? this.radius : -this.radius;
+        }
 
+        double tm = V.getX() * uX + V.getY() * uY + V.getZ() * uZ;
+        double d = Math.sqrt(uX * uX + uY * uY + uZ * uZ - tm * tm);
+        if (d >= this.radius) {
+            return Double.NaN;
+        }
 
+        double th = Math.sqrt(this.radius * this.radius - d * d);
+        return far ? tm + th : tm - th;
+    }
+
+}
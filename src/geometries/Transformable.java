@@ -0,0 +1,21 @@
+package geometries;
+
+import primitives.Transform;
+
+/**
+ * Object that can be moved by an affine transform - for animating a scene
+ * from frame to frame without building it again. The transform is always
+ * relative to the original placement of the object, so setting the transforms
+ * of the frames one after another doesn't accumulate rounding errors.
+ * After the transforms of a frame are set, the hierarchy of the collection
+ * holding the objects is refitted by {@link Geometries#refit()}
+ */
+public interface Transformable {
+    /**
+     * Place the object by a transform of its original placement
+     *
+     * @param transform the transform ({@link Transform#IDENTITY} for the original placement)
+     * @return the object itself
+     */
+    Transformable setTransform(Transform transform);
+}
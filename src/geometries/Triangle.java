@@ -5,6 +5,7 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -12,6 +13,15 @@ import static primitives.Util.isZero;
  */
 
 public class Triangle extends Polygon {
+    /** coordinates of the first vertex */
+    private final double ax, ay, az;
+    /** first edge - from the first vertex to the second one */
+    private final double e1x, e1y, e1z;
+    /** second edge - from the first vertex to the third one */
+    private final double e2x, e2y, e2z;
+    /** 1 / |e1 x e2|, turns the determinant into the cosine between the ray and the normal */
+    private final double invCrossLength;
+
     /**
      * Constructor to initialize Triangle based object with the values of three different points
      *
@@ -21,6 +31,17 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        e1x = p2.getX() - ax;
+        e1y = p2.getY() - ay;
+        e1z = p2.getZ() - az;
+        e2x = p3.getX() - ax;
+        e2y = p3.getY() - ay;
+        e2z = p3.getZ() - az;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        invCrossLength = 1 / Math.sqrt(nx * nx + ny * ny + nz * nz);
     }
 
     @Override
@@ -49,49 +70,91 @@ public class Triangle extends Polygon {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        List<GeoPoint> result = plane.findGeoIntersections(ray);
-        if (result == null) {
-            return null;
+        double t = intersectionDistance(ray);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        ++hit.tests;
+        double t = intersectionDistance(ray);
+        if (t < hit.distance) {
+            hit.update(this, t);
         }
-        Point p0 = ray.getHead();
-        Vector v = ray.getDirection();
+    }
 
-        Point p1 = vertices.get(0);
-        Point p2 = vertices.get(1);
-        Point p3 = vertices.get(2);
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        ++occlusion.tests;
+        double t = intersectionDistance(ray);
+        if (t != Double.POSITIVE_INFINITY) {
+            occlusion.add(this, t);
+        }
+    }
 
-        Vector v1 = p1.subtract(p0);// p0->p1
-        Vector v2 = p2.subtract(p0);// p0->p2
-        Vector v3 = p3.subtract(p0);//p0->p3
+    /**
+     * Calculate the intersection of the ray with the triangle (Möller–Trumbore)
+     * by the precomputed edges, without allocating any object.
+     * As in the plane and the polygon, a ray parallel to the triangle or starting
+     * on its plane doesn't intersect it, and a point on an edge or a vertex is
+     * not an intersection (the barycentric coordinates must be positive)
+     *
+     * @param ray the ray
+     * @return distance from the ray head to the intersection point,
+     * or positive infinity if the ray doesn't intersect the triangle
+     */
+    private double intersectionDistance(Ray ray) {
+        return intersectionDistance(ray, ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z, invCrossLength);
+    }
 
-        double n1 = v.dotProduct(v1.crossProduct(v2));
-        if (isZero(n1)) {
-            return null;
-        }
+    /**
+     * Möller–Trumbore intersection of a ray with a triangle given by plain doubles
+     * (shared with the triangles of {@link TriangleMesh})
+     *
+     * @param ray            the ray
+     * @param ax             x of the first vertex
+     * @param ay             y of the first vertex
+     * @param az             z of the first vertex
+     * @param e1x            x of the edge from the first vertex to the second one
+     * @param e1y            y of the edge from the first vertex to the second one
+     * @param e1z            z of the edge from the first vertex to the second one
+     * @param e2x            x of the edge from the first vertex to the third one
+     * @param e2y            y of the edge from the first vertex to the third one
+     * @param e2z            z of the edge from the first vertex to the third one
+     * @param invCrossLength 1 / |e1 x e2|
+     * @return distance from the ray head to the intersection point,
+     * or positive infinity if the ray doesn't intersect the triangle
+     */
+    static double intersectionDistance(Ray ray, double ax, double ay, double az,
+                                       double e1x, double e1y, double e1z,
+                                       double e2x, double e2y, double e2z, double invCrossLength) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
-        double n2 = v.dotProduct(v2.crossProduct(v3));
-        if (isZero(n2)) {
-            return null;
+        // p = v x e2, det = e1 . p = -(v . (e1 x e2))
+        double px = vy * e2z - vz * e2y, py = vz * e2x - vx * e2z, pz = vx * e2y - vy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det * invCrossLength)) { // the ray is parallel to the triangle
+            return Double.POSITIVE_INFINITY;
         }
+        double invDet = 1 / det;
 
-        double n3 = v.dotProduct(v3.crossProduct(v1));
-        if (isZero(n3)) {
-            return null;
+        // s = p0 - a, barycentric coordinate of the second vertex
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * invDet);
+        if (u <= 0 || u >= 1) {
+            return Double.POSITIVE_INFINITY;
         }
 
-
-        if (!((n1 < 0 && n2 < 0 && n3 < 0) || (n1 > 0 && n2 > 0 && n3 > 0))) {
-            return null;
+        // q = s x e1, barycentric coordinate of the third vertex
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = alignZero((vx * qx + vy * qy + vz * qz) * invDet);
+        if (w <= 0 || alignZero(1 - u - w) <= 0) {
+            return Double.POSITIVE_INFINITY;
         }
-        return List.of(new GeoPoint(this, result.get(0).point));
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        return t <= 0 ? Double.POSITIVE_INFINITY : t;
     }
 }
-
-
-
-
-
-
-
-
-
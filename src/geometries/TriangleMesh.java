@@ -0,0 +1,714 @@
+package geometries;
+
+import primitives.Fingerprint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.isZero;
+
+/**
+ * Mesh of triangles that share one material and one emission.
+ * Unlike a collection of {@link Triangle} objects, the mesh is packed in flat
+ * arrays - the coordinates of the vertices in one array of doubles and the
+ * vertex indices of the triangles in one array of ints. The triangles are
+ * organized in an internal bounding volume hierarchy (built by the surface
+ * area heuristic), which is stored in flat arrays as well.
+ * A transformed mesh keeps the topology of its hierarchy - only the boxes of
+ * the nodes are refitted to the moved vertices
+ */
+public class TriangleMesh extends Geometry implements Transformable {
+    /** maximal amount of triangles in a leaf that is not worth splitting */
+    private static final int MAX_LEAF_SIZE = 4;
+    /** cost of visiting a node relative to the cost of a triangle test (for the surface area heuristic) */
+    private static final double TRAVERSAL_COST = 0.125;
+    /** amount of the bins the triangles are sorted into when a split is searched */
+    private static final int BINS = 16;
+    /** mark of an inner node in place of the amount of triangles of a leaf */
+    private static final int INNER = -1;
+    /** relative tolerance of locating a point on the mesh */
+    private static final double EPSILON = 1e-9;
+
+    /** coordinates of the vertices - x, y, z of every vertex */
+    private final double[] vertices;
+    /** vertex indices of the triangles - three per triangle, ordered by the leaves of the hierarchy */
+    private final int[] indices;
+    /** boxes of the hierarchy nodes - minX, minY, minZ, maxX, maxY, maxZ of every node, the root first */
+    private double[] nodeBounds;
+    /**
+     * hierarchy nodes, two ints each - for a leaf its first triangle and the
+     * amount of its triangles, for an inner node its first child (the second
+     * child follows it) and {@link #INNER}
+     */
+    private int[] nodes;
+    /** amount of the hierarchy nodes */
+    private int nodeCount;
+    /** maximal amount of nodes on a path from the root to a leaf */
+    private int depth;
+    /** coordinates of the vertices in the original placement (null while the mesh was not transformed) */
+    private double[] originalVertices;
+
+    /**
+     * Constructor of a mesh by its vertices and triangles. The arrays are
+     * copied - later changes to them don't affect the mesh
+     *
+     * @param vertices coordinates of the vertices - x, y, z of every vertex
+     * @param indices  indices of the vertices of the triangles - three per
+     *                 triangle, the normal of a triangle is (v2 - v1) x (v3 - v1)
+     * @throws IllegalArgumentException if the arrays are not made of triples, if
+     *                                  an index is not of a vertex, or if the
+     *                                  vertices of a triangle are on one line
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        this(vertices, indices, true);
+    }
+
+    /**
+     * Constructor of a mesh by its vertices and triangles, that may keep the
+     * arrays themselves - for loaders that build the arrays for the mesh only
+     *
+     * @param vertices coordinates of the vertices - x, y, z of every vertex
+     * @param indices  indices of the vertices of the triangles - three per triangle
+     * @param copy     whether to copy the arrays (otherwise the mesh owns them)
+     * @throws IllegalArgumentException as {@link #TriangleMesh(double[], int[])}
+     */
+    TriangleMesh(double[] vertices, int[] indices, boolean copy) {
+        if (vertices.length % 3 != 0) {
+            throw new IllegalArgumentException("Vertices must be given by x, y, z triples");
+        }
+        if (indices.length % 3 != 0) {
+            throw new IllegalArgumentException("Triangles must be given by triples of vertex indices");
+        }
+        int vertexCount = vertices.length / 3;
+        for (int index : indices) {
+            if (index < 0 || index >= vertexCount) {
+                throw new IllegalArgumentException("Vertex index out of range: " + index);
+            }
+        }
+        this.vertices = copy ? vertices.clone() : vertices;
+        this.indices = copy ? indices.clone() : indices;
+        for (int triangle = 0; triangle < getTriangleCount(); ++triangle) {
+            double[] n = cross(triangle);
+            if (isZero(n[0]) && isZero(n[1]) && isZero(n[2])) {
+                throw new IllegalArgumentException("Triangle " + triangle + " has its vertices on one line");
+            }
+        }
+        buildHierarchy();
+    }
+
+    /**
+     * Constructor of a mesh by its arrays, including its hierarchy - for restoring
+     * a mesh that was built before. The mesh owns the arrays
+     *
+     * @param vertices   coordinates of the vertices
+     * @param indices    vertex indices of the triangles, ordered by the leaves of the hierarchy
+     * @param nodeBounds boxes of the hierarchy nodes
+     * @param nodes      hierarchy nodes
+     * @param depth      maximal amount of nodes on a path from the root to a leaf
+     * @param originalVertices coordinates of the vertices in the original placement
+     *                         (null if the mesh was not transformed)
+     */
+    TriangleMesh(double[] vertices, int[] indices, double[] nodeBounds, int[] nodes, int depth,
+                 double[] originalVertices) {
+        this.vertices = vertices;
+        this.originalVertices = originalVertices;
+        this.indices = indices;
+        this.nodeBounds = nodeBounds;
+        this.nodes = nodes;
+        this.nodeCount = nodes.length / 2;
+        this.depth = depth;
+    }
+
+    /**
+     * @return the coordinates of the vertices (the array itself)
+     */
+    double[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * @return the coordinates of the vertices in the original placement (the array
+     * itself), null if the mesh was not transformed
+     */
+    double[] getOriginalVertices() {
+        return originalVertices;
+    }
+
+    /**
+     * @return the vertex indices of the triangles (the array itself)
+     */
+    int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * @return the boxes of the hierarchy nodes (the array itself)
+     */
+    double[] getNodeBounds() {
+        return nodeBounds;
+    }
+
+    /**
+     * @return the hierarchy nodes (the array itself)
+     */
+    int[] getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return maximal amount of nodes on a path from the root to a leaf
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return amount of the vertices of the mesh
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * @return amount of the triangles of the mesh
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Move the vertices by a transform of their original placement, and refit
+     * the boxes of the hierarchy to them. Must not be called while the mesh is rendered
+     *
+     * @param transform the transform
+     * @return the mesh itself
+     */
+    @Override
+    public TriangleMesh setTransform(Transform transform) {
+        if (originalVertices == null) {
+            originalVertices = vertices.clone();
+        }
+        transform.apply(originalVertices, vertices);
+        refitHierarchy();
+        resetBoundingBox();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh{" +
+                "vertices=" + getVertexCount() +
+                ", triangles=" + getTriangleCount() +
+                '}';
+    }
+
+    /**
+     * Normal of the triangle the point is on. The triangle is located through
+     * the hierarchy, on an edge shared by two triangles either normal is returned
+     *
+     * @param point point on the mesh
+     * @return the normal of the triangle
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        int triangle = findTriangle(point);
+        if (triangle < 0) {
+            throw new IllegalArgumentException("The point is not on the mesh");
+        }
+        double[] n = cross(triangle);
+        return new Vector(n[0], n[1], n[2]).normalize();
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return getTriangleCount() == 0 ? BoundingBox.EMPTY
+                : new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprintSurface(fingerprint);
+        fingerprint.add(vertices.length).add(indices.length);
+        for (double coordinate : vertices) {
+            fingerprint.add(coordinate);
+        }
+        for (int index : indices) {
+            fingerprint.add(index);
+        }
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> intersections = null;
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (nodeDistance(node, ray, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            if (count == INNER) {
+                stack[top++] = first;
+                stack[top++] = first + 1;
+                continue;
+            }
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double t = triangleDistance(triangle, ray);
+                if (t != Double.POSITIVE_INFINITY) {
+                    if (intersections == null) {
+                        intersections = new LinkedList<>();
+                    }
+                    intersections.add(new GeoPoint(this, ray.getPoint(t)));
+                }
+            }
+        }
+        return intersections;
+    }
+
+    @Override
+    protected void findClosestIntersectionHelper(Ray ray, ClosestHit hit) {
+        double rootDistance = nodeDistance(0, ray, hit.distance);
+        if (rootDistance == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        // nodes to visit with the distances the ray enters them
+        int[] stack = new int[depth + 1];
+        double[] distances = new double[depth + 1];
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = rootDistance;
+        while (top > 0) {
+            --top;
+            // the closest hit may have got closer than the node since it was pushed
+            if (distances[top] >= hit.distance) {
+                continue;
+            }
+            int node = stack[top];
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            if (count == INNER) {
+                double firstDistance = nodeDistance(first, ray, hit.distance);
+                double secondDistance = nodeDistance(first + 1, ray, hit.distance);
+                // push the farther child first, so the child that the ray enters first is visited first
+                int near = first, far = first + 1;
+                if (secondDistance < firstDistance) {
+                    near = first + 1;
+                    far = first;
+                    double distance = firstDistance;
+                    firstDistance = secondDistance;
+                    secondDistance = distance;
+                }
+                if (secondDistance != Double.POSITIVE_INFINITY) {
+                    stack[top] = far;
+                    distances[top++] = secondDistance;
+                }
+                if (firstDistance != Double.POSITIVE_INFINITY) {
+                    stack[top] = near;
+                    distances[top++] = firstDistance;
+                }
+                continue;
+            }
+            hit.tests += count;
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double t = triangleDistance(triangle, ray);
+                if (t < hit.distance) {
+                    hit.update(this, t);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void findOcclusionHelper(Ray ray, Occlusion occlusion) {
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0 && !occlusion.blocked) {
+            int node = stack[--top];
+            // a node that the ray enters farther than the light can't block it
+            if (nodeDistance(node, ray, occlusion.maxDistance) == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            if (count == INNER) {
+                stack[top++] = first;
+                stack[top++] = first + 1;
+                continue;
+            }
+            for (int triangle = first; triangle < first + count && !occlusion.blocked; ++triangle) {
+                ++occlusion.tests;
+                double t = triangleDistance(triangle, ray);
+                if (t != Double.POSITIVE_INFINITY) {
+                    occlusion.add(this, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Slab test of a hierarchy node
+     *
+     * @param node        the node
+     * @param ray         the ray
+     * @param maxDistance the maximal distance along the ray
+     * @return distance from the ray head to the point the ray enters the box of
+     * the node, or positive infinity if the ray doesn't cross it
+     */
+    private double nodeDistance(int node, Ray ray, double maxDistance) {
+        int i = 6 * node;
+        return BoundingBox.intersectionDistance(ray, maxDistance, nodeBounds[i], nodeBounds[i + 1],
+                nodeBounds[i + 2], nodeBounds[i + 3], nodeBounds[i + 4], nodeBounds[i + 5]);
+    }
+
+    /**
+     * Intersection of the ray with a triangle of the mesh, with the same
+     * semantics as {@link Triangle}
+     *
+     * @param triangle the triangle
+     * @param ray      the ray
+     * @return distance from the ray head to the intersection point,
+     * or positive infinity if the ray doesn't intersect the triangle
+     */
+    private double triangleDistance(int triangle, Ray ray) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Triangle.intersectionDistance(ray, ax, ay, az, e1x, e1y, e1z, e2x, e2y, e2z,
+                1 / Math.sqrt(nx * nx + ny * ny + nz * nz));
+    }
+
+    /**
+     * @param triangle the triangle
+     * @return (v2 - v1) x (v3 - v1) of the triangle
+     */
+    private double[] cross(int triangle) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+        double e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+        double e2z = vertices[c + 2] - vertices[a + 2];
+        return new double[]{e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x};
+    }
+
+    /**
+     * Find the triangle a point is on - the triangle closest to the point among
+     * those the point is inside of (up to the tolerance)
+     *
+     * @param point the point
+     * @return the triangle, or -1 if the point is not on the mesh
+     */
+    private int findTriangle(Point point) {
+        if (getTriangleCount() == 0) {
+            return -1;
+        }
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        // the tolerance is relative to the size of the mesh
+        double tolerance = EPSILON * (1 + Math.max(nodeBounds[3] - nodeBounds[0],
+                Math.max(nodeBounds[4] - nodeBounds[1], nodeBounds[5] - nodeBounds[2])));
+
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int i = 6 * node;
+            if (px < nodeBounds[i] - tolerance || py < nodeBounds[i + 1] - tolerance
+                    || pz < nodeBounds[i + 2] - tolerance || px > nodeBounds[i + 3] + tolerance
+                    || py > nodeBounds[i + 4] + tolerance || pz > nodeBounds[i + 5] + tolerance) {
+                continue;
+            }
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            if (count == INNER) {
+                stack[top++] = first;
+                stack[top++] = first + 1;
+                continue;
+            }
+            for (int triangle = first; triangle < first + count; ++triangle) {
+                double distance = pointDistance(triangle, px, py, pz);
+                if (distance <= tolerance && distance < bestDistance) {
+                    best = triangle;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param triangle the triangle
+     * @param px       x of the point
+     * @param py       y of the point
+     * @param pz       z of the point
+     * @return distance of the point from the plane of the triangle, or positive
+     * infinity if the projection of the point on the plane is outside the triangle
+     */
+    private double pointDistance(int triangle, double px, double py, double pz) {
+        int a = 3 * indices[3 * triangle], b = 3 * indices[3 * triangle + 1], c = 3 * indices[3 * triangle + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double sx = px - ax, sy = py - ay, sz = pz - az;
+
+        // barycentric coordinates of the projection of the point
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double ds1 = sx * e1x + sy * e1y + sz * e1z;
+        double ds2 = sx * e2x + sy * e2y + sz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        double u = (d22 * ds1 - d12 * ds2) / denominator;
+        double w = (d11 * ds2 - d12 * ds1) / denominator;
+        if (u < -EPSILON || w < -EPSILON || u + w > 1 + EPSILON) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.abs(sx * nx + sy * ny + sz * nz) / Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    // ***************** Bounding volume hierarchy ********************** //
+
+    /**
+     * Build the hierarchy of the triangles and reorder the triangles, so the
+     * triangles of every leaf are consecutive
+     */
+    private void buildHierarchy() {
+        int count = getTriangleCount();
+        int[] order = new int[count];
+        // boxes of the triangles, and their centers
+        double[] boxes = new double[6 * count];
+        double[] centers = new double[3 * count];
+        for (int triangle = 0; triangle < count; ++triangle) {
+            order[triangle] = triangle;
+            int box = 6 * triangle;
+            for (int axis = 0; axis < 3; ++axis) {
+                boxes[box + axis] = Double.POSITIVE_INFINITY;
+                boxes[box + 3 + axis] = Double.NEGATIVE_INFINITY;
+            }
+            for (int k = 0; k < 3; ++k) {
+                int vertex = 3 * indices[3 * triangle + k];
+                for (int axis = 0; axis < 3; ++axis) {
+                    boxes[box + axis] = Math.min(boxes[box + axis], vertices[vertex + axis]);
+                    boxes[box + 3 + axis] = Math.max(boxes[box + 3 + axis], vertices[vertex + axis]);
+                }
+            }
+            for (int axis = 0; axis < 3; ++axis) {
+                centers[3 * triangle + axis] = (boxes[box + axis] + boxes[box + 3 + axis]) / 2;
+            }
+        }
+
+        // a binary tree with n leaves has at most 2n - 1 nodes
+        int capacity = Math.max(1, 2 * count - 1);
+        nodes = new int[2 * capacity];
+        nodeBounds = new double[6 * capacity];
+        nodeCount = 1;
+        depth = buildNode(0, 0, count, order, boxes, centers);
+        nodes = Arrays.copyOf(nodes, 2 * nodeCount);
+        nodeBounds = Arrays.copyOf(nodeBounds, 6 * nodeCount);
+
+        int[] ordered = new int[indices.length];
+        for (int i = 0; i < count; ++i) {
+            System.arraycopy(indices, 3 * order[i], ordered, 3 * i, 3);
+        }
+        System.arraycopy(ordered, 0, indices, 0, indices.length);
+    }
+
+    /**
+     * Refit the boxes of the hierarchy nodes to the vertices, keeping the
+     * nodes. The children of a node come after it, so the nodes are refitted
+     * from the last one to the root
+     */
+    private void refitHierarchy() {
+        for (int node = nodeCount - 1; node >= 0; --node) {
+            int bounds = 6 * node;
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            System.arraycopy(emptyBounds(), 0, nodeBounds, bounds, 6);
+            if (count == INNER) {
+                grow(nodeBounds, bounds, nodeBounds, 6 * first);
+                grow(nodeBounds, bounds, nodeBounds, 6 * (first + 1));
+                continue;
+            }
+            for (int i = 3 * first; i < 3 * (first + count); ++i) {
+                int vertex = 3 * indices[i];
+                for (int axis = 0; axis < 3; ++axis) {
+                    nodeBounds[bounds + axis] = Math.min(nodeBounds[bounds + axis], vertices[vertex + axis]);
+                    nodeBounds[bounds + 3 + axis] = Math.max(nodeBounds[bounds + 3 + axis], vertices[vertex + axis]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build recursively a node of the hierarchy. The triangles are split into
+     * two groups by the bin boundary of the lowest SAH cost, or kept in a leaf
+     * when splitting is not cheaper than testing all of them
+     *
+     * @param node    the node
+     * @param start   first position of the triangles of the node in the order
+     * @param end     position after the last triangle of the node in the order
+     * @param order   the triangles, reordered while the tree is built
+     * @param boxes   boxes of the triangles
+     * @param centers centers of the boxes of the triangles
+     * @return maximal amount of nodes on a path from the node to a leaf
+     */
+    private int buildNode(int node, int start, int end, int[] order, double[] boxes, double[] centers) {
+        int n = end - start;
+        double[] centerBounds = emptyBounds();
+        int bounds = 6 * node;
+        System.arraycopy(emptyBounds(), 0, nodeBounds, bounds, 6);
+        for (int i = start; i < end; ++i) {
+            grow(nodeBounds, bounds, boxes, 6 * order[i]);
+            for (int axis = 0; axis < 3; ++axis) {
+                double center = centers[3 * order[i] + axis];
+                centerBounds[axis] = Math.min(centerBounds[axis], center);
+                centerBounds[3 + axis] = Math.max(centerBounds[3 + axis], center);
+            }
+        }
+        if (n <= 2) {
+            return leaf(node, start, n);
+        }
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestSplit = -1;
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = centerBounds[axis], extent = centerBounds[3 + axis] - min;
+            if (extent <= 0) {
+                continue; // all the centers are at the same position on the axis
+            }
+            int[] binCounts = new int[BINS];
+            double[] binBounds = new double[6 * BINS];
+            for (int bin = 0; bin < BINS; ++bin) {
+                System.arraycopy(emptyBounds(), 0, binBounds, 6 * bin, 6);
+            }
+            for (int i = start; i < end; ++i) {
+                int bin = bin(centers[3 * order[i] + axis], min, extent);
+                ++binCounts[bin];
+                grow(binBounds, 6 * bin, boxes, 6 * order[i]);
+            }
+
+            // areas of the boxes around the bins from b to the last one
+            double[] rightAreas = new double[BINS];
+            int[] rightCounts = new int[BINS];
+            double[] right = emptyBounds();
+            int rightCount = 0;
+            for (int bin = BINS - 1; bin > 0; --bin) {
+                grow(right, 0, binBounds, 6 * bin);
+                rightCount += binCounts[bin];
+                rightAreas[bin] = area(right, 0);
+                rightCounts[bin] = rightCount;
+            }
+            // left group is bins 0..b-1, right group is bins b..BINS-1
+            double[] left = emptyBounds();
+            int leftCount = 0;
+            for (int bin = 1; bin < BINS; ++bin) {
+                grow(left, 0, binBounds, 6 * (bin - 1));
+                leftCount += binCounts[bin - 1];
+                if (leftCount == 0 || rightCounts[bin] == 0) {
+                    continue;
+                }
+                double cost = area(left, 0) * leftCount + rightAreas[bin] * rightCounts[bin];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = bin;
+                }
+            }
+        }
+        if (bestAxis < 0) {
+            return leaf(node, start, n); // all the centers are at the same point
+        }
+
+        double area = area(nodeBounds, bounds);
+        double splitCost = area == 0 ? n : TRAVERSAL_COST + bestCost / area;
+        if (n <= MAX_LEAF_SIZE && splitCost >= n) {
+            return leaf(node, start, n);
+        }
+
+        // partition the triangles by the split bin
+        double min = centerBounds[bestAxis], extent = centerBounds[3 + bestAxis] - min;
+        int mid = start;
+        for (int i = start; i < end; ++i) {
+            if (bin(centers[3 * order[i] + bestAxis], min, extent) < bestSplit) {
+                int triangle = order[i];
+                order[i] = order[mid];
+                order[mid++] = triangle;
+            }
+        }
+
+        int first = nodeCount;
+        nodeCount += 2;
+        nodes[2 * node] = first;
+        nodes[2 * node + 1] = INNER;
+        return 1 + Math.max(buildNode(first, start, mid, order, boxes, centers),
+                buildNode(first + 1, mid, end, order, boxes, centers));
+    }
+
+    /**
+     * Make the node a leaf
+     *
+     * @param node  the node
+     * @param start first position of the triangles of the leaf
+     * @param count amount of the triangles of the leaf
+     * @return 1 - the depth of a leaf
+     */
+    private int leaf(int node, int start, int count) {
+        nodes[2 * node] = start;
+        nodes[2 * node + 1] = count;
+        return 1;
+    }
+
+    /**
+     * @param center position of a center on the axis
+     * @param min    lowest position of a center on the axis
+     * @param extent distance between the lowest and the highest center positions
+     * @return bin of the center
+     */
+    private static int bin(double center, double min, double extent) {
+        return Math.min(BINS - 1, (int) (BINS * (center - min) / extent));
+    }
+
+    /**
+     * @return box bounds (minX, minY, minZ, maxX, maxY, maxZ) that contain nothing
+     */
+    private static double[] emptyBounds() {
+        return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Grow a box to contain another box
+     *
+     * @param target the array of the box to grow
+     * @param i      position of the box to grow in its array
+     * @param source the array of the other box
+     * @param j      position of the other box in its array
+     */
+    private static void grow(double[] target, int i, double[] source, int j) {
+        for (int axis = 0; axis < 3; ++axis) {
+            target[i + axis] = Math.min(target[i + axis], source[j + axis]);
+            target[i + 3 + axis] = Math.max(target[i + 3 + axis], source[j + 3 + axis]);
+        }
+    }
+
+    /**
+     * @param bounds array of box bounds (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param i      position of the box in the array
+     * @return surface area of the box
+     */
+    private static double area(double[] bounds, int i) {
+        double dx = bounds[i + 3] - bounds[i], dy = bounds[i + 4] - bounds[i + 1], dz = bounds[i + 5] - bounds[i + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -49,6 +50,20 @@ public class Tube extends RadialGeometry {
         return n.normalize();
     }
 
+    /**
+     * @return infinite box - a tube is unbounded
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
+    @Override
+    void fingerprintHelper(Fingerprint fingerprint) {
+        fingerprintSurface(fingerprint);
+        fingerprint.add(radius).add(ray.getHead()).add(ray.getDirection());
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         return null;
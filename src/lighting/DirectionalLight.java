@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Vector;
 
@@ -52,4 +53,9 @@ public class DirectionalLight extends Light implements LightSource{
     public double getDistance(Point point) {
         return Double.POSITIVE_INFINITY;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void fingerprint(Fingerprint fingerprint) {
+        fingerprint.add(getClass().getName()).add(intensity).add(direction);
+    }
+}
@@ -17,4 +17,16 @@ public interface LightSource {
      */
     public Vector getL(Point p);
     double getDistance(Point point);
+
+    /**
+     * Add everything about the light that affects the rendered image (its kind,
+     * intensity, placement and attenuation) to a fingerprint
+     *
+     * @param fingerprint the fingerprint
+     * @throws IllegalArgumentException if the light can't be fingerprinted (only the
+     *                                  lights of this package can be)
+     */
+    default void fingerprint(Fingerprint fingerprint) {
+        throw new IllegalArgumentException("Can't fingerprint " + getClass().getName());
+    }
 }
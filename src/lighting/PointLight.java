@@ -2,6 +2,7 @@ package lighting;
 
 import primitives.Color;
 import primitives.Double3;
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Vector;
 
@@ -30,6 +31,34 @@ public class PointLight extends Light implements LightSource{
         this.position = position;
     }
 
+    /**
+     * @return the position of the light source
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the constant attenuation factor
+     */
+    public double getkC() {
+        return kC;
+    }
+
+    /**
+     * @return the linear attenuation factor
+     */
+    public double getkL() {
+        return kL;
+    }
+
+    /**
+     * @return the quadratic attenuation factor
+     */
+    public double getkQ() {
+        return kQ;
+    }
+
     /**
      * Calculate and return the intensity light on specific point
      *
@@ -95,4 +124,8 @@ public class PointLight extends Light implements LightSource{
         return this;
     }
 
+    @Override
+    public void fingerprint(Fingerprint fingerprint) {
+        fingerprint.add(getClass().getName()).add(intensity).add(position).add(kC).add(kL).add(kQ);
+    }
 }
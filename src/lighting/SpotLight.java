@@ -1,6 +1,7 @@
 package lighting;
 
 import primitives.Color;
+import primitives.Fingerprint;
 import primitives.Point;
 import primitives.Util;
 import primitives.Vector;
@@ -55,6 +56,20 @@ public class SpotLight extends PointLight{
         this.NarrowBeam=NarrowBeam;
         return this;
     }
+
+    /**
+     * @return the direction of the spot
+     */
+    public Vector getDirection() {
+        return dir;
+    }
+
+    /**
+     * @return the exponent of the narrow beam
+     */
+    public double getNarrowBeam() {
+        return NarrowBeam;
+    }
     @Override
     public Color getIntensity(Point p) {
         double cos = alignZero(dir.dotProduct(getL(p)));
@@ -62,4 +77,10 @@ public class SpotLight extends PointLight{
                 ? super.getIntensity(p).scale(Math.pow(Math.max(0, dir.dotProduct(getL(p))), NarrowBeam))
                 : super.getIntensity(p).scale(Math.max(0, dir.dotProduct(getL(p))));
     }
+
+    @Override
+    public void fingerprint(Fingerprint fingerprint) {
+        super.fingerprint(fingerprint);
+        fingerprint.add(dir).add(NarrowBeam);
+    }
 }
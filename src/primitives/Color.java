@@ -63,6 +63,21 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * @return Red component (without upper limit)
+     */
+    public double getRed() { return rgb.d1; }
+
+    /**
+     * @return Green component (without upper limit)
+     */
+    public double getGreen() { return rgb.d2; }
+
+    /**
+     * @return Blue component (without upper limit)
+     */
+    public double getBlue() { return rgb.d3; }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      * @param  colors one or more other colors to add
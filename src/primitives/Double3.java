@@ -153,4 +153,18 @@ public class Double3 {
     public boolean lowerThan(Double3 other) {
         return d1 < other.d1 && d2 < other.d2 && d3 < other.d3;
     }
+
+    /**
+     * @return the largest of the three numbers
+     */
+    public double max() {
+        return Math.max(d1, Math.max(d2, d3));
+    }
+
+    /**
+     * @return the three numbers
+     */
+    public double[] toArray() {
+        return new double[]{d1, d2, d3};
+    }
 }
@@ -0,0 +1,132 @@
+package primitives;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Fingerprint of the values that affect a rendered image - a 64 bit FNV-1a hash
+ * that the objects of a scene add their attributes to, one value at a time, so
+ * nothing is copied on the way. Scenes with the same fingerprint are rendered
+ * the same
+ */
+public final class Fingerprint {
+    /**
+     * FNV-1a offset basis
+     */
+    private static final long OFFSET_BASIS = 0xCBF29CE484222325L;
+    /**
+     * FNV-1a prime
+     */
+    private static final long PRIME = 0x100000001B3L;
+
+    /**
+     * the hash of the values added so far
+     */
+    private long hash = OFFSET_BASIS;
+    /**
+     * the shared objects referred so far, with their indices in the order of their first references
+     */
+    private final Map<Object, Integer> shared = new IdentityHashMap<>();
+
+    /**
+     * Add a number to the fingerprint
+     *
+     * @param value the number
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(long value) {
+        for (int i = 0; i < 8; ++i) {
+            hash = (hash ^ (value & 0xFF)) * PRIME;
+            value >>>= 8;
+        }
+        return this;
+    }
+
+    /**
+     * Add a number to the fingerprint
+     *
+     * @param value the number
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Add a text (a class name) to the fingerprint
+     *
+     * @param value the text
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(String value) {
+        add(value.length());
+        for (int i = 0; i < value.length(); ++i) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+        return this;
+    }
+
+    /**
+     * Add a triad of numbers to the fingerprint
+     *
+     * @param value the triad
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(Double3 value) {
+        return add(value.d1).add(value.d2).add(value.d3);
+    }
+
+    /**
+     * Add a point (or a vector) to the fingerprint
+     *
+     * @param point the point
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(Point point) {
+        return add(point.xyz);
+    }
+
+    /**
+     * Add a color to the fingerprint
+     *
+     * @param color the color
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(Color color) {
+        return add(color.getRed()).add(color.getGreen()).add(color.getBlue());
+    }
+
+    /**
+     * Add all the factors of a material to the fingerprint
+     *
+     * @param material the material
+     * @return the fingerprint itself
+     */
+    public Fingerprint add(Material material) {
+        return add(material.kD).add(material.kS).add(material.kT).add(material.kR).add(material.kG)
+                .add(material.kB).add(material.nShininess).add(material.numOfRays)
+                .add(material.blurGlassDistance).add(material.blurGlassRadius);
+    }
+
+    /**
+     * Add a reference to an object that is shared by many others (a collection of
+     * geometries shared by many instances) - the index of the object, in the order
+     * of the first references. The object itself is added only once, after its
+     * first reference
+     *
+     * @param object the shared object
+     * @return whether this is the first reference, so the object must be added after it
+     */
+    public boolean addShared(Object object) {
+        Integer index = shared.putIfAbsent(object, shared.size());
+        add(index == null ? shared.size() - 1 : index);
+        return index == null;
+    }
+
+    /**
+     * @return the hash of the values added so far
+     */
+    public long getHash() {
+        return hash;
+    }
+}
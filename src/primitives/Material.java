@@ -8,9 +8,9 @@ public class Material {
     kR = Double3.ZERO; /** reflective attenuation factor */
 
     // the specular light factor of the object material type
-    // Glossiness factor
+    // Glossiness factor - exponent of the cosine-power lobe of the reflected beam (0 - the blur glass disk)
     public double kG = 0;
-    // Blurriness factor
+    // Blurriness factor - exponent of the cosine-power lobe of the refracted beam (0 - the blur glass disk)
     public double kB = 0;
 
     // the shininess factor of the object material type//
@@ -114,28 +114,37 @@ public class Material {
         return this;
     }
     /**
-     * Sets Glossy attenuation factor.
+     * Sets the glossiness exponent - the exponent of the cosine-power lobe the
+     * reflected beam (of numOfRays rays) is spread in. The bigger it is, the sharper
+     * the reflection; 0 spreads the beam on the blur glass disk.
      *
-     * @param kG the Glossy attenuation factor.
+     * @param kG the exponent of the reflected lobe
      * @return the material
+     * @throws IllegalArgumentException if kG is negative
      */
     public Material setKg(double kG) {
+        if (kG < 0)
+            throw new IllegalArgumentException("Illegal argument in setKg");
         this.kG = kG;
         return this;
     }
 
     /**
-     * Sets Blur attenuation factor.
+     * Sets the blurriness exponent - the exponent of the cosine-power lobe the
+     * refracted beam (of numOfRays rays) is spread in. The bigger it is, the clearer
+     * the glass; 0 spreads the beam on the blur glass disk.
      *
-     * @param kB the Blur attenuation factor.
+     * @param kB the exponent of the refracted lobe
      * @return the material
+     * @throws IllegalArgumentException if kB is negative
      */
     public Material setKb(double kB) {
+        if (kB < 0)
+            throw new IllegalArgumentException("Illegal argument in setKb");
         this.kB = kB;
         return this;
     }
 
-
     /**
      * Sets the number of rays for blur glass rendering.
      *
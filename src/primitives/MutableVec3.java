@@ -0,0 +1,189 @@
+package primitives;
+
+/**
+ * Mutable triad of coordinates for the hot paths of the intersections and the
+ * shading. Unlike {@link Point} and {@link Vector}, every operation changes
+ * the object itself and returns it, so a chain of calculations allocates
+ * nothing. An object is meant to be a local scratch variable of one thread -
+ * it must not be shared between threads or kept as a part of a geometry.
+ * The operations calculate exactly as their immutable counterparts, so both
+ * APIs produce the same numbers
+ */
+public final class MutableVec3 {
+    /** x coordinate */
+    public double x;
+    /** y coordinate */
+    public double y;
+    /** z coordinate */
+    public double z;
+
+    /**
+     * Constructor of a zero triad
+     */
+    public MutableVec3() {
+    }
+
+    /**
+     * Constructor by the coordinates
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     */
+    public MutableVec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return this object
+     */
+    public MutableVec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * @param p point (or vector) to copy the coordinates of
+     * @return this object
+     */
+    public MutableVec3 set(Point p) {
+        return set(p.xyz.d1, p.xyz.d2, p.xyz.d3);
+    }
+
+    /**
+     * @param v triad to copy the coordinates of
+     * @return this object
+     */
+    public MutableVec3 set(MutableVec3 v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * Set to the vector from one point to another, as {@link Point#subtract(Point)}
+     *
+     * @param to   end of the vector
+     * @param from start of the vector
+     * @return this object
+     */
+    public MutableVec3 setSubtract(Point to, Point from) {
+        return set(to.xyz.d1 - from.xyz.d1, to.xyz.d2 - from.xyz.d2, to.xyz.d3 - from.xyz.d3);
+    }
+
+    /**
+     * @param p point (or vector) to subtract
+     * @return this object
+     */
+    public MutableVec3 subtract(Point p) {
+        return set(x - p.xyz.d1, y - p.xyz.d2, z - p.xyz.d3);
+    }
+
+    /**
+     * @param v vector to add
+     * @return this object
+     */
+    public MutableVec3 add(Vector v) {
+        return set(x + v.xyz.d1, y + v.xyz.d2, z + v.xyz.d3);
+    }
+
+    /**
+     * Add a scaled vector, as {@code point.add(v.scale(k))}
+     *
+     * @param v vector to add
+     * @param k scale of the vector
+     * @return this object
+     */
+    public MutableVec3 addScaled(Vector v, double k) {
+        return set(x + v.xyz.d1 * k, y + v.xyz.d2 * k, z + v.xyz.d3 * k);
+    }
+
+    /**
+     * @param k the scale
+     * @return this object
+     */
+    public MutableVec3 scale(double k) {
+        return set(x * k, y * k, z * k);
+    }
+
+    /**
+     * Set to the cross product of two triads, as {@link Vector#crossProduct(Vector)}.
+     * Any of the triads may be this object itself
+     *
+     * @param a left triad
+     * @param b right triad
+     * @return this object
+     */
+    public MutableVec3 setCrossProduct(MutableVec3 a, MutableVec3 b) {
+        return set(a.y * b.z - a.z * b.y, a.z * b.x - a.x * b.z, a.x * b.y - a.y * b.x);
+    }
+
+    /**
+     * @param v the vector
+     * @return dot product of this triad and the vector
+     */
+    public double dotProduct(Vector v) {
+        return x * v.xyz.d1 + y * v.xyz.d2 + z * v.xyz.d3;
+    }
+
+    /**
+     * @param v the triad
+     * @return dot product of the triads
+     */
+    public double dotProduct(MutableVec3 v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * @return squared length of the triad
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * @return length of the triad
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Normalize the triad, as {@link Vector#normalize()}
+     *
+     * @return this object
+     * @throws IllegalArgumentException if the triad is zero
+     */
+    public MutableVec3 normalize() {
+        double length = length();
+        if (length == 0) {
+            throw new IllegalArgumentException("Zero vector can't be normalized");
+        }
+        return set(x / length, y / length, z / length);
+    }
+
+    /**
+     * @return new vector of the coordinates
+     * @throws IllegalArgumentException if the triad is zero
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    /**
+     * @return new point of the coordinates
+     */
+    public Point toPoint() {
+        return new Point(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + "," + z + ")";
+    }
+}
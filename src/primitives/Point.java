@@ -32,6 +32,10 @@ public class Point {
         return xyz.d2;
     }
 
+    public double getZ() {
+        return xyz.d3;
+    }
+
     /**
      * Override equals method to compare two Point objects
      *
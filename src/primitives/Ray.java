@@ -95,25 +95,48 @@ public class Ray {
             return null;
         }
         GeoPoint closest=points.get(0);
-        double distance = head.distance(closest.point);
+        // comparing squared distances gives the same order without square roots
+        double distance = head.distanceSquared(closest.point);
         for(GeoPoint p:points){
-            if(head.distance(p.point)<distance){
+            double pDistance = head.distanceSquared(p.point);
+            if(pDistance<distance){
                 closest=p;
-                distance=head.distance(p.point);
+                distance=pDistance;
             }
         }
         return closest;
     }
 
     /**
+     * Generate a beam of rays around the ray, for glossy and blurry surfaces. The
+     * rays pass through a disk perpendicular to the ray - stratified samples of
+     * the unit square (one sample in every row and every column of an N x N grid)
+     * are mapped to the disk by the concentric mapping, which keeps the strata
+     * and the uniform density. Rays that cross the surface are dropped.
      *
      * @param n         normal to the geometry
      * @param radius    radius of the beam circle
      * @param distance  distance of the eam circle
-     * @param numOfRays num of rays in the beam
-     * @return list of beam rays
+     * @param numOfRays num of rays in the beam (including the ray itself)
+     * @return list of beam rays - the ray itself first
      */
     public List<Ray> generateBeam(Vector n, double radius, double distance, int numOfRays) {
+        return generateBeam(n, radius, distance, numOfRays, Sampler.STRATIFIED);
+    }
+
+    /**
+     * Generate a beam of rays around the ray, for glossy and blurry surfaces, as
+     * {@link #generateBeam(Vector, double, double, int)} - with the samples of the
+     * unit square of the given sampler.
+     *
+     * @param n         normal to the geometry
+     * @param radius    radius of the beam circle
+     * @param distance  distance of the eam circle
+     * @param numOfRays num of rays in the beam (including the ray itself)
+     * @param sampler   sampler of the unit square
+     * @return list of beam rays - the ray itself first
+     */
+    public List<Ray> generateBeam(Vector n, double radius, double distance, int numOfRays, Sampler sampler) {
         List<Ray> rays = new LinkedList<Ray>();
         rays.add(this);// Including the main ray
         if (numOfRays == 1 || isZero(radius))// The component (glossy surface /diffuse glass) is turned off
@@ -124,35 +147,95 @@ public class Ray {
         Vector nY = direction.crossProduct(nX);
 
         Point centerCircle = this.getPoint(distance);
-        Point randomPoint;
-        Vector v12;
-
-        double rand_x, rand_y, delta_radius = radius / (numOfRays - 1);
+        // direction of a beam ray, calculated in place without the intermediate points and vectors
+        MutableVec3 v12 = new MutableVec3();
         double nv = n.dotProduct(direction);
 
-        for (int i = 1; i < numOfRays; i++) {
-            randomPoint = centerCircle;
-            rand_x = random(-radius, radius);
-            rand_y = randomSign() * Math.sqrt(radius * radius - rand_x * rand_x);
-
-            try {
-                randomPoint = randomPoint.add(nX.scale(rand_x));
-            } catch (Exception ex) {
+        int samples = numOfRays - 1;
+        double[] square = sampler.generate(samples);
+        for (int i = 0; i < samples; i++) {
+            // sample of the square [-1,1)x[-1,1)
+            double a = 2 * square[2 * i] - 1;
+            double b = 2 * square[2 * i + 1] - 1;
+            // concentric mapping of the square to the unit disk
+            double r, phi;
+            if (a * a > b * b) {
+                r = a;
+                phi = Math.PI / 4 * (b / a);
+            } else if (b != 0) {
+                r = b;
+                phi = Math.PI / 2 - Math.PI / 4 * (a / b);
+            } else {
+                r = phi = 0;
             }
 
-            try {
-                randomPoint = randomPoint.add(nY.scale(rand_y));
-            } catch (Exception ex) {
+            // point on the disk, minus the head
+            v12.set(centerCircle).addScaled(nX, radius * r * Math.cos(phi)).addScaled(nY, radius * r * Math.sin(phi))
+                    .subtract(head).normalize();
+            if (nv * alignZero(v12.dotProduct(n)) > 0) {
+                rays.add(new Ray(head, v12.toVector()));
             }
+        }
 
-            v12 = randomPoint.subtract(head).normalize();
+        return rays;
+    }
 
-            double nt = alignZero(n.dotProduct(v12));
+    /**
+     * Generate a beam of rays in a cosine-power lobe around the ray - the density
+     * of the directions is proportional to cos^exponent of their angle with the ray,
+     * as the Phong lobe of a glossy surface. The directions are stratified as in
+     * {@link #generateBeam(Vector, double, double, int)}. Rays that cross the surface
+     * are dropped.
+     *
+     * @param n         normal to the geometry
+     * @param exponent  exponent of the lobe (the bigger - the narrower)
+     * @param numOfRays num of rays in the beam (including the ray itself)
+     * @return list of beam rays - the ray itself first
+     * @throws IllegalArgumentException if the exponent is negative
+     */
+    public List<Ray> generateLobe(Vector n, double exponent, int numOfRays) {
+        return generateLobe(n, exponent, numOfRays, Sampler.STRATIFIED);
+    }
+
+    /**
+     * Generate a beam of rays in a cosine-power lobe around the ray, as
+     * {@link #generateLobe(Vector, double, int)} - with the samples of the unit
+     * square of the given sampler.
+     *
+     * @param n         normal to the geometry
+     * @param exponent  exponent of the lobe (the bigger - the narrower)
+     * @param numOfRays num of rays in the beam (including the ray itself)
+     * @param sampler   sampler of the unit square
+     * @return list of beam rays - the ray itself first
+     * @throws IllegalArgumentException if the exponent is negative
+     */
+    public List<Ray> generateLobe(Vector n, double exponent, int numOfRays, Sampler sampler) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Lobe exponent must not be negative");
+        }
+        List<Ray> rays = new LinkedList<Ray>();
+        rays.add(this);// Including the main ray
+        if (numOfRays == 1)
+            return rays;
+
+        Vector nX = direction.createNormal();
+        Vector nY = direction.crossProduct(nX);
+        MutableVec3 v12 = new MutableVec3();
+        double nv = n.dotProduct(direction);
 
-            if (nv * nt > 0) {
-                rays.add(new Ray(head, v12));
+        int samples = numOfRays - 1;
+        double[] square = sampler.generate(samples);
+        for (int i = 0; i < samples; i++) {
+            // sample of the unit square, mapped to the lobe
+            double cosTheta = Math.pow(1 - square[2 * i], 1 / (exponent + 1));
+            double sinTheta = Math.sqrt(Math.max(0, 1 - cosTheta * cosTheta));
+            double phi = 2 * Math.PI * square[2 * i + 1];
+
+            v12.set(direction).scale(cosTheta).addScaled(nX, sinTheta * Math.cos(phi))
+                    .addScaled(nY, sinTheta * Math.sin(phi)).normalize();
+            if (nv * alignZero(v12.dotProduct(n)) > 0) {
+                rays.add(new Ray(head, v12.toVector()));
             }
-            radius -= delta_radius;
         }
 
         return rays;
@@ -0,0 +1,238 @@
+package primitives;
+
+import static primitives.Util.random;
+
+/**
+ * Sampler of the unit square - generates sets of 2D samples for the pixel footprint
+ * (jitter of the rays through a pixel) and for the beams of the glossy and blurry
+ * surfaces. Every set is randomized by the random generator of the thread
+ * ({@link Util#random(double, double)}), so the sets are reproducible with a seed,
+ * and every prefix of a low-discrepancy set is well spread too.
+ */
+@FunctionalInterface
+public interface Sampler {
+    /**
+     * independent random samples - converge at the Monte-Carlo rate
+     */
+    Sampler RANDOM = Standard.RANDOM;
+    /**
+     * stratified samples - one sample in every row and every column of an N x N grid
+     * (N-rooks), jittered in its cell
+     */
+    Sampler STRATIFIED = Standard.STRATIFIED;
+    /**
+     * Halton sequence of bases 2 and 3, randomly rotated on the torus (Cranley-Patterson)
+     */
+    Sampler HALTON = Standard.HALTON;
+    /**
+     * Sobol sequence of 2 dimensions with the hash based Owen scrambling
+     */
+    Sampler SOBOL = Standard.SOBOL;
+
+    /**
+     * Generate a set of samples of the unit square
+     *
+     * @param count amount of samples
+     * @return the samples in [0,1)x[0,1) - the u of the i-th sample at 2i and its v at 2i+1
+     */
+    double[] generate(int count);
+
+    /**
+     * Generate a slice of a set of samples - the samples of the indices offset to
+     * offset+count-1 of the set of total samples. The slices generated from the same
+     * state of the random generator (the same seed) are parts of one set, so the
+     * passes of a progressive render that take consecutive slices are spread like
+     * one set of all their samples. By default the whole set is generated and sliced
+     *
+     * @param offset index of the first sample of the slice
+     * @param count  amount of samples in the slice
+     * @param total  amount of samples in the set
+     * @return the samples in [0,1)x[0,1) - the u of the i-th sample at 2i and its v at 2i+1
+     * @throws IllegalArgumentException if the slice is not in the set
+     */
+    default double[] generate(int offset, int count, int total) {
+        if (offset < 0 || count < 0 || offset + count > total) {
+            throw new IllegalArgumentException("Slice of samples must be in the set");
+        }
+        double[] samples = new double[2 * count];
+        System.arraycopy(generate(total), 2 * offset, samples, 0, 2 * count);
+        return samples;
+    }
+
+    /**
+     * The samplers of the library
+     */
+    enum Standard implements Sampler {
+        /** independent random samples */
+        RANDOM,
+        /** stratified (N-rooks) samples */
+        STRATIFIED,
+        /** randomly rotated Halton sequence */
+        HALTON,
+        /** Owen scrambled Sobol sequence */
+        SOBOL;
+
+        /**
+         * largest double below 1 - the samples that are rounded to 1 are clamped to it
+         */
+        private static final double ONE_MINUS_EPSILON = Math.nextDown(1d);
+        /**
+         * direction numbers of the second dimension of the Sobol sequence
+         */
+        private static final int[] SOBOL_DIRECTIONS = new int[32];
+
+        static {
+            // primitive polynomial x+1: v(k) = v(k-1) xor v(k-1)/2
+            SOBOL_DIRECTIONS[0] = 1 << 31;
+            for (int k = 1; k < 32; ++k) {
+                SOBOL_DIRECTIONS[k] = SOBOL_DIRECTIONS[k - 1] ^ (SOBOL_DIRECTIONS[k - 1] >>> 1);
+            }
+        }
+
+        @Override
+        public double[] generate(int count) {
+            return switch (this) {
+                case RANDOM -> independent(count);
+                case STRATIFIED -> {
+                    double[] samples = new double[2 * count];
+                    int[] columns = randomPermutation(count);
+                    for (int i = 0; i < count; ++i) {
+                        samples[2 * i] = (i + random(0, 1)) / count;
+                        samples[2 * i + 1] = (columns[i] + random(0, 1)) / count;
+                    }
+                    yield samples;
+                }
+                case HALTON, SOBOL -> sequence(0, count);
+            };
+        }
+
+        /**
+         * Generate a slice of a set of samples. The random samples are independent, so
+         * the slice is just drawn; the slice of the stratified set takes the strata in a
+         * random order (generated for the whole set), so every slice is spread over the
+         * square; the sequences generate only the samples of the slice
+         */
+        @Override
+        public double[] generate(int offset, int count, int total) {
+            if (offset < 0 || count < 0 || offset + count > total) {
+                throw new IllegalArgumentException("Slice of samples must be in the set");
+            }
+            return switch (this) {
+                case RANDOM -> independent(count);
+                case STRATIFIED -> {
+                    double[] set = generate(total);
+                    int[] order = randomPermutation(total);
+                    double[] samples = new double[2 * count];
+                    for (int i = 0; i < count; ++i) {
+                        samples[2 * i] = set[2 * order[offset + i]];
+                        samples[2 * i + 1] = set[2 * order[offset + i] + 1];
+                    }
+                    yield samples;
+                }
+                case HALTON, SOBOL -> sequence(offset, count);
+            };
+        }
+
+        /**
+         * @param count amount of samples
+         * @return independent random samples
+         */
+        private static double[] independent(int count) {
+            double[] samples = new double[2 * count];
+            for (int i = 0; i < 2 * count; ++i) samples[i] = random(0, 1);
+            return samples;
+        }
+
+        /**
+         * Generate the samples of a low-discrepancy sequence - the randomization of
+         * the sequence is drawn first, so it is the same for every slice
+         *
+         * @param offset index of the first sample
+         * @param count  amount of samples
+         * @return the samples of the indices offset to offset+count-1
+         */
+        private double[] sequence(int offset, int count) {
+            double[] samples = new double[2 * count];
+            if (this == HALTON) {
+                double shiftU = random(0, 1), shiftV = random(0, 1);
+                for (int i = 0; i < count; ++i) {
+                    samples[2 * i] = rotate(radicalInverse(offset + i + 1, 2), shiftU);
+                    samples[2 * i + 1] = rotate(radicalInverse(offset + i + 1, 3), shiftV);
+                }
+                return samples;
+            }
+            int seedU = (int) (long) random(0, 0x1p32), seedV = (int) (long) random(0, 0x1p32);
+            for (int i = 0; i < count; ++i) {
+                int v = 0;
+                for (int k = 0, index = offset + i; index != 0; ++k, index >>>= 1) {
+                    if ((index & 1) != 0) v ^= SOBOL_DIRECTIONS[k];
+                }
+                samples[2 * i] = toUnit(scramble(Integer.reverse(offset + i), seedU));
+                samples[2 * i + 1] = toUnit(scramble(v, seedV));
+            }
+            return samples;
+        }
+
+        /**
+         * @param n amount of the numbers
+         * @return random permutation of the numbers 0..n-1 (Fisher-Yates shuffle)
+         */
+        private static int[] randomPermutation(int n) {
+            int[] permutation = new int[n];
+            for (int i = 0; i < n; i++) {
+                int j = (int) random(0, i + 1);
+                permutation[i] = permutation[j];
+                permutation[j] = i;
+            }
+            return permutation;
+        }
+
+        /**
+         * @param index index in the sequence
+         * @param base  base of the digits
+         * @return the digits of the index mirrored around the radix point
+         */
+        private static double radicalInverse(int index, int base) {
+            double result = 0, digitValue = 1d / base;
+            for (; index > 0; index /= base, digitValue /= base) {
+                result += (index % base) * digitValue;
+            }
+            return result;
+        }
+
+        /**
+         * @param value a sample in [0,1)
+         * @param shift the rotation in [0,1)
+         * @return the sample shifted on the torus
+         */
+        private static double rotate(double value, double shift) {
+            double result = value + shift;
+            return Math.min(result < 1 ? result : result - 1, ONE_MINUS_EPSILON);
+        }
+
+        /**
+         * Owen scrambling of a fixed point fraction - every digit is flipped by a hash of
+         * the higher digits (Laine-Karras permutation of the reversed bits)
+         *
+         * @param value the fraction (32 bits)
+         * @param seed  seed of the scrambling
+         * @return the scrambled fraction
+         */
+        private static int scramble(int value, int seed) {
+            int x = Integer.reverse(value) + seed;
+            x ^= x * 0x6c50b47c;
+            x ^= x * 0xb82f1e52;
+            x ^= x * 0xc7afe638;
+            x ^= x * 0x8d22f6e6;
+            return Integer.reverse(x);
+        }
+
+        /**
+         * @param value fixed point fraction (32 bits, unsigned)
+         * @return the fraction in [0,1)
+         */
+        private static double toUnit(int value) {
+            return (value & 0xFFFFFFFFL) * 0x1p-32;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package primitives;
+
+import java.util.Arrays;
+
+import static primitives.Util.isZero;
+
+/**
+ * Affine transform of the 3D space - a linear part (3x3 matrix) followed by a
+ * translation, kept as a 3x4 matrix. A transform is immutable, and it is
+ * always invertible - the factories don't create transforms that flatten the
+ * space, and a composition of invertible transforms is invertible
+ */
+public final class Transform {
+    /**
+     * the transform that leaves everything in place
+     */
+    public static final Transform IDENTITY = new Transform(new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    /**
+     * the matrix by rows - m[4 * row + column], the translation in the 4th column
+     */
+    private final double[] m;
+    /**
+     * the inverse transform, calculated at the first request
+     */
+    private Transform inverse = null;
+
+    /**
+     * Constructor of a transform by its matrix (the transform owns the array)
+     *
+     * @param m the matrix by rows
+     */
+    private Transform(double[] m) {
+        this.m = m;
+    }
+
+    /**
+     * @param matrix the matrix by rows - 12 numbers, the translation in the 4th column
+     * @return transform of the matrix
+     * @throws IllegalArgumentException if the matrix is not of 12 numbers, or it flattens the space
+     */
+    public static Transform of(double[] matrix) {
+        if (matrix.length != 12) {
+            throw new IllegalArgumentException("Transform matrix must be of 12 numbers");
+        }
+        double[] m = matrix.clone();
+        double det = m[0] * (m[5] * m[10] - m[6] * m[9]) - m[1] * (m[4] * m[10] - m[6] * m[8])
+                + m[2] * (m[4] * m[9] - m[5] * m[8]);
+        if (isZero(det)) {
+            throw new IllegalArgumentException("Transform must not flatten the space");
+        }
+        return new Transform(m);
+    }
+
+    /**
+     * @param offset the offset
+     * @return transform that moves everything by the offset
+     */
+    public static Transform translation(Vector offset) {
+        return new Transform(new double[]{1, 0, 0, offset.getX(), 0, 1, 0, offset.getY(), 0, 0, 1, offset.getZ()});
+    }
+
+    /**
+     * @param factor the factor on all the axes
+     * @return transform that scales everything around the origin
+     * @throws IllegalArgumentException if the factor is zero
+     */
+    public static Transform scaling(double factor) {
+        return scaling(factor, factor, factor);
+    }
+
+    /**
+     * @param x factor on the x axis
+     * @param y factor on the y axis
+     * @param z factor on the z axis
+     * @return transform that scales everything around the origin
+     * @throws IllegalArgumentException if a factor is zero
+     */
+    public static Transform scaling(double x, double y, double z) {
+        if (isZero(x) || isZero(y) || isZero(z)) {
+            throw new IllegalArgumentException("Scaling factors must not be zero");
+        }
+        return new Transform(new double[]{x, 0, 0, 0, 0, y, 0, 0, 0, 0, z, 0});
+    }
+
+    /**
+     * Rotation around an axis through the origin, counterclockwise when the
+     * axis points to the viewer
+     *
+     * @param axis  direction of the axis
+     * @param angle the angle in degrees
+     * @return the rotation
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector u = axis.normalize();
+        double x = u.getX(), y = u.getY(), z = u.getZ();
+        double radians = Math.toRadians(angle), cos = Math.cos(radians), sin = Math.sin(radians), t = 1 - cos;
+        return new Transform(new double[]{
+                t * x * x + cos, t * x * y - sin * z, t * x * z + sin * y, 0,
+                t * x * y + sin * z, t * y * y + cos, t * y * z - sin * x, 0,
+                t * x * z - sin * y, t * y * z + sin * x, t * z * z + cos, 0});
+    }
+
+    /**
+     * Compose the transforms - this transform and then the other one
+     *
+     * @param next the transform applied after this one
+     * @return the composed transform
+     */
+    public Transform then(Transform next) {
+        double[] a = next.m, b = m, result = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            int r = 4 * row;
+            for (int column = 0; column < 4; ++column) {
+                result[r + column] = a[r] * b[column] + a[r + 1] * b[4 + column] + a[r + 2] * b[8 + column];
+            }
+            result[r + 3] += a[r + 3];
+        }
+        return new Transform(result);
+    }
+
+    /**
+     * @return the transform that brings everything back to its place
+     */
+    public Transform inverse() {
+        if (inverse == null) {
+            inverse = calcInverse();
+        }
+        return inverse;
+    }
+
+    /**
+     * @return the inverse transform
+     */
+    private Transform calcInverse() {
+        double a = m[0], b = m[1], c = m[2], d = m[4], e = m[5], f = m[6], g = m[8], h = m[9], k = m[10];
+        double c00 = e * k - f * h, c01 = c * h - b * k, c02 = b * f - c * e;
+        double c10 = f * g - d * k, c11 = a * k - c * g, c12 = c * d - a * f;
+        double c20 = d * h - e * g, c21 = b * g - a * h, c22 = a * e - b * d;
+        double det = a * c00 + b * c10 + c * c20;
+        double[] result = {c00 / det, c01 / det, c02 / det, 0, c10 / det, c11 / det, c12 / det, 0,
+                c20 / det, c21 / det, c22 / det, 0};
+        for (int row = 0; row < 3; ++row) {
+            int r = 4 * row;
+            result[r + 3] = 0 - (result[r] * m[3] + result[r + 1] * m[7] + result[r + 2] * m[11]);
+        }
+        Transform transform = new Transform(result);
+        transform.inverse = this;
+        return transform;
+    }
+
+    /**
+     * @param point the point
+     * @return the transformed point
+     */
+    public Point apply(Point point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        return new Point(m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+    }
+
+    /**
+     * Transform a vector - by the linear part only, a vector has no position
+     *
+     * @param vector the vector
+     * @return the transformed vector (not normalized)
+     */
+    public Vector apply(Vector vector) {
+        double x = vector.getX(), y = vector.getY(), z = vector.getZ();
+        return new Vector(m[0] * x + m[1] * y + m[2] * z,
+                m[4] * x + m[5] * y + m[6] * z,
+                m[8] * x + m[9] * y + m[10] * z);
+    }
+
+    /**
+     * Transform a normal of a surface - by the transpose of the inverse of the
+     * linear part, so the normal stays orthogonal to the transformed surface
+     *
+     * @param normal the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector applyNormal(Vector normal) {
+        double[] n = inverse().m;
+        double x = normal.getX(), y = normal.getY(), z = normal.getZ();
+        return new Vector(n[0] * x + n[4] * y + n[8] * z,
+                n[1] * x + n[5] * y + n[9] * z,
+                n[2] * x + n[6] * y + n[10] * z).normalize();
+    }
+
+    /**
+     * Transform points packed in an array - x, y, z of every point
+     *
+     * @param source the points
+     * @param target array for the transformed points (may be the source itself)
+     * @throws IllegalArgumentException if the arrays are not of the same size
+     */
+    public void apply(double[] source, double[] target) {
+        if (source.length != target.length) {
+            throw new IllegalArgumentException("Source and target arrays must be of the same size");
+        }
+        for (int i = 0; i + 2 < source.length; i += 3) {
+            double x = source[i], y = source[i + 1], z = source[i + 2];
+            target[i] = m[0] * x + m[1] * y + m[2] * z + m[3];
+            target[i + 1] = m[4] * x + m[5] * y + m[6] * z + m[7];
+            target[i + 2] = m[8] * x + m[9] * y + m[10] * z + m[11];
+        }
+    }
+
+    /**
+     * @return the matrix by rows - 12 numbers, the translation in the 4th column
+     */
+    public double[] toArray() {
+        return m.clone();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof Transform other && Arrays.equals(m, other.m);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(m);
+    }
+
+    @Override
+    public String toString() {
+        return "Transform" + Arrays.toString(m);
+    }
+}
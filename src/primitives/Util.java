@@ -1,11 +1,13 @@
 package primitives;
-import java.util.Random;
+import java.util.SplittableRandom;
 /** Util class is used for some internal utilities, e.g. controlling accuracy
  * @author Dan */
 public final class Util {
     /** It is binary, equivalent to ~1/1,000,000,000,000 in decimal (12 digits) */
     private static final int ACCURACY = -40;
-    private static final Random random = new Random();
+    /** Random generator of each thread - no locking and no contention between threads.
+     * It is re-seeded by {@link #setRandomSeed(long)} to make the sequence reproducible */
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
     /** Don't let anyone instantiate this class. */
     private Util() {}
 
@@ -50,7 +52,7 @@ public final class Util {
      * @param  max value (excluded)
      * @return     the random value */
     public static double random(double min, double max) {
-        return Math.random() * (max - min) + min;
+        return RANDOM.get().nextDouble() * (max - min) + min;
     }
 
     /**
@@ -60,6 +62,26 @@ public final class Util {
      */
     public static int randomSign() {
 
-        return random.nextBoolean() ? 1 : -1;
+        return RANDOM.get().nextBoolean() ? 1 : -1;
+    }
+
+    /** Re-seed the random generator of the current thread, so the following random
+     * numbers of the thread are the same in every run with the same seed
+     * @param seed the seed */
+    public static void setRandomSeed(long seed) {
+        RANDOM.set(new SplittableRandom(seed));
+    }
+
+    /** Derive the seed of a single sample sequence (e.g. a pixel) from a base seed (e.g. of
+     * a frame). Close indices give unrelated seeds, so the sequences don't overlap
+     * @param  seed  the base seed
+     * @param  index index of the sequence
+     * @return       the seed of the sequence */
+    public static long mixSeed(long seed, long index) {
+        // MurmurHash3 finalizer over the combination of both values
+        long z = seed ^ (index * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
     }
 }
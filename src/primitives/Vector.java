@@ -49,7 +49,7 @@ public class Vector extends Point{
         if(v1.xyz==Double3.ZERO) {
             throw new IllegalArgumentException("vector is zero");
         }
-        return new Vector(super.add(v1).xyz);
+        return new Vector(xyz.add(v1.xyz));
 
     }
 
@@ -95,7 +95,8 @@ public class Vector extends Point{
      * @return Normalized vector
      */
     public Vector normalize() {
-        return new Vector(this.xyz.d1/length(),this.xyz.d2/length(),this.xyz.d3/length());
+        double length = length();
+        return new Vector(this.xyz.d1/length,this.xyz.d2/length,this.xyz.d3/length);
     }
     /**
      * create vector normal to this vector
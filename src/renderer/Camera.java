@@ -4,10 +4,19 @@ import primitives.Color;
 import primitives.Point;
 import primitives.Vector;
 import primitives.Ray;
+import primitives.Sampler;
+import scene.Scene;
 
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.MissingResourceException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static primitives.Util.*;
 
@@ -39,9 +48,78 @@ public class Camera implements Cloneable {
     private int MAX_DEPTH_OF_ADAPTIVE = 5;
 
     private boolean superSampling = false;
-    private final int NUM_OF_RAYS = 50;
+    /**
+     * amount of rays cast through every pixel
+     */
+    private int NUM_OF_RAYS = 50;
     private boolean adaptiveGrid = false;
 
+    /**
+     * amount of threads rendering the image, 1 for rendering on the calling thread
+     */
+    private int threadsCount = 1;
+    /**
+     * size (in pixels) of the square tiles the image is split into for parallel rendering
+     */
+    private int tileSize = 16;
+    /**
+     * seed of the random sampling - every pixel re-seeds the random generator of its
+     * thread from it, so the image is the same in every run and with any amount of threads
+     */
+    private long seed = 0;
+    /**
+     * whether to sample the pixels adaptively - cast a small batch of rays through a pixel,
+     * and add batches only while the pixel is still noisy
+     */
+    private boolean adaptiveSampling = false;
+    /**
+     * amount of rays of every batch of the adaptive sampling
+     */
+    private int samplesBatch = 4;
+    /**
+     * maximal amount of rays through a pixel in the adaptive sampling
+     */
+    private int maxSamples = 64;
+    /**
+     * the adaptive sampling of a pixel stops when the standard error of its color
+     * (in the noisiest channel, 0-255 scale) is not bigger than this threshold
+     */
+    private double noiseThreshold = 1;
+    /**
+     * whether to render progressively - in passes, every pass adds samples to all
+     * the pixels of the frame buffer
+     */
+    private boolean progressive = false;
+    /**
+     * amount of rays through every pixel in every pass of the progressive rendering
+     */
+    private int samplesPerPass = 1;
+    /**
+     * amount of rays through every pixel after which the progressive rendering stops
+     */
+    private int targetSamples = NUM_OF_RAYS;
+    /**
+     * wall-clock time after which the progressive rendering stops (null - no limit)
+     */
+    private Duration timeBudget = null;
+    /**
+     * a preview image is written after every this amount of passes of the
+     * progressive rendering (0 - no previews)
+     */
+    private int previewInterval = 0;
+    /**
+     * whether the last render was done (not stopped by its time budget or cancellation)
+     */
+    private boolean complete = false;
+    /**
+     * checkpoint file of the render (null - no checkpoint)
+     */
+    private Path checkpoint = null;
+    /**
+     * sampler of the pixel footprint (null - every ray through a pixel is jittered independently)
+     */
+    private Sampler sampler = null;
+
     /**
      * constractor of camera
      */
@@ -107,6 +185,23 @@ public class Camera implements Cloneable {
     }
 
     public Ray constructRay(int nX, int nY, int j, int i) {
+        double Ry = height / (double) nY;                      // Ratio - pixel height
+        double Rx = width / (double) nX;                       // Ratio - pixel width
+        return constructRay(nX, nY, j, i, random(-Rx / 2,Rx / 2), random(-Ry / 2,Ry / 2));
+    }
+
+    /**
+     * Construct a ray through a point of a pixel
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @param j  column of the pixel
+     * @param i  row of the pixel
+     * @param x  offset of the point from the center of the pixel to the right
+     * @param y  offset of the point from the center of the pixel upwards
+     * @return the ray
+     */
+    private Ray constructRay(int nX, int nY, int j, int i, double x, double y) {
         Point pc = p0.add(v_t0.scale(distance));     // center of the view plane
         double Ry = height / (double) nY;                      // Ratio - pixel height
         double Rx = width / (double) nX;                       // Ratio - pixel width
@@ -114,9 +209,6 @@ public class Camera implements Cloneable {
         double yJ = alignZero(-(i - ((double) nY - 1) / 2) * Ry);       // move pc Yi pixels
         double xJ = alignZero((j - ((double) nX - 1) / 2) * Rx);        // move pc Xj pixels
 
-        double x = random(-Rx / 2,Rx / 2) ;
-        double y = random(-Ry / 2,Ry / 2) ;
-
         Point PIJ = pc;
         if (!isZero(xJ)) PIJ = PIJ.add(v_right.scale(xJ + x));
         if (!isZero(yJ)) PIJ = PIJ.add(v_up.scale(yJ + y));
@@ -234,11 +326,192 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Set the amount of threads rendering the image. With more than one thread the
+         * image is split into tiles that are handed to a work-stealing pool.
+         *
+         * @param threadsCount amount of threads (1 - render on the calling thread)
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the amount is not positive
+         */
+        public Builder setThreads(int threadsCount) {
+            if (threadsCount < 1) {
+                throw new IllegalArgumentException("Threads count must be positive");
+            }
+            camera.threadsCount = threadsCount;
+            return this;
+        }
+
+        /**
+         * Set the seed of the random sampling (pixel jitter, glossy and blurry beams).
+         * Renders with the same seed are identical.
+         *
+         * @param seed the seed
+         * @return the Builder object itself for method chaining.
+         */
+        public Builder setSeed(long seed) {
+            camera.seed = seed;
+            return this;
+        }
+
+        /**
+         * Turn on the adaptive sampling of the pixels - rays are cast through a pixel
+         * in batches, until the standard error of the pixel color is not bigger than
+         * the noise threshold or the maximal amount of rays is reached.
+         * Flat pixels (such as background) converge after the first batch.
+         *
+         * @param samplesBatch   amount of rays of every batch (at least 2 - the noise is
+         *                       estimated from the first batch)
+         * @param maxSamples     maximal amount of rays through a pixel
+         * @param noiseThreshold maximal standard error of the pixel color (0-255 scale)
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the batch has less than 2 rays, the maximal
+         *                                  amount is smaller than the batch, or the threshold is negative
+         */
+        public Builder setAdaptiveSampling(int samplesBatch, int maxSamples, double noiseThreshold) {
+            if (samplesBatch < 2) {
+                throw new IllegalArgumentException("Samples batch must have at least 2 rays");
+            }
+            if (maxSamples < samplesBatch) {
+                throw new IllegalArgumentException("Maximal amount of samples must not be smaller than the batch");
+            }
+            if (noiseThreshold < 0) {
+                throw new IllegalArgumentException("Noise threshold must not be negative");
+            }
+            camera.adaptiveSampling = true;
+            camera.samplesBatch = samplesBatch;
+            camera.maxSamples = maxSamples;
+            camera.noiseThreshold = noiseThreshold;
+            return this;
+        }
+
+        /**
+         * Turn on the progressive rendering - the image is rendered in passes, and every
+         * pass adds samples (jittered rays) to every pixel, until the target amount of
+         * samples is reached. The frame buffer holds a valid image after every pass.
+         * The adaptive grid and the adaptive sampling are not used in this mode.
+         *
+         * @param samplesPerPass amount of rays through every pixel in every pass
+         * @param targetSamples  amount of rays through every pixel in the final image
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if an amount is not positive
+         */
+        public Builder setProgressive(int samplesPerPass, int targetSamples) {
+            if (samplesPerPass < 1 || targetSamples < 1) {
+                throw new IllegalArgumentException("Amounts of samples must be positive");
+            }
+            camera.progressive = true;
+            camera.samplesPerPass = samplesPerPass;
+            camera.targetSamples = targetSamples;
+            return this;
+        }
+
+        /**
+         * Set the wall-clock time budget of {@link Camera#renderImage()} - no tile or
+         * pass is started after it is spent (not even a tile of the first pass of a
+         * progressive render).
+         *
+         * @param timeBudget the time budget (null - no limit)
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the budget is negative
+         */
+        public Builder setTimeBudget(Duration timeBudget) {
+            if (timeBudget != null && timeBudget.isNegative()) {
+                throw new IllegalArgumentException("Time budget must not be negative");
+            }
+            camera.timeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * Write a preview of the image during the progressive rendering.
+         *
+         * @param previewInterval amount of passes between the previews (0 - no previews)
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the interval is negative
+         */
+        public Builder setPreviewInterval(int previewInterval) {
+            if (previewInterval < 0) {
+                throw new IllegalArgumentException("Preview interval must not be negative");
+            }
+            camera.previewInterval = previewInterval;
+            return this;
+        }
+
+        /**
+         * Set the checkpoint file of the render - every rendered tile is saved to it, and
+         * a render with the same settings skips the tiles (and passes) that were saved.
+         * The checkpoint recognizes the settings of the camera, the image and the ray
+         * tracer, and the whole scene - its lights and geometries with their materials
+         * ({@link Scene#fingerprint()}) - a file that belongs to other settings is started
+         * anew. A scene that can't be fingerprinted can't be checkpointed - the camera is not
+         * built. A finished render leaves its file, so the next render only loads the image.
+         *
+         * @param checkpoint the checkpoint file (null - no checkpoint)
+         * @return the Builder object itself for method chaining.
+         */
+        public Builder setCheckpoint(Path checkpoint) {
+            camera.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Set the amount of rays cast through every pixel (without the adaptive grid,
+         * the adaptive sampling and the progressive rendering, that have their own amounts).
+         *
+         * @param numOfRays amount of rays
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the amount is not positive
+         */
+        public Builder setNumOfRays(int numOfRays) {
+            if (numOfRays < 1) {
+                throw new IllegalArgumentException("Amount of rays must be positive");
+            }
+            camera.NUM_OF_RAYS = numOfRays;
+            return this;
+        }
+
+        /**
+         * Set the sampler of the points the rays pass through in a pixel. A stratified
+         * or low-discrepancy sampler spreads the samples evenly, so it needs far fewer
+         * rays for the same noise than the independent jitter. The beams of the glossy
+         * and blurry surfaces are sampled by the sampler of the ray tracer
+         * ({@link RayTracerBase#setSampler(Sampler)}) - the camera doesn't change the
+         * ray tracer, that may be shared by other cameras.
+         *
+         * @param sampler the sampler
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the sampler is null
+         */
+        public Builder setSampler(Sampler sampler) {
+            if (sampler == null) {
+                throw new IllegalArgumentException("Sampler must not be null");
+            }
+            camera.sampler = sampler;
+            return this;
+        }
+
+        /**
+         * Set the size of the square tiles the image is split into for parallel rendering.
+         *
+         * @param tileSize tile width and height in pixels
+         * @return the Builder object itself for method chaining.
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize < 1) {
+                throw new IllegalArgumentException("Tile size must be positive");
+            }
+            camera.tileSize = tileSize;
+            return this;
+        }
+
         /**
          * Builds the Camera object.
          *
          * @return the constructed Camera object.
          * @throws MissingResourceException if any required field is missing.
+         * @throws IllegalArgumentException if there is a checkpoint, and the scene can't be fingerprinted
          */
         public Camera build() throws MissingResourceException {
 
@@ -264,36 +537,412 @@ public class Camera implements Cloneable {
             if (camera.rayTracer == null) {
                 throw new MissingResourceException(missingData, Camera.class.getName(), "ray Tracer");
             }
+            if (camera.checkpoint != null) {
+                try {
+                    camera.rayTracer.scene.fingerprint();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Can't checkpoint a scene that can't be fingerprinted", e);
+                }
+            }
 
 
             return (Camera) camera.clone();
         }
     }
 
+    /**
+     * Render the image to the frame buffer of the image writer, within the time
+     * budget set in the builder (if any)
+     *
+     * @return the camera itself
+     * @throws UnsupportedOperationException if the image writer or the ray tracer is missing
+     */
     public Camera renderImage() {
+        return renderImage(timeBudget, null);
+    }
+
+    /**
+     * Render the image to the frame buffer of the image writer, within a time budget
+     *
+     * @param budget the wall-clock time budget (null - no limit)
+     * @return the camera itself
+     * @throws UnsupportedOperationException if the image writer or the ray tracer is missing
+     */
+    public Camera renderImage(Duration budget) {
+        return renderImage(budget, null);
+    }
+
+    /**
+     * Render the image to the frame buffer of the image writer, until it is done,
+     * the time budget is spent or the render is cancelled. The budget and the
+     * cancellation are checked between tiles and passes - pixels that were not reached stay as they were, so the
+     * image is partial but valid (the pixels that the first pass of a progressive render didn't reach have no
+     * samples, so they are black). {@link #isComplete()} tells whether the render was done.
+     *
+     * @param budget       the wall-clock time budget (null - no limit)
+     * @param cancellation the cancellation token (null - the render can't be cancelled)
+     * @return the camera itself
+     * @throws UnsupportedOperationException if the image writer or the ray tracer is missing
+     * @throws IllegalArgumentException      if the budget is negative
+     */
+    public Camera renderImage(Duration budget, CancellationToken cancellation) {
         if (this.imageWriter == null)
             throw new UnsupportedOperationException("Missing imageWriter");
         if (this.rayTracer == null)
             throw new UnsupportedOperationException("Missing rayTracerBase");
-
-        for (int i = 0; i < this.imageWriter.getNy(); i++) {
-            for (int j = 0; j < this.imageWriter.getNy(); j++) { //TODO: CHANGE TO GETNX(?)
-                Color color = castRay(j,i);
-                this.imageWriter.writePixel(j, i, color);
+        if (budget != null && budget.isNegative())
+            throw new IllegalArgumentException("Time budget must not be negative");
+
+        RenderLimit limit = new RenderLimit(budget, cancellation);
+        RenderMetrics metrics = rayTracer.getMetrics();
+        if (metrics != null) metrics.startImage(imageWriter.getNx(), imageWriter.getNy());
+        long start = System.nanoTime();
+        RenderCheckpoint saved = checkpoint == null ? null
+                : RenderCheckpoint.open(checkpoint, renderSettings(), imageWriter.getNx(), imageWriter.getNy(),
+                tilesCount(imageWriter.getNx()) * tilesCount(imageWriter.getNy()));
+        ForkJoinPool pool = threadsCount > 1 ? new ForkJoinPool(threadsCount) : null;
+        try {
+            if (saved != null) saved.load(imageWriter.getFrameBuffer());
+            if (progressive) {
+                renderProgressive(pool, limit, saved);
+            } else {
+                FrameBuffer frameBuffer = imageWriter.getFrameBuffer();
+                renderPixels(pool, limit, saved, 0, (j, i) -> frameBuffer.setPixel(j, i, castRay(j, i)));
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+            if (metrics != null) metrics.addRenderTime(System.nanoTime() - start);
+            if (saved != null) {
+                try {
+                    saved.close();
+                } catch (IOException e) {
+                    throw new IllegalStateException("I/O error - can't write checkpoint " + checkpoint, e);
+                }
             }
         }
+        complete = !limit.isReached();
         return this;
     }
-    private Color castRay(int j,int i){
-        if (adaptiveGrid) return adaptiveGrid(this.imageWriter.getNx(), this.imageWriter.getNy(), j, i);
 
-        Color color = new Color(java.awt.Color.BLACK);
-        Ray ray;
-        for (int index = 0; index < NUM_OF_RAYS; index++){
-            ray = constructRay(this.imageWriter.getNx(), this.imageWriter.getNy(), j, i);
-            color = color.add(this.rayTracer.traceRay(ray));
+    /**
+     * @param pixels amount of pixels in a row (or a column)
+     * @return amount of tiles in the row (or the column)
+     */
+    private int tilesCount(int pixels) {
+        return (pixels + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * @return description of all the settings that affect the rendered image, for the checkpoint
+     */
+    private String renderSettings() {
+        return String.join("|", p0.toString(), v_t0.toString(), v_up.toString(),
+                Double.toString(width), Double.toString(height), Double.toString(distance),
+                imageWriter.getNx() + "x" + imageWriter.getNy(), Integer.toString(tileSize), Long.toString(seed),
+                rayTracer.settings(), adaptiveGrid + ":" + MAX_DEPTH_OF_ADAPTIVE,
+                adaptiveSampling + ":" + samplesBatch + ":" + maxSamples + ":" + noiseThreshold,
+                progressive + ":" + samplesPerPass + ":" + targetSamples, NUM_OF_RAYS + ":" + sampler,
+                Long.toHexString(rayTracer.scene.fingerprint()));
+    }
+
+    /**
+     * @return whether the last render was done, or stopped by its time budget or cancellation
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Rendering of a single pixel
+     */
+    @FunctionalInterface
+    private interface PixelRenderer {
+        /**
+         * @param j column of the pixel
+         * @param i row of the pixel
+         */
+        void render(int j, int i);
+    }
+
+    /**
+     * Time budget and cancellation of a render. Once one of them is reached, it
+     * stays reached, so all the threads stop
+     */
+    private static class RenderLimit {
+        /**
+         * start time of the render (nanoseconds)
+         */
+        private final long start = System.nanoTime();
+        /**
+         * the time budget (null - no limit)
+         */
+        private final Duration budget;
+        /**
+         * the cancellation token (null - the render can't be cancelled)
+         */
+        private final CancellationToken cancellation;
+        /**
+         * whether the limit was reached
+         */
+        private volatile boolean reached = false;
+
+        /**
+         * @param budget       the time budget (null - no limit)
+         * @param cancellation the cancellation token (null - the render can't be cancelled)
+         */
+        RenderLimit(Duration budget, CancellationToken cancellation) {
+            this.budget = budget;
+            this.cancellation = cancellation;
+        }
+
+        /**
+         * Check the time budget and the cancellation
+         *
+         * @return whether the render must stop
+         */
+        boolean check() {
+            if (!reached && (cancellation != null && cancellation.isCancelled()
+                    || budget != null && Duration.ofNanos(System.nanoTime() - start).compareTo(budget) >= 0)) {
+                reached = true;
+            }
+            return reached;
+        }
+
+        /**
+         * @return whether the limit was reached in one of the checks
+         */
+        boolean isReached() {
+            return reached;
+        }
+    }
+
+    /**
+     * Render the image progressively - pass after pass, until every pixel has the
+     * target amount of samples or the limit is reached
+     *
+     * @param pool  the threads pool (null - render on the calling thread)
+     * @param limit time budget and cancellation of the render
+     * @param saved checkpoint of the render (null - no checkpoint)
+     */
+    private void renderProgressive(ForkJoinPool pool, RenderLimit limit, RenderCheckpoint saved) {
+        FrameBuffer frameBuffer = imageWriter.getFrameBuffer();
+        int pass = 0;
+        for (int samples = 0; samples < targetSamples; ++pass) {
+            int count = Math.min(samplesPerPass, targetSamples - samples);
+            int currentPass = pass;
+            renderPixels(pool, limit, saved, pass,
+                    (j, i) -> frameBuffer.addSamples(j, i, castSamples(j, i, currentPass, count), count));
+            samples += count;
+            if (saved != null) saved.force();
+
+            if (samples < targetSamples && limit.check()) break;
+            if (previewInterval > 0 && (pass + 1) % previewInterval == 0 && samples < targetSamples) {
+                imageWriter.writeToImage();
+            }
+        }
+    }
+
+    /**
+     * Render the pixels of the image once, tile after tile - until the limit is
+     * reached. Tiles that finished the pass according to the checkpoint are skipped,
+     * and the rendered tiles are saved to it
+     *
+     * @param pool     the threads pool (null - render on the calling thread)
+     * @param limit    time budget and cancellation of the render
+     * @param saved    checkpoint of the render (null - no checkpoint)
+     * @param pass     index of the pass (0 if the render has a single pass)
+     * @param renderer rendering of a pixel
+     */
+    private void renderPixels(ForkJoinPool pool, RenderLimit limit, RenderCheckpoint saved, int pass,
+                              PixelRenderer renderer) {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        FrameBuffer frameBuffer = imageWriter.getFrameBuffer();
+        RenderMetrics metrics = rayTracer.getMetrics();
+        if (metrics != null && metrics.hasCostMap()) {
+            PixelRenderer measured = renderer;
+            renderer = (j, i) -> {
+                long start = System.nanoTime();
+                measured.render(j, i);
+                metrics.addPixelCost(j, i, System.nanoTime() - start);
+            };
+        }
+        PixelRenderer pixelRenderer = renderer;
+        List<Callable<Void>> tiles = new ArrayList<>();
+        for (int y0 = 0; y0 < nY; y0 += tileSize) {
+            for (int x0 = 0; x0 < nX; x0 += tileSize) {
+                int tileX = x0, tileY = y0;
+                int tile = tiles.size();
+                tiles.add(() -> {
+                    if (saved != null && saved.getPasses(tile) > pass || limit.check()) return null;
+                    int width = Math.min(tileSize, nX - tileX), height = Math.min(tileSize, nY - tileY);
+                    renderTile(pixelRenderer, tileX, tileY, width, height);
+                    if (saved != null) saved.saveTile(frameBuffer, tile, pass + 1, tileX, tileY, width, height);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            if (pool == null) {
+                for (Callable<Void> tile : tiles) {
+                    tile.call();
+                }
+            } else {
+                for (Future<Void> tile : pool.invokeAll(tiles)) {
+                    tile.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rendering was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Rendering failed", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Rendering failed", e);
+        }
+    }
+
+    /**
+     * Render one tile of the image
+     *
+     * @param renderer rendering of a pixel
+     * @param x0       column of the upper left pixel of the tile
+     * @param y0       row of the upper left pixel of the tile
+     * @param width    tile width in pixels
+     * @param height   tile height in pixels
+     */
+    private void renderTile(PixelRenderer renderer, int x0, int y0, int width, int height) {
+        // the tiles don't overlap, so they are written to the frame buffer without a lock
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                renderer.render(x0 + j, y0 + i);
+            }
+        }
+    }
+
+    /**
+     * Cast jittered rays through a pixel for a pass of the progressive rendering.
+     * The samples of the pixel footprint are taken from one set of the target
+     * amount of samples of the pixel - every pass takes its slice of the set
+     *
+     * @param j     column of the pixel
+     * @param i     row of the pixel
+     * @param pass  index of the pass
+     * @param count amount of rays
+     * @return sum of the colors of the rays
+     */
+    private Color castSamples(int j, int i, int pass, int count) {
+        int nX = this.imageWriter.getNx(), nY = this.imageWriter.getNy();
+        // the set of the samples depends only on the seed and the pixel, so all the passes slice the same set
+        setRandomSeed(mixSeed(seed, (long) i * nX + j));
+        double[] samples = sampler == null ? null : sampler.generate(pass * samplesPerPass, count, targetSamples);
+        // every pass has its own random numbers, that depend only on the seed, the pass and the pixel
+        setRandomSeed(mixSeed(mixSeed(seed, pass), (long) i * nX + j));
+        Color color = Color.BLACK;
+        rayTracer.beginPixel(count, targetSamples);
+        try {
+            for (int index = 0; index < count; index++) {
+                color = color.add(this.rayTracer.traceRay(constructRay(nX, nY, j, i, samples, index)));
+            }
+        } finally {
+            rayTracer.endPixel();
+        }
+        return color;
+    }
+
+    private Color castRay(int j,int i){
+        // the random numbers of a pixel depend only on the seed and the pixel, not on the thread
+        setRandomSeed(mixSeed(seed, (long) i * this.imageWriter.getNx() + j));
+        // the adaptive modes share the ray budget of the pixel as if they cast all their rays
+        int pixelSamples = adaptiveGrid ? adaptiveGridRays() : adaptiveSampling ? maxSamples : NUM_OF_RAYS;
+        rayTracer.beginPixel(pixelSamples, pixelSamples);
+        try {
+            if (adaptiveGrid) return adaptiveGrid(this.imageWriter.getNx(), this.imageWriter.getNy(), j, i);
+            if (adaptiveSampling) return adaptiveSampling(j, i);
+
+            Color color = new Color(java.awt.Color.BLACK);
+            Ray ray;
+            double[] samples = sampler == null ? null : sampler.generate(NUM_OF_RAYS);
+            for (int index = 0; index < NUM_OF_RAYS; index++){
+                ray = constructRay(this.imageWriter.getNx(), this.imageWriter.getNy(), j, i, samples, index);
+                color = color.add(this.rayTracer.traceRay(ray));
+            }
+            return color.reduce(NUM_OF_RAYS);
+        } finally {
+            rayTracer.endPixel();
         }
-        return color.reduce(NUM_OF_RAYS);
+    }
+
+    /**
+     * @return amount of the rays of the adaptive grid of a pixel, when it is divided to the maximal depth
+     */
+    private int adaptiveGridRays() {
+        int cells = 1 << Math.min(15, Math.max(0, MAX_DEPTH_OF_ADAPTIVE - STARTING_DEPTH));
+        return (cells + 1) * (cells + 1);
+    }
+
+    /**
+     * Construct a ray through a sample point of a pixel
+     *
+     * @param nX      amount of pixels by width
+     * @param nY      amount of pixels by height
+     * @param j       column of the pixel
+     * @param i       row of the pixel
+     * @param samples samples of the sampler in the unit square (null - a random point)
+     * @param index   index of the sample
+     * @return the ray
+     */
+    private Ray constructRay(int nX, int nY, int j, int i, double[] samples, int index) {
+        if (samples == null) return constructRay(nX, nY, j, i);
+        return constructRay(nX, nY, j, i, (samples[2 * index] - 0.5) * width / nX,
+                (samples[2 * index + 1] - 0.5) * height / nY);
+    }
+
+    /**
+     * Cast rays through the pixel in batches, until the standard error of the mean
+     * color (in the noisiest channel) is not bigger than the noise threshold, or
+     * the maximal amount of rays is cast
+     *
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return the mean color of the rays
+     */
+    private Color adaptiveSampling(int j, int i) {
+        int nX = this.imageWriter.getNx(), nY = this.imageWriter.getNy();
+        // running mean and sum of squared deviations of every channel (Welford's algorithm)
+        double[] mean = new double[3];
+        double[] squares = new double[3];
+        int n = 0;
+        // the batches take the samples of the sampler in order - every prefix of them is well spread
+        double[] samples = sampler == null ? null : sampler.generate(maxSamples);
+        do {
+            int batchEnd = Math.min(n + samplesBatch, maxSamples);
+            while (n < batchEnd) {
+                Color sample = this.rayTracer.traceRay(constructRay(nX, nY, j, i, samples, n));
+                double[] channels = {sample.getRed(), sample.getGreen(), sample.getBlue()};
+                ++n;
+                for (int c = 0; c < 3; ++c) {
+                    double delta = channels[c] - mean[c];
+                    mean[c] += delta / n;
+                    squares[c] += delta * (channels[c] - mean[c]);
+                }
+            }
+        } while (n < maxSamples && noise(squares, n) > noiseThreshold);
+        return new Color(mean[0], mean[1], mean[2]);
+    }
+
+    /**
+     * @param squares sums of squared deviations of the channels
+     * @param n       amount of samples
+     * @return standard error of the mean of the noisiest channel
+     */
+    private static double noise(double[] squares, int n) {
+        double variance = Math.max(squares[0], Math.max(squares[1], squares[2])) / (n - 1);
+        return Math.sqrt(variance / n);
     }
 
     public Camera printGrid(int interval, Color color) {
@@ -309,8 +958,16 @@ public class Camera implements Cloneable {
         imageWriter.writeToImage();
         return this;
     }
+    /**
+     * Write the rendered image, and the cost map of its pixels (as the image name
+     * with "-cost") if the metrics of the ray tracer measure it
+     */
     public void writeToImage() {
         this.imageWriter.writeToImage();
+        RenderMetrics metrics = rayTracer == null ? null : rayTracer.getMetrics();
+        if (metrics != null && metrics.hasPixelCosts()) {
+            metrics.writeCostMap(imageWriter.getImageName() + "-cost");
+        }
     }
 
     /**
@@ -0,0 +1,29 @@
+package renderer;
+
+/**
+ * Cooperative cancellation of a render. The token is handed to
+ * {@link Camera#renderImage(java.time.Duration, CancellationToken)} and may be
+ * cancelled from any thread; the camera checks it between tiles and passes, so
+ * a cancelled render stops soon, leaving the pixels that were already rendered
+ * in the frame buffer
+ */
+public class CancellationToken {
+    /**
+     * whether the render was cancelled
+     */
+    private volatile boolean cancelled = false;
+
+    /**
+     * Cancel the render. Cancelling again has no effect
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return whether the render was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,163 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * High dynamic range buffer of the rendered pixels. The colors are kept as
+ * they were calculated - without the 255 limit and without rounding - in flat
+ * arrays of doubles, and they are converted to the 8 bit image only once,
+ * when the image is written.
+ * Every pixel has its own cells in the arrays, so threads that render
+ * different pixels (such as different tiles) may write them at the same time
+ * without any lock
+ */
+public class FrameBuffer {
+    /**
+     * Horizontal resolution - number of pixels in row
+     */
+    private final int nX;
+    /**
+     * Vertical resolution - number of pixels in column
+     */
+    private final int nY;
+    /**
+     * sums of the samples of the pixels - red, green and blue of every pixel, row by row
+     */
+    private final double[] rgb;
+    /**
+     * amount of the samples summed in every pixel
+     */
+    private final double[] weights;
+
+    /**
+     * Constructor of a black buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @throws IllegalArgumentException if a resolution is not positive
+     */
+    public FrameBuffer(int nX, int nY) {
+        if (nX < 1 || nY < 1) {
+            throw new IllegalArgumentException("Frame buffer resolution must be positive");
+        }
+        this.nX = nX;
+        this.nY = nY;
+        rgb = new double[3 * nX * nY];
+        weights = new double[nX * nY];
+    }
+
+    /**
+     * @return the amount of horizontal pixels
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return the amount of vertical pixels
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Set the color of a pixel, replacing all the samples it had
+     *
+     * @param x     column of the pixel
+     * @param y     row of the pixel
+     * @param color the color
+     */
+    public void setPixel(int x, int y, Color color) {
+        int pixel = y * nX + x;
+        rgb[3 * pixel] = color.getRed();
+        rgb[3 * pixel + 1] = color.getGreen();
+        rgb[3 * pixel + 2] = color.getBlue();
+        weights[pixel] = 1;
+    }
+
+    /**
+     * Accumulate samples into a pixel - the color of the pixel becomes the average
+     * of all the samples it got so far
+     *
+     * @param x     column of the pixel
+     * @param y     row of the pixel
+     * @param sum   sum of the colors of the samples
+     * @param count amount of the samples
+     */
+    public void addSamples(int x, int y, Color sum, int count) {
+        int pixel = y * nX + x;
+        rgb[3 * pixel] += sum.getRed();
+        rgb[3 * pixel + 1] += sum.getGreen();
+        rgb[3 * pixel + 2] += sum.getBlue();
+        weights[pixel] += count;
+    }
+
+    /**
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @return amount of the samples accumulated in the pixel
+     */
+    public double getWeight(int x, int y) {
+        return weights[y * nX + x];
+    }
+
+    /**
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @return the color of the pixel (the average of its samples), black if it has none
+     */
+    public Color getPixel(int x, int y) {
+        int pixel = y * nX + x;
+        double weight = weights[pixel];
+        if (weight == 0) {
+            return Color.BLACK;
+        }
+        return weight == 1 ? new Color(rgb[3 * pixel], rgb[3 * pixel + 1], rgb[3 * pixel + 2])
+                : new Color(rgb[3 * pixel] / weight, rgb[3 * pixel + 1] / weight, rgb[3 * pixel + 2] / weight);
+    }
+
+    /**
+     * @return the sums of the samples of the pixels (the array itself, for the checkpoints)
+     */
+    double[] getSums() {
+        return rgb;
+    }
+
+    /**
+     * @return the amounts of the samples of the pixels (the array itself, for the checkpoints)
+     */
+    double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Convert the buffer to 8 bit RGB values - map every channel by the tone
+     * mapper, then clamp it to 0..255 and cut its fraction
+     *
+     * @param toneMapper the tone mapper
+     * @return packed RGB values of the pixels, row by row (as in {@link java.awt.image.BufferedImage#setRGB})
+     */
+    public int[] toRGB(ToneMapper toneMapper) {
+        int[] result = new int[nX * nY];
+        for (int pixel = 0; pixel < result.length; ++pixel) {
+            double weight = weights[pixel];
+            if (weight == 0) {
+                continue; // black
+            }
+            int r = quantize(toneMapper.map(weight == 1 ? rgb[3 * pixel] : rgb[3 * pixel] / weight));
+            int g = quantize(toneMapper.map(weight == 1 ? rgb[3 * pixel + 1] : rgb[3 * pixel + 1] / weight));
+            int b = quantize(toneMapper.map(weight == 1 ? rgb[3 * pixel + 2] : rgb[3 * pixel + 2] / weight));
+            result[pixel] = r << 16 | g << 8 | b;
+        }
+        return result;
+    }
+
+    /**
+     * @param value a channel of a pixel after the tone mapping
+     * @return the channel clamped to 0..255 without its fraction (as {@link Color#getColor()})
+     */
+    private static int quantize(double value) {
+        int channel = (int) value;
+        return channel > 255 ? 255 : Math.max(channel, 0);
+    }
+}
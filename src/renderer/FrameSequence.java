@@ -0,0 +1,247 @@
+package renderer;
+
+import geometries.Transformable;
+import primitives.Point;
+import primitives.Transform;
+import primitives.Vector;
+import scene.Scene;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Renderer of an animation - a sequence of frames of one scene, written into
+ * a numbered series of images (name-0000.png, name-0001.png, ...).
+ * For every frame the camera is placed by the camera path, the animated
+ * objects are placed by their transforms, and the hierarchy of the scene is
+ * refitted to them (not built again). The scene and the camera builder, with
+ * its ray tracer, are shared by all the frames
+ */
+public class FrameSequence {
+    /**
+     * builder of the cameras of the frames, with all the settings but the
+     * image writer (and the placement, if there is a camera path)
+     */
+    private final Camera.Builder cameraBuilder;
+    /**
+     * the scene of the frames
+     */
+    private final Scene scene;
+    /**
+     * name of the images, the frame number is added to it
+     */
+    private final String imageName;
+    /**
+     * resolution of the images
+     */
+    private final int nX, nY;
+    /**
+     * amount of the frames
+     */
+    private final int frames;
+    /**
+     * placement of the camera in every frame (null - the camera stays as in the builder)
+     */
+    private CameraPath cameraPath = null;
+    /**
+     * the animated objects with their transforms
+     */
+    private final List<Animation> animations = new ArrayList<>();
+    /**
+     * checkpoint file of the frames, the frame number is added to it (null - no checkpoints)
+     */
+    private Path checkpoint = null;
+
+    /**
+     * Placement of the camera in the frames
+     */
+    @FunctionalInterface
+    public interface CameraPath {
+        /**
+         * Place the camera of a frame
+         *
+         * @param builder the camera builder
+         * @param frame   the frame number
+         */
+        void place(Camera.Builder builder, int frame);
+
+        /**
+         * Camera path of a moving camera that always looks at a target
+         *
+         * @param location location of the camera in every frame
+         * @param target   the point the camera looks at
+         * @param up       the up direction of the world (the camera is not rolled around its view direction)
+         * @return the camera path
+         * @throws IllegalArgumentException if the camera looks along the up direction
+         */
+        static CameraPath lookAt(IntFunction<Point> location, Point target, Vector up) {
+            return (builder, frame) -> {
+                Point p0 = location.apply(frame);
+                // normalized first - the cross products of long vectors are too long to check their orthogonality
+                Vector vTo = target.subtract(p0).normalize();
+                Vector vUp = vTo.crossProduct(up).normalize().crossProduct(vTo);
+                builder.setLocation(p0).setDirection(vTo, vUp);
+            };
+        }
+
+        /**
+         * Camera path of a turntable - the camera circles around a vertical axis
+         * through the target, once along the frames, and looks at the target
+         *
+         * @param target the point the camera looks at
+         * @param up     direction of the axis
+         * @param start  location of the camera in the first frame
+         * @param frames amount of the frames of a full circle
+         * @return the camera path
+         * @throws IllegalArgumentException if the camera starts at the target
+         */
+        static CameraPath turntable(Point target, Vector up, Point start, int frames) {
+            Vector offset = start.subtract(target);
+            return lookAt(frame -> target.add(Transform.rotation(up, 360.0 * frame / frames).apply(offset)),
+                    target, up);
+        }
+    }
+
+    /**
+     * an animated object with its transforms
+     *
+     * @param object    the object
+     * @param transform transform of the object (of its original placement) in every frame
+     */
+    private record Animation(Transformable object, IntFunction<Transform> transform) {
+    }
+
+    /**
+     * Constructor of a frame sequence
+     *
+     * @param cameraBuilder builder of the cameras of the frames, with the ray tracer of the scene (its
+     *                      checkpoint is replaced by the checkpoints of the frames, see
+     *                      {@link #setCheckpoint(Path)})
+     * @param scene         the scene, its geometries are refitted in every frame
+     * @param imageName     name of the images
+     * @param nX            amount of pixels by width
+     * @param nY            amount of pixels by height
+     * @param frames        amount of the frames
+     * @throws IllegalArgumentException if the amount of the frames or the resolution is not positive
+     */
+    public FrameSequence(Camera.Builder cameraBuilder, Scene scene, String imageName, int nX, int nY, int frames) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("Amount of frames must be positive");
+        }
+        if (nX < 1 || nY < 1) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.cameraBuilder = cameraBuilder;
+        this.scene = scene;
+        this.imageName = imageName;
+        this.nX = nX;
+        this.nY = nY;
+        this.frames = frames;
+    }
+
+    /**
+     * @param cameraPath placement of the camera in every frame
+     * @return the frame sequence itself
+     */
+    public FrameSequence setCameraPath(CameraPath cameraPath) {
+        this.cameraPath = cameraPath;
+        return this;
+    }
+
+    /**
+     * Set the checkpoint file of the frames - every frame has its own file, with
+     * the frame number added to its name, so a frame never loads the tiles of
+     * another frame
+     *
+     * @param checkpoint the checkpoint file (null - no checkpoints)
+     * @return the frame sequence itself
+     */
+    public FrameSequence setCheckpoint(Path checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * @param frame the frame number
+     * @return checkpoint file of the frame (null - no checkpoints)
+     */
+    public Path getCheckpoint(int frame) {
+        return checkpoint == null ? null
+                : checkpoint.resolveSibling(String.format("%s-%04d", checkpoint.getFileName(), frame));
+    }
+
+    /**
+     * Animate an object of the scene
+     *
+     * @param object    the object
+     * @param transform transform of the object (of its original placement) in every frame
+     * @return the frame sequence itself
+     */
+    public FrameSequence addAnimation(Transformable object, IntFunction<Transform> transform) {
+        animations.add(new Animation(object, transform));
+        return this;
+    }
+
+    /**
+     * @return amount of the frames
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * @param frame the frame number
+     * @return name of the image of the frame
+     */
+    public String getImageName(int frame) {
+        return String.format("%s-%04d", imageName, frame);
+    }
+
+    /**
+     * Render all the frames and write their images
+     */
+    public void render() {
+        for (int frame = 0; frame < frames; ++frame) {
+            renderFrame(frame);
+        }
+    }
+
+    /**
+     * Render a frame and write its image
+     *
+     * @param frame the frame number
+     * @return the camera of the frame
+     * @throws IllegalArgumentException if there is no such frame
+     */
+    public Camera renderFrame(int frame) {
+        Camera camera = prepareFrame(frame);
+        camera.renderImage().writeToImage();
+        return camera;
+    }
+
+    /**
+     * Place the objects and the camera of a frame
+     *
+     * @param frame the frame number
+     * @return the camera of the frame, ready for rendering
+     * @throws IllegalArgumentException if there is no such frame
+     */
+    Camera prepareFrame(int frame) {
+        if (frame < 0 || frame >= frames) {
+            throw new IllegalArgumentException("No frame " + frame + " in " + frames + " frames");
+        }
+        if (!animations.isEmpty()) {
+            for (Animation animation : animations) {
+                animation.object().setTransform(animation.transform().apply(frame));
+            }
+            scene.geometries.refit();
+        }
+        if (cameraPath != null) {
+            cameraPath.place(cameraBuilder, frame);
+        }
+        return cameraBuilder.setImageWriter(new ImageWriter(getImageName(frame), nX, nY))
+                .setCheckpoint(getCheckpoint(frame)).build();
+    }
+}
@@ -13,7 +13,9 @@ import java.util.logging.Logger;
  * Image writer class combines accumulation of pixel color matrix and finally
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible for holding image related parameters of View Plane - pixel matrix
- * size and resolution
+ * size and resolution.
+ * The pixels are accumulated in a high dynamic range {@link FrameBuffer}, and
+ * they are tone mapped and quantized to 8 bits only when the image is written
  *
  * @author Dan
  */
@@ -34,7 +36,11 @@ public class ImageWriter {
     /**
      * Image generation buffer (the matrix of the pixels)
      */
-    private BufferedImage image;
+    private final FrameBuffer frameBuffer;
+    /**
+     * conversion of the pixels to the displayable range when the image is written
+     */
+    private ToneMapper toneMapper = ToneMapper.CLAMP;
     /**
      * image file name, not including the file extension '.png'
      */
@@ -58,11 +64,18 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        frameBuffer = new FrameBuffer(nX, nY);
     }
 
     // ***************** Getters/Setters ********************** //
 
+    /**
+     * @return image file name, not including the file extension '.png'
+     */
+    public String getImageName() {
+        return imageName;
+    }
+
     /**
      * View Plane Y axis resolution
      *
@@ -81,6 +94,32 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * The buffer the pixels are accumulated in - the renderer writes its tiles
+     * directly into it
+     *
+     * @return the frame buffer
+     */
+    public FrameBuffer getFrameBuffer() {
+        return frameBuffer;
+    }
+
+    /**
+     * Set the tone mapping of the pixels when the image is written
+     * (the default is {@link ToneMapper#CLAMP})
+     *
+     * @param toneMapper the tone mapper
+     * @return the image writer itself
+     * @throws IllegalArgumentException if the tone mapper is null
+     */
+    public ImageWriter setToneMapper(ToneMapper toneMapper) {
+        if (toneMapper == null) {
+            throw new IllegalArgumentException("Tone mapper must not be null");
+        }
+        this.toneMapper = toneMapper;
+        return this;
+    }
+
     // ***************** Operations ******************** //
 
     /**
@@ -89,6 +128,8 @@ public class ImageWriter {
      * pixel color matrix in the directory of the project
      */
     public void writeToImage() {
+        BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, nX, nY, frameBuffer.toRGB(toneMapper), 0, nX);
         try {
             File file = new File(FOLDER_PATH + '/' + imageName + ".png");
             ImageIO.write(image, "png", file);
@@ -107,7 +148,7 @@ public class ImageWriter {
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        frameBuffer.setPixel(xIndex, yIndex, color);
     }
 
 }
@@ -2,10 +2,19 @@ package renderer;
 
 import primitives.Color;
 import primitives.Ray;
+import primitives.Sampler;
 import scene.Scene;
 
 public  abstract class RayTracerBase {
     protected Scene scene;
+    /**
+     * metrics of the rendering (null - not collected)
+     */
+    protected RenderMetrics metrics = null;
+    /**
+     * sampler of the beams of the glossy and blurry surfaces
+     */
+    protected Sampler sampler = Sampler.STRATIFIED;
     /**
      * Constructor that get a scene
      * @param scene
@@ -24,4 +33,60 @@ public  abstract class RayTracerBase {
      */
     abstract Color traceRay(Ray ray);
 
+    /**
+     * Set the metrics the ray tracer collects (the camera adds the rendering times to them)
+     *
+     * @param metrics the metrics (null - not collected)
+     * @return the ray tracer itself
+     */
+    public RayTracerBase setMetrics(RenderMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * @return the metrics the ray tracer collects (null - not collected)
+     */
+    public RenderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Set the sampler of the beams of the glossy and blurry surfaces
+     *
+     * @param sampler the sampler
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the sampler is null
+     */
+    public RayTracerBase setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("Sampler must not be null");
+        }
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     * Start the primary rays of a pixel on the current thread - a ray tracer that
+     * limits the rays of a pixel shares the limit among them (nothing by default)
+     *
+     * @param samples      amount of the primary rays traced now
+     * @param pixelSamples amount of the primary rays of the pixel in all the passes of the render
+     */
+    void beginPixel(int samples, int pixelSamples) {
+    }
+
+    /**
+     * Finish the pixel started on the current thread by {@link #beginPixel(int, int)}
+     */
+    void endPixel() {
+    }
+
+    /**
+     * @return description of the settings of the ray tracer that affect the colors, for the checkpoints
+     */
+    String settings() {
+        return getClass().getName() + ":" + sampler;
+    }
+
 }
@@ -0,0 +1,208 @@
+package renderer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checkpoint file of a render - the finished tiles and the frame buffer,
+ * memory-mapped, so a render that was stopped (even by killing the JVM) is
+ * resumed by the next render of the same camera, skipping the finished work.
+ * The file has the layout:
+ * <ul>
+ * <li>header - magic number, format version, fingerprint of the render settings,
+ * resolution and amount of tiles</li>
+ * <li>for every tile - the amount of passes it has finished (int)</li>
+ * <li>the frame buffer - sums of the samples of the pixels (3 doubles for every
+ * pixel) and their amounts (a double for every pixel), row by row</li>
+ * </ul>
+ * A tile is written to the file after it is rendered - its pixels first, then
+ * its counter, so a counter never claims pixels that were not written. Every
+ * tile has its own cells in the file, so threads that render different tiles
+ * save them at the same time without any lock
+ */
+class RenderCheckpoint implements Closeable {
+    /**
+     * magic number of the file ("RCKP")
+     */
+    private static final int MAGIC = 0x52434B50;
+    /**
+     * version of the file format
+     */
+    private static final int VERSION = 1;
+    /**
+     * size of the header in bytes
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * the open file
+     */
+    private final FileChannel channel;
+    /**
+     * the mapping of the whole file
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * Horizontal resolution - number of pixels in row
+     */
+    private final int nX;
+    /**
+     * offset of the sums of the samples in the file
+     */
+    private final int sumsOffset;
+    /**
+     * offset of the amounts of the samples in the file
+     */
+    private final int weightsOffset;
+
+    /**
+     * Open the checkpoint file of a render, or create it if it doesn't exist or
+     * belongs to a render with other settings
+     *
+     * @param file       the checkpoint file
+     * @param settings   description of everything that affects the rendered image
+     * @param nX         amount of pixels by width
+     * @param nY         amount of pixels by height
+     * @param tilesCount amount of tiles of the image
+     * @return the checkpoint
+     * @throws IllegalArgumentException if the image is too big for a checkpoint file
+     * @throws IllegalStateException    if the file can't be opened
+     */
+    static RenderCheckpoint open(Path file, String settings, int nX, int nY, int tilesCount) {
+        try {
+            return new RenderCheckpoint(file, fingerprint(settings), nX, nY, tilesCount);
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't open checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Constructor - maps the file and resets it if its header doesn't match
+     *
+     * @param file        the checkpoint file
+     * @param fingerprint fingerprint of the render settings
+     * @param nX          amount of pixels by width
+     * @param nY          amount of pixels by height
+     * @param tilesCount  amount of tiles of the image
+     * @throws IOException if the file can't be opened
+     */
+    private RenderCheckpoint(Path file, long fingerprint, int nX, int nY, int tilesCount) throws IOException {
+        this.nX = nX;
+        long pixels = (long) nX * nY;
+        // the tile counters are padded to whole doubles
+        long sums = HEADER_SIZE + 8L * ((tilesCount + 1) / 2);
+        long size = sums + 32 * pixels;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image is too big for a checkpoint file");
+        }
+        sumsOffset = (int) sums;
+        weightsOffset = (int) (sums + 24 * pixels);
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean valid = channel.size() == size;
+            if (!valid) {
+                channel.truncate(0);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            valid = valid && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                    && buffer.getLong(8) == fingerprint && buffer.getInt(16) == nX && buffer.getInt(20) == nY
+                    && buffer.getInt(24) == tilesCount;
+            if (!valid) {
+                for (int i = 0; i < size; i += 8) {
+                    buffer.putLong(i, 0);
+                }
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, fingerprint)
+                        .putInt(16, nX).putInt(20, nY).putInt(24, tilesCount);
+                buffer.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param settings description of the render settings
+     * @return 64 bit FNV-1a hash of the description
+     */
+    private static long fingerprint(String settings) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : settings.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param tile index of the tile
+     * @return amount of passes the tile has finished
+     */
+    int getPasses(int tile) {
+        return buffer.getInt(HEADER_SIZE + 4 * tile);
+    }
+
+    /**
+     * Copy the saved frame buffer into a frame buffer
+     *
+     * @param frameBuffer the frame buffer (of the same resolution)
+     */
+    void load(FrameBuffer frameBuffer) {
+        double[] sums = frameBuffer.getSums();
+        double[] weights = frameBuffer.getWeights();
+        for (int i = 0; i < sums.length; ++i) {
+            sums[i] = buffer.getDouble(sumsOffset + 8 * i);
+        }
+        for (int i = 0; i < weights.length; ++i) {
+            weights[i] = buffer.getDouble(weightsOffset + 8 * i);
+        }
+    }
+
+    /**
+     * Save a rendered tile
+     *
+     * @param frameBuffer the frame buffer
+     * @param tile        index of the tile
+     * @param passes      amount of passes the tile has finished
+     * @param x0          column of the upper left pixel of the tile
+     * @param y0          row of the upper left pixel of the tile
+     * @param width       tile width in pixels
+     * @param height      tile height in pixels
+     */
+    void saveTile(FrameBuffer frameBuffer, int tile, int passes, int x0, int y0, int width, int height) {
+        double[] sums = frameBuffer.getSums();
+        double[] weights = frameBuffer.getWeights();
+        for (int y = y0; y < y0 + height; ++y) {
+            for (int pixel = y * nX + x0; pixel < y * nX + x0 + width; ++pixel) {
+                buffer.putDouble(sumsOffset + 24 * pixel, sums[3 * pixel]);
+                buffer.putDouble(sumsOffset + 24 * pixel + 8, sums[3 * pixel + 1]);
+                buffer.putDouble(sumsOffset + 24 * pixel + 16, sums[3 * pixel + 2]);
+                buffer.putDouble(weightsOffset + 8 * pixel, weights[pixel]);
+            }
+        }
+        buffer.putInt(HEADER_SIZE + 4 * tile, passes);
+    }
+
+    /**
+     * Write the changes of the mapping to the storage device. Without it they are
+     * written by the operating system - they survive the end of the JVM, but not
+     * the crash of the machine
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            channel.close();
+        }
+    }
+}
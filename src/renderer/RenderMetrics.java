@@ -0,0 +1,297 @@
+package renderer;
+
+import primitives.Color;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of rendering - amounts of the traced rays of every type, of the
+ * intersection tests of basic geometries and of the shaded intersections in
+ * every recursion depth, the rendering time and (optionally) the rendering
+ * time of every pixel.
+ * The counters are striped ({@link LongAdder}), so the rendering threads
+ * update them without contention. The metrics are collected when they are set
+ * to the ray tracer ({@link RayTracerBase#setMetrics(RenderMetrics)}), and they
+ * accumulate over all the renders until they are reset
+ */
+public class RenderMetrics {
+    /**
+     * Types of the traced rays
+     */
+    public enum RayType {
+        /** ray from the camera through a pixel */
+        PRIMARY,
+        /** ray from an intersection towards a light source (transparency) */
+        SHADOW,
+        /** reflected ray */
+        REFLECTED,
+        /** refracted ray */
+        REFRACTED,
+        /** ray of the beam around a reflected or refracted ray (glossy and blurry surfaces) */
+        BEAM
+    }
+
+    /**
+     * amount of the recursion depths in the histogram - the last one counts all the deeper intersections
+     */
+    private static final int DEPTHS = 16;
+
+    /**
+     * amounts of the traced rays by their type
+     */
+    private final LongAdder[] rays = new LongAdder[RayType.values().length];
+    /**
+     * amount of the intersection tests of basic geometries
+     */
+    private final LongAdder tests = new LongAdder();
+    /**
+     * amounts of the shaded intersections by their recursion depth
+     */
+    private final LongAdder[] depths = new LongAdder[DEPTHS];
+    /**
+     * total rendering time (nanoseconds)
+     */
+    private final LongAdder renderTime = new LongAdder();
+    /**
+     * whether to measure the rendering time of every pixel
+     */
+    private final boolean costMap;
+    /**
+     * rendering time of every pixel (nanoseconds), row by row - null until an image is rendered
+     */
+    private double[] pixelCosts = null;
+    /**
+     * Horizontal resolution of the cost map
+     */
+    private int nX;
+    /**
+     * Vertical resolution of the cost map
+     */
+    private int nY;
+
+    /**
+     * Constructor of metrics without the cost map of the pixels
+     */
+    public RenderMetrics() {
+        this(false);
+    }
+
+    /**
+     * Constructor of empty metrics
+     *
+     * @param costMap whether to measure the rendering time of every pixel
+     */
+    public RenderMetrics(boolean costMap) {
+        this.costMap = costMap;
+        for (int i = 0; i < rays.length; ++i) rays[i] = new LongAdder();
+        for (int i = 0; i < depths.length; ++i) depths[i] = new LongAdder();
+    }
+
+    /**
+     * Count a traced ray
+     *
+     * @param type type of the ray
+     */
+    void addRay(RayType type) {
+        rays[type.ordinal()].increment();
+    }
+
+    /**
+     * Count traced rays
+     *
+     * @param type  type of the rays
+     * @param count amount of the rays
+     */
+    void addRays(RayType type, int count) {
+        rays[type.ordinal()].add(count);
+    }
+
+    /**
+     * @return the counter of the intersection tests (to be updated by the intersection queries)
+     */
+    LongAdder getTestsCounter() {
+        return tests;
+    }
+
+    /**
+     * Count a shaded intersection
+     *
+     * @param depth recursion depth of the intersection (0 - seen through a pixel)
+     */
+    void addIntersection(int depth) {
+        depths[Math.min(depth, DEPTHS - 1)].increment();
+    }
+
+    /**
+     * Prepare the cost map for an image (a new map if the resolution changed)
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    void startImage(int nX, int nY) {
+        if (costMap && (pixelCosts == null || this.nX != nX || this.nY != nY)) {
+            pixelCosts = new double[nX * nY];
+            this.nX = nX;
+            this.nY = nY;
+        }
+    }
+
+    /**
+     * @return whether the rendering time of every pixel is measured
+     */
+    public boolean hasCostMap() {
+        return costMap;
+    }
+
+    /**
+     * @return whether the cost map of an image was measured
+     */
+    boolean hasPixelCosts() {
+        return pixelCosts != null;
+    }
+
+    /**
+     * Add rendering time of a pixel. Threads that render different pixels may add
+     * their times at the same time
+     *
+     * @param x     column of the pixel
+     * @param y     row of the pixel
+     * @param nanos rendering time (nanoseconds)
+     */
+    void addPixelCost(int x, int y, long nanos) {
+        pixelCosts[y * nX + x] += nanos;
+    }
+
+    /**
+     * Add rendering time of an image
+     *
+     * @param nanos rendering time (nanoseconds)
+     */
+    void addRenderTime(long nanos) {
+        renderTime.add(nanos);
+    }
+
+    /**
+     * @param type type of rays
+     * @return amount of the traced rays of the type
+     */
+    public long getRays(RayType type) {
+        return rays[type.ordinal()].sum();
+    }
+
+    /**
+     * @return amount of the traced rays of all the types
+     */
+    public long getTotalRays() {
+        long total = 0;
+        for (LongAdder counter : rays) total += counter.sum();
+        return total;
+    }
+
+    /**
+     * @return amount of the intersection tests of basic geometries
+     */
+    public long getIntersectionTests() {
+        return tests.sum();
+    }
+
+    /**
+     * @return average amount of the intersection tests of a ray
+     */
+    public double getTestsPerRay() {
+        long total = getTotalRays();
+        return total == 0 ? 0 : (double) getIntersectionTests() / total;
+    }
+
+    /**
+     * @return amounts of the shaded intersections by their recursion depth (0 - seen
+     * through a pixel), up to the deepest one
+     */
+    public long[] getDepthHistogram() {
+        int length = DEPTHS;
+        while (length > 0 && depths[length - 1].sum() == 0) --length;
+        long[] histogram = new long[length];
+        for (int i = 0; i < length; ++i) histogram[i] = depths[i].sum();
+        return histogram;
+    }
+
+    /**
+     * @return total rendering time
+     */
+    public Duration getRenderTime() {
+        return Duration.ofNanos(renderTime.sum());
+    }
+
+    /**
+     * @return amount of the traced rays (of all the types) per second of rendering
+     */
+    public double getRaysPerSecond() {
+        long nanos = renderTime.sum();
+        return nanos == 0 ? 0 : getTotalRays() * 1e9 / nanos;
+    }
+
+    /**
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @return rendering time of the pixel (nanoseconds)
+     * @throws IllegalStateException if the cost map is not measured or no image was rendered
+     */
+    public double getPixelCost(int x, int y) {
+        if (pixelCosts == null) {
+            throw new IllegalStateException("No cost map was measured");
+        }
+        return pixelCosts[y * nX + x];
+    }
+
+    /**
+     * Write the cost map as a heat map image - black for the cheapest pixels through
+     * red and yellow to white for the most expensive one
+     *
+     * @param imageName image file name, not including the file extension '.png'
+     * @throws IllegalStateException if the cost map is not measured or no image was rendered
+     */
+    public void writeCostMap(String imageName) {
+        if (pixelCosts == null) {
+            throw new IllegalStateException("No cost map was measured");
+        }
+        double max = 0;
+        for (double cost : pixelCosts) max = Math.max(max, cost);
+        ImageWriter imageWriter = new ImageWriter(imageName, nX, nY);
+        for (int y = 0; y < nY; ++y) {
+            for (int x = 0; x < nX; ++x) {
+                double heat = max == 0 ? 0 : 3 * pixelCosts[y * nX + x] / max;
+                imageWriter.writePixel(x, y, new Color(255 * Math.min(heat, 1),
+                        255 * Math.min(Math.max(heat - 1, 0), 1), 255 * Math.max(heat - 2, 0)));
+            }
+        }
+        imageWriter.writeToImage();
+    }
+
+    /**
+     * Reset all the metrics
+     */
+    public void reset() {
+        for (LongAdder counter : rays) counter.reset();
+        for (LongAdder counter : depths) counter.reset();
+        tests.reset();
+        renderTime.reset();
+        pixelCosts = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("RenderMetrics{");
+        for (RayType type : RayType.values()) {
+            report.append(type.name().toLowerCase()).append('=').append(getRays(type)).append(", ");
+        }
+        return report.append("total=").append(getTotalRays())
+                .append(", tests=").append(getIntersectionTests())
+                .append(String.format(", testsPerRay=%.2f", getTestsPerRay()))
+                .append(String.format(", raysPerSecond=%.0f", getRaysPerSecond()))
+                .append(", time=").append(getRenderTime())
+                .append(", depths=").append(Arrays.toString(getDepthHistogram()))
+                .append('}').toString();
+    }
+}
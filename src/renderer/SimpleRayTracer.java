@@ -5,13 +5,21 @@ package renderer;
 import geometries.Intersectable;
 import lighting.LightSource;
 import primitives.*;
+import renderer.RenderMetrics.RayType;
 import scene.Scene;
 import geometries.Intersectable.GeoPoint;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.Util.random;
 
 /**
  * SimpleRayTracer class represents a simple ray tracer
@@ -25,12 +33,130 @@ public class SimpleRayTracer extends RayTracerBase {
     private static final double MIN_CALC_COLOR_K = 0.001;
     private static final Double3 INITIAL_K = Double3.ONE;
 
+    /**
+     * whether to evaluate the ray tree iteratively - with a work stack instead of the recursion
+     */
+    private boolean iterative = false;
+    /**
+     * maximal amount of rays (primary, reflected, refracted and beam rays) traced
+     * for a pixel in the iterative evaluation
+     */
+    private int rayBudget = Integer.MAX_VALUE;
+    /**
+     * the ray budget of the pixel that every thread traces
+     */
+    private final ThreadLocal<PixelBudget> pixelBudget = ThreadLocal.withInitial(PixelBudget::new);
+    /**
+     * throughput below which the reflected and refracted rays play Russian roulette (0 - never)
+     */
+    private double rouletteThreshold = 0;
+
     public SimpleRayTracer(Scene scene) {
         super(scene);
     }
 
+    /**
+     * Evaluate the ray tree iteratively - every reflected, refracted and beam ray is
+     * a work item with the weight of its contribution to the color of the primary
+     * ray, and the items are evaluated from a stack in the order of the recursion,
+     * so the colors are equal (up to the rounding) and so are the random beams.
+     * The stack doesn't grow with the recursion depth, and the rays of a pixel
+     * may be limited by {@link #setRayBudget(int)}
+     *
+     * @param iterative whether to evaluate the ray tree iteratively
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setIterative(boolean iterative) {
+        this.iterative = iterative;
+        return this;
+    }
+
+    /**
+     * Set the maximal amount of rays (primary, reflected, refracted and beam rays,
+     * not the shadow rays) traced for a pixel in the iterative evaluation. The
+     * budget is shared by the primary rays of the pixel - every primary ray gets
+     * an equal share of the rays that are left, so the rays a primary ray didn't
+     * need are left to the next ones (a ray traced out of a pixel gets the whole
+     * budget). The work is taken by its weight instead of the order of the
+     * recursion - the rays that contribute most are traced first, and the rays
+     * beyond the budget are the dimmest ones.
+     * <p>
+     * The budget makes the colors biased - the rays beyond it are not traced and
+     * add nothing, so the image is darker by their contributions (at most their
+     * weights times the brightest radiance of the scene). It bounds the cost of a
+     * pixel, and it is meant for previews and for time-limited renders
+     *
+     * @param rayBudget the maximal amount of rays
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public SimpleRayTracer setRayBudget(int rayBudget) {
+        if (rayBudget < 1) {
+            throw new IllegalArgumentException("Ray budget must be positive");
+        }
+        this.rayBudget = rayBudget;
+        return this;
+    }
+
+    /**
+     * Turn on the Russian roulette - a reflected or refracted ray whose throughput
+     * (the largest channel of its attenuation) is below the threshold is traced only
+     * with a probability of the throughput divided by the threshold, and the color of
+     * a traced ray is divided by the probability. The expected color doesn't change,
+     * but dim rays (and their whole ray trees) are mostly skipped instead of being
+     * traced to the full depth
+     *
+     * @param threshold the throughput threshold (0 - no Russian roulette)
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the threshold is not in the range 0..1
+     */
+    public SimpleRayTracer setRussianRoulette(double threshold) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Russian roulette threshold must be in the range 0..1");
+        }
+        this.rouletteThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Play the Russian roulette for a reflected or refracted ray
+     *
+     * @param kkx the attenuation of the ray
+     * @return the probability the ray survived with (1 - no roulette), or 0 if it was terminated
+     */
+    private double survival(Double3 kkx) {
+        double throughput = kkx.max();
+        if (throughput >= rouletteThreshold) {
+            return 1;
+        }
+        double probability = throughput / rouletteThreshold;
+        return random(0, 1) < probability ? probability : 0;
+    }
+
+    @Override
+    void beginPixel(int samples, int pixelSamples) {
+        if (rayBudget == Integer.MAX_VALUE) return;
+        PixelBudget pixel = pixelBudget.get();
+        // every primary ray is traced, even beyond the budget
+        pixel.rays = (int) Math.max(samples, (long) rayBudget * samples / pixelSamples);
+        pixel.samples = samples;
+    }
+
+    @Override
+    void endPixel() {
+        if (rayBudget == Integer.MAX_VALUE) return;
+        pixelBudget.get().samples = 0;
+    }
+
+    @Override
+    String settings() {
+        return super.settings() + ":" + iterative + ":" + rayBudget + ":" + rouletteThreshold;
+    }
+
     @Override
     public Color traceRay(Ray ray) {
+        if (metrics != null) metrics.addRay(RayType.PRIMARY);
+        if (iterative) return traceIteratively(ray);
         var point = this.findClosestIntersection(ray);
         if (point == null) {
             return scene.background;
@@ -59,15 +185,17 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return
      */
     private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
+        // every bounce takes 3 levels (global effects, the main ray and its beam)
+        if (metrics != null) metrics.addIntersection((MAX_CALC_COLOR_LEVEL - level) / 3);
         Vector v = ray.getDirection();
         Vector n = gp.geometry.getNormal(gp.point);
         double vn = v.dotProduct(n);
         if (isZero(vn))
             return Color.BLACK;
 
-        Color color = calcLocalEffects(gp, ray,k).add(gp.geometry.getEmission());
+        Color color = calcLocalEffects(gp, ray, n, k).add(gp.geometry.getEmission());
 
-        return 1 == level ? color : color.add(calcGlobalEffects(gp, v, level, k));
+        return 1 == level ? color : color.add(calcGlobalEffects(gp, v, n, vn, level, k));
     }
 
 
@@ -76,40 +204,66 @@ public class SimpleRayTracer extends RayTracerBase {
      *
      * @param gp
      * @param v
+     * @param n  normal at the point
+     * @param vn dot product of the ray direction and the normal
      * @param level
      * @return
      */
-    private Color calcGlobalEffects(GeoPoint gp, Vector v, int level, Double3 k) {
+    private Color calcGlobalEffects(GeoPoint gp, Vector v, Vector n, double vn, int level, Double3 k) {
         Color color = Color.BLACK;
         Material material = gp.geometry.getMaterial();
         Double3 kr = material.kR;
         Double3 kkr = k.product(kr);
-        Vector n = gp.geometry.getNormal(gp.point);
-        double vn = v.dotProduct(n);
         Ray reflectedRay = constructReflectedRay(gp.point, v, n, vn);
         Ray refractedRay = constructRefractedRay(gp.point, v, n);
         if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(calcGlobalEffect(material,reflectedRay, level - 1, kr, kkr));
+            color = color.add(calcGlobalEffect(material,reflectedRay, RayType.REFLECTED, level - 1, kr, kkr));
         }
         Double3 kt = material.kT;
         Double3 kkt = k.product(kt);
         if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(calcGlobalEffect(material,refractedRay, level - 1, kt, kkt));
+            color = color.add(calcGlobalEffect(material,refractedRay, RayType.REFRACTED, level - 1, kt, kkt));
         }
         return color;
     }
 
-    private Color calcGlobalEffect(Material material,Ray ray, int level, Double3 k, Double3 kx) {
+    private Color calcGlobalEffect(Material material,Ray ray, RayType type, int level, Double3 k, Double3 kx) {
         Double3 kkx = k.product(kx);
         if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
+        double survival = survival(kkx);
+        if (survival == 0) return Color.BLACK;
+        if (metrics != null) metrics.addRay(type);
         GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null) return scene.background.scale(kx);
-        var rays = ray.generateBeam( gp.geometry.getNormal(gp.point),
-                material.blurGlassRadius, material.blurGlassDistance, material.numOfRays);
-        return calcAverageColor(rays, level-1, kkx).scale(k);
+        Color color;
+        if (gp == null) {
+            color = scene.background.scale(kx);
+        } else {
+            var rays = generateBeam(ray, type, material, gp.geometry.getNormal(gp.point));
+            color = calcAverageColor(rays, level - 1, kkx).scale(k);
+        }
+        return survival == 1 ? color : color.scale(1 / survival);
     }
 
 
+    /**
+     * Generate the beam of a reflected or refracted ray - a cosine-power lobe if the
+     * material has a glossiness (kG) for the reflected ray or a blurriness (kB) for
+     * the refracted ray, otherwise the disk of the blur glass - with the samples of the
+     * sampler of the ray tracer
+     *
+     * @param ray      the reflected or refracted ray
+     * @param type     type of the ray
+     * @param material material of the surface the ray leaves
+     * @param n        normal that the beam rays must not cross
+     * @return the beam - the ray itself first
+     */
+    private List<Ray> generateBeam(Ray ray, RayType type, Material material, Vector n) {
+        double exponent = type == RayType.REFLECTED ? material.kG : material.kB;
+        return exponent > 0 ? ray.generateLobe(n, exponent, material.numOfRays, sampler)
+                : ray.generateBeam(n, material.blurGlassRadius, material.blurGlassDistance, material.numOfRays,
+                sampler);
+    }
+
     /**
      * get light and gp and move ao all the objects between them and calculate the
      * transparency
@@ -125,18 +279,11 @@ public class SimpleRayTracer extends RayTracerBase {
         Ray lightRay = new Ray(geopoint.point, lightDirection, n); //build ray with delta
         double lightDistance = light.getDistance(geopoint.point);
 
-        var intersections = this.scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null){
-            return Double3.ONE; //no intersections
-        }
-        Double3 ktr = Double3.ONE;
-        for (GeoPoint gp : intersections) {
-            if (alignZero(gp.point.distance(geopoint.point) - lightDistance) <= 0) {
-                ktr = ktr.product(gp.geometry.getMaterial().kT); //the more transparency the less shadow
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) return Double3.ZERO;
-            }
-        }
-        return ktr;
+        // only the objects between the point and the light source matter, and the
+        // search stops as soon as the light is blocked
+        if (metrics != null) metrics.addRay(RayType.SHADOW);
+        return this.scene.geometries.findTransparency(lightRay, lightDistance, MIN_CALC_COLOR_K,
+                metrics == null ? null : metrics.getTestsCounter());
     }
 
     /**
@@ -162,7 +309,7 @@ public class SimpleRayTracer extends RayTracerBase {
     private Ray constructReflectedRay(Point pointGeo, Vector v, Vector n, double vn) {
 
         // 𝒓=𝒗 −𝟐∙(𝒗∙𝒏)∙𝒏
-        Vector r = v.subtract(n.scale(2 * vn));
+        Vector r = new MutableVec3().set(v).addScaled(n, -2 * vn).toVector();
         return new Ray(pointGeo, r, n);
     }
 
@@ -172,14 +319,14 @@ public class SimpleRayTracer extends RayTracerBase {
      *
      * @param intersection The point on the geometry in the scene.
      * @param ray The ray from the camera to the intersection.
+     * @param n The normal at the point.
      * @return The color of the point affected by local light sources.
      */
-    private Color calcLocalEffects(GeoPoint intersection, Ray ray, Double3 kx) {
+    private Color calcLocalEffects(GeoPoint intersection, Ray ray, Vector n, Double3 kx) {
         int nShininess = intersection.geometry.getMaterial().nShininess;
         Double3 kd = intersection.geometry.getMaterial().kD;
         Double3 ks = intersection.geometry.getMaterial().kS;
         Color color = Color.BLACK;
-        Vector n = intersection.geometry.getNormal(intersection.point);
         double nv = alignZero(n.dotProduct(ray.getDirection()));
 
         for (LightSource lightSource : scene.lights) {
@@ -228,8 +375,8 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private Color calcSpecular(Double3 ks, Vector l, Vector n, double nl, Vector v, int nShininess,
                                Color lightIntensity) {
-        Vector r = l.add(n.scale(-2 * nl)); // nl must not be zero!
-        double minusVR = -alignZero(r.dotProduct(v));
+        // r = l - 2(n*l)n, calculated in place - only its dot product with v is needed
+        double minusVR = -alignZero(new MutableVec3().set(l).addScaled(n, -2 * nl).dotProduct(v));
         if (minusVR <= 0) {
             return Color.BLACK; // View from direction opposite to r vector
         }
@@ -249,6 +396,171 @@ public class SimpleRayTracer extends RayTracerBase {
         return true;
     }
 
+    /**
+     * Ray budget of a pixel
+     */
+    private static final class PixelBudget {
+        /**
+         * amount of the rays left to the pixel
+         */
+        int rays;
+        /**
+         * amount of the primary rays of the pixel left to trace (0 - no pixel is traced)
+         */
+        int samples;
+    }
+
+    /**
+     * Work item of the iterative evaluation of the ray tree
+     */
+    private sealed interface Work permits Secondary, BeamRay {
+        /**
+         * @return the largest channel of the weight of the contribution of the item
+         */
+        double priority();
+    }
+
+    /**
+     * Reflected or refracted ray - as {@link #calcGlobalEffect}
+     *
+     * @param material material of the surface the ray leaves
+     * @param ray      the ray
+     * @param type     type of the ray
+     * @param level    level of the ray
+     * @param k        attenuation of the ray (kR or kT)
+     * @param kx       attenuation accumulated up to the surface
+     * @param weight   weight of the contribution of the ray to the color of the primary ray
+     */
+    private record Secondary(Material material, Ray ray, RayType type, int level, Double3 k, Double3 kx,
+                             Double3 weight) implements Work {
+        @Override
+        public double priority() {
+            return weight.product(k).max();
+        }
+    }
+
+    /**
+     * Ray of a beam - as a ray of {@link #calcAverageColor}
+     *
+     * @param ray    the ray
+     * @param level  level of the ray
+     * @param kx     attenuation accumulated up to the ray
+     * @param weight weight of the contribution of the ray to the color of the primary ray
+     */
+    private record BeamRay(Ray ray, int level, Double3 kx, Double3 weight) implements Work {
+        @Override
+        public double priority() {
+            return weight.max();
+        }
+    }
+
+    /**
+     * Evaluate the ray tree of a primary ray iteratively. Every item adds its color
+     * multiplied by its weight, and pushes the items of its rays - in the reverse
+     * order, so they are popped in the order of the recursion. With a ray budget
+     * the items are taken by their weights instead, the heaviest first
+     *
+     * @param ray the primary ray
+     * @return the color of the ray
+     */
+    private Color traceIteratively(Ray ray) {
+        PixelBudget pixel = rayBudget == Integer.MAX_VALUE ? null : pixelBudget.get();
+        int budget = pixel == null || pixel.samples == 0 ? rayBudget : Math.max(1, pixel.rays / pixel.samples);
+        GeoPoint gp = findClosestIntersection(ray);
+        if (gp == null) {
+            spend(pixel, 1);
+            return scene.background;
+        }
+        Queue<Work> stack = budget == Integer.MAX_VALUE ? Collections.asLifoQueue(new ArrayDeque<>())
+                : new PriorityQueue<>(Comparator.comparingDouble(Work::priority).reversed());
+        Color color = shade(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, INITIAL_K, stack);
+        int rays = 1;
+        while (!stack.isEmpty() && rays < budget) {
+            Work work = stack.poll();
+            if (work instanceof BeamRay beamRay) {
+                ++rays;
+                GeoPoint intersection = findClosestIntersection(beamRay.ray());
+                color = color.add(intersection == null ? scene.background.scale(beamRay.weight())
+                        : shade(intersection, beamRay.ray(), beamRay.level(), beamRay.kx(), beamRay.weight(), stack));
+                continue;
+            }
+
+            Secondary secondary = (Secondary) work;
+            Double3 kkx = secondary.k().product(secondary.kx());
+            if (kkx.lowerThan(MIN_CALC_COLOR_K)) continue;
+            double survival = survival(kkx);
+            if (survival == 0) continue;
+            Double3 rayWeight = survival == 1 ? secondary.weight() : secondary.weight().scale(1 / survival);
+            ++rays;
+            if (metrics != null) metrics.addRay(secondary.type());
+            GeoPoint intersection = findClosestIntersection(secondary.ray());
+            if (intersection == null) {
+                color = color.add(scene.background.scale(secondary.kx()).scale(rayWeight));
+                continue;
+            }
+            Material material = secondary.material();
+            List<Ray> beam = generateBeam(secondary.ray(), secondary.type(), material,
+                    intersection.geometry.getNormal(intersection.point));
+            if (metrics != null) metrics.addRays(RayType.BEAM, beam.size());
+            Double3 weight = rayWeight.product(secondary.k()).reduce(beam.size());
+            for (ListIterator<Ray> iterator = beam.listIterator(beam.size()); iterator.hasPrevious(); ) {
+                stack.add(new BeamRay(iterator.previous(), secondary.level() - 2, kkx, weight));
+            }
+        }
+        spend(pixel, rays);
+        return scene.ambientLight.getIntensity().add(color);
+    }
+
+    /**
+     * Take the rays of a primary ray from the budget of its pixel
+     *
+     * @param pixel the budget of the pixel (null - no budget)
+     * @param rays  amount of the rays traced for the primary ray
+     */
+    private static void spend(PixelBudget pixel, int rays) {
+        if (pixel == null || pixel.samples == 0) return;
+        pixel.rays = Math.max(0, pixel.rays - rays);
+        // the adaptive sampling may trace more primary rays than expected - they share the rest
+        if (pixel.samples > 1) --pixel.samples;
+    }
+
+    /**
+     * Shade an intersection in the iterative evaluation - as {@link #calcColor(GeoPoint, Ray, int, Double3)},
+     * but the reflected and refracted rays are pushed to the work stack
+     *
+     * @param gp     the intersection
+     * @param ray    the ray of the intersection
+     * @param level  level of the intersection
+     * @param k      attenuation accumulated up to the intersection
+     * @param weight weight of the contribution of the intersection to the color of the primary ray
+     * @param stack  the work stack (or the work queue by the weights)
+     * @return the local color of the intersection multiplied by the weight
+     */
+    private Color shade(GeoPoint gp, Ray ray, int level, Double3 k, Double3 weight, Queue<Work> stack) {
+        if (metrics != null) metrics.addIntersection((MAX_CALC_COLOR_LEVEL - level) / 3);
+        Vector v = ray.getDirection();
+        Vector n = gp.geometry.getNormal(gp.point);
+        double vn = v.dotProduct(n);
+        if (isZero(vn))
+            return Color.BLACK;
+
+        Color color = calcLocalEffects(gp, ray, n, k).add(gp.geometry.getEmission()).scale(weight);
+        if (level != 1) {
+            Material material = gp.geometry.getMaterial();
+            Double3 kkt = k.product(material.kT);
+            if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
+                stack.add(new Secondary(material, constructRefractedRay(gp.point, v, n), RayType.REFRACTED,
+                        level - 1, material.kT, kkt, weight));
+            }
+            Double3 kkr = k.product(material.kR);
+            if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
+                stack.add(new Secondary(material, constructReflectedRay(gp.point, v, n, vn), RayType.REFLECTED,
+                        level - 1, material.kR, kkr, weight));
+            }
+        }
+        return color;
+    }
+
     /**
      * get ray and return the closet intersection geoPoint
      *
@@ -256,7 +568,8 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+        return scene.geometries.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY,
+                metrics == null ? null : metrics.getTestsCounter());
     }
     /**
      * get list of ray
@@ -268,6 +581,7 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     Color calcAverageColor(List<Ray> rays, int level, Double3 kkx) {
         Color color = Color.BLACK;
+        if (metrics != null) metrics.addRays(RayType.BEAM, rays.size());
 
         for (Ray ray : rays) {
             GeoPoint intersection = findClosestIntersection(ray);
@@ -0,0 +1,39 @@
+package renderer;
+
+/**
+ * Tone mapping - conversion of a high dynamic range color channel (any
+ * non-negative value, 255 for the printed white) to the displayable range
+ * 0..255. It is applied once for every pixel, when the image is written
+ */
+@FunctionalInterface
+public interface ToneMapper {
+    /**
+     * No mapping - everything above 255 is cut to 255 (the default)
+     */
+    ToneMapper CLAMP = value -> value;
+
+    /**
+     * @param value a color channel of a pixel
+     * @return the channel in the range 0..255 (values out of the range are clamped)
+     */
+    double map(double value);
+
+    /**
+     * Extended Reinhard operator - compresses the bright channels smoothly
+     * instead of cutting them, so highlights keep their details
+     *
+     * @param white the smallest channel value that is mapped to 255
+     * @return the tone mapper
+     * @throws IllegalArgumentException if the white value is not positive
+     */
+    static ToneMapper reinhard(double white) {
+        if (white <= 0) {
+            throw new IllegalArgumentException("White value must be positive");
+        }
+        double whiteSquared = (white / 255) * (white / 255);
+        return value -> {
+            double x = value / 255;
+            return 255 * x * (1 + x / whiteSquared) / (1 + x);
+        };
+    }
+}
@@ -4,6 +4,7 @@ import geometries.Geometries;
 import lighting.AmbientLight;
 import lighting.LightSource;
 import primitives.Color;
+import primitives.Fingerprint;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -43,6 +44,28 @@ public class Scene {
         this.geometries = geometries;
         return this;
     }
-}
-
 
+    /**
+     * Fingerprint of everything in the scene that affects its image - the
+     * background, the ambient light, all the attributes of the lights and the
+     * geometries with their materials, emissions and placement. The objects are
+     * hashed one by one, nothing is copied. Scenes with the same fingerprint are
+     * rendered the same
+     *
+     * @return 64 bit hash of the scene
+     * @throws IllegalArgumentException if the scene has a geometry or a light that can't be fingerprinted
+     *                                  (only the geometries and the lights of this project can be)
+     */
+    public long fingerprint() {
+        Fingerprint fingerprint = new Fingerprint().add(background).add(ambientLight.getIntensity());
+        fingerprint.add(lights.size());
+        for (LightSource light : lights) {
+            if (light.getClass().getPackage() != LightSource.class.getPackage()) {
+                throw new IllegalArgumentException("Can't fingerprint " + light.getClass().getName());
+            }
+            light.fingerprint(fingerprint);
+        }
+        geometries.fingerprint(fingerprint);
+        return fingerprint.getHash();
+    }
+}
@@ -0,0 +1,257 @@
+package scene;
+
+import geometries.FlatHierarchy;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * Binary cache of a scene - the scene with its geometries, their bounding volume
+ * hierarchy and the hierarchies of the meshes, flattened into arrays
+ * ({@link FlatHierarchy}). The file is memory mapped, and the arrays are copied
+ * from it in bulk, so a scene (and its hierarchy) is restored without parsing
+ * or building it again. The file has the layout:
+ * <ul>
+ * <li>header - magic number, format version, size of the name and amount of the lights</li>
+ * <li>the name (UTF-8)</li>
+ * <li>the background and the intensity of the ambient light (3 doubles each)</li>
+ * <li>for every light - its type, intensity, position, direction, attenuation factors and
+ * narrow beam (14 doubles)</li>
+ * <li>the flattened geometries</li>
+ * </ul>
+ * A file of another format version is not read - {@link #load(Path, Supplier)}
+ * builds the scene again and replaces it, while a broken file of this version
+ * is rejected
+ */
+public final class SceneCache {
+    /**
+     * magic number of the file ("RSCN")
+     */
+    private static final int MAGIC = 0x5253434E;
+    /**
+     * version of the file format
+     */
+    private static final int VERSION = 2;
+    /**
+     * size of the header in bytes
+     */
+    private static final int HEADER_SIZE = 16;
+    /**
+     * amount of the doubles of a light
+     */
+    private static final int LIGHT_SIZE = 14;
+    /** type of a directional light */
+    private static final int DIRECTIONAL = 0;
+    /** type of a point light */
+    private static final int POINT = 1;
+    /** type of a spot light */
+    private static final int SPOT = 2;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SceneCache() {
+    }
+
+    /**
+     * Load a scene from its cache file, or build it and cache it if the file is
+     * missing, is not a scene cache or is of another format version
+     *
+     * @param file    the cache file
+     * @param builder builder of the scene (with its hierarchy, if it has one)
+     * @return the scene
+     * @throws IllegalArgumentException if the file is a broken scene cache of this format version
+     * @throws IllegalStateException    if the file can't be read or written
+     */
+    public static Scene load(Path file, Supplier<Scene> builder) {
+        if (isCurrent(file)) {
+            return read(file);
+        }
+        Scene scene = builder.get();
+        write(scene, file);
+        return scene;
+    }
+
+    /**
+     * Check the header of a cache file
+     *
+     * @param file the cache file
+     * @return true if the file exists and starts with the magic number and the format version
+     * @throws IllegalStateException if the file can't be read
+     */
+    private static boolean isCurrent(Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read up to the end of the header or of the file
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't read scene cache " + file, e);
+        }
+    }
+
+    /**
+     * Write a scene to a cache file
+     *
+     * @param scene the scene
+     * @param file  the cache file (replaced if it exists)
+     * @throws IllegalArgumentException if the scene has a geometry or a light that can't be cached
+     * @throws IllegalStateException    if the file can't be written
+     */
+    public static void write(Scene scene, Path file) {
+        byte[] name = scene.name == null ? new byte[0] : scene.name.getBytes(StandardCharsets.UTF_8);
+        FlatHierarchy geometries = FlatHierarchy.flatten(scene.geometries);
+        long size = HEADER_SIZE + name.length + 8L * (6 + LIGHT_SIZE * scene.lights.size()) + geometries.byteSize();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Scene is too big for a cache file");
+        }
+        double[] lights = new double[LIGHT_SIZE * scene.lights.size()];
+        int offset = 0;
+        for (LightSource light : scene.lights) {
+            flattenLight(light, lights, offset);
+            offset += LIGHT_SIZE;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(name.length).putInt(scene.lights.size()).put(name);
+            Color ambient = scene.ambientLight.getIntensity();
+            buffer.putDouble(scene.background.getRed()).putDouble(scene.background.getGreen())
+                    .putDouble(scene.background.getBlue()).putDouble(ambient.getRed())
+                    .putDouble(ambient.getGreen()).putDouble(ambient.getBlue());
+            buffer.asDoubleBuffer().put(lights);
+            buffer.position(buffer.position() + 8 * lights.length);
+            geometries.write(buffer);
+            buffer.force();
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't write scene cache " + file, e);
+        }
+    }
+
+    /**
+     * Read a scene from a cache file
+     *
+     * @param file the cache file
+     * @return the scene
+     * @throws IllegalArgumentException if the file is not a scene cache of this format version
+     * @throws IllegalStateException    if the file can't be read
+     */
+    public static Scene read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a scene cache: " + file);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalArgumentException("Not a scene cache of version " + VERSION + ": " + file);
+            }
+            int nameLength = buffer.getInt(), lightsCount = buffer.getInt();
+            if (nameLength < 0 || lightsCount < 0
+                    || nameLength + 8L * (6 + LIGHT_SIZE * (long) lightsCount) > buffer.remaining()) {
+                throw new IllegalArgumentException("Broken scene cache: " + file);
+            }
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            Scene scene = new Scene(new String(name, StandardCharsets.UTF_8))
+                    .setBackground(new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble()))
+                    .setAmbientLight(new AmbientLight(
+                            new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble()), 1));
+            double[] lights = new double[LIGHT_SIZE * lightsCount];
+            buffer.asDoubleBuffer().get(lights);
+            buffer.position(buffer.position() + 8 * lights.length);
+            for (int offset = 0; offset < lights.length; offset += LIGHT_SIZE) {
+                scene.lights.add(restoreLight(lights, offset));
+            }
+            return scene.setGeometries(FlatHierarchy.read(buffer).restore());
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't read scene cache " + file, e);
+        }
+    }
+
+    /**
+     * Flatten a light into its doubles
+     *
+     * @param light  the light
+     * @param lights the doubles of the lights
+     * @param offset offset of the light in the doubles
+     * @throws IllegalArgumentException if the light is of an unknown type
+     */
+    private static void flattenLight(LightSource light, double[] lights, int offset) {
+        Color intensity;
+        Point position = Point.ZERO;
+        Vector direction = null;
+        double kC = 1, kL = 0, kQ = 0, narrowBeam = 1;
+        int type;
+        if (light.getClass() == DirectionalLight.class) {
+            type = DIRECTIONAL;
+            intensity = ((DirectionalLight) light).getIntensity();
+            direction = light.getL(Point.ZERO);
+        } else if (light.getClass() == PointLight.class || light.getClass() == SpotLight.class) {
+            PointLight pointLight = (PointLight) light;
+            intensity = pointLight.getIntensity();
+            position = pointLight.getPosition();
+            kC = pointLight.getkC();
+            kL = pointLight.getkL();
+            kQ = pointLight.getkQ();
+            type = POINT;
+            if (light instanceof SpotLight spotLight) {
+                type = SPOT;
+                direction = spotLight.getDirection();
+                narrowBeam = spotLight.getNarrowBeam();
+            }
+        } else {
+            throw new IllegalArgumentException("Can't cache " + light.getClass().getName());
+        }
+        double[] values = {type, intensity.getRed(), intensity.getGreen(), intensity.getBlue(),
+                position.getX(), position.getY(), position.getZ(),
+                direction == null ? 0 : direction.getX(), direction == null ? 0 : direction.getY(),
+                direction == null ? 0 : direction.getZ(), kC, kL, kQ, narrowBeam};
+        System.arraycopy(values, 0, lights, offset, LIGHT_SIZE);
+    }
+
+    /**
+     * Restore a light from its doubles
+     *
+     * @param lights the doubles of the lights
+     * @param offset offset of the light in the doubles
+     * @return the light
+     * @throws IllegalArgumentException if the type of the light is unknown
+     */
+    private static LightSource restoreLight(double[] lights, int offset) {
+        Color intensity = new Color(lights[offset + 1], lights[offset + 2], lights[offset + 3]);
+        Point position = new Point(lights[offset + 4], lights[offset + 5], lights[offset + 6]);
+        int type = (int) lights[offset];
+        if (type == DIRECTIONAL) {
+            return new DirectionalLight(intensity, new Vector(lights[offset + 7], lights[offset + 8], lights[offset + 9]));
+        }
+        PointLight light = switch (type) {
+            case POINT -> new PointLight(intensity, position);
+            case SPOT -> new SpotLight(intensity, position,
+                    new Vector(lights[offset + 7], lights[offset + 8], lights[offset + 9]))
+                    .setNarrowBeam(lights[offset + 13]);
+            default -> throw new IllegalArgumentException("Broken scene cache - unknown light type " + type);
+        };
+        return light.setkC(lights[offset + 10]).setkL(lights[offset + 11]).setkQ(lights[offset + 12]);
+    }
+}
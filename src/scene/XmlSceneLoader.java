@@ -0,0 +1,373 @@
+package scene;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Loader of scenes from XML files. The file is read as a stream of elements
+ * (StAX), without building a document tree, so the time and the memory of the
+ * loading are proportional to the content of the scene. The format:
+ * <pre>{@code
+ * <scene name="..." background-color="75 127 90">
+ *     <ambient-light color="255 191 191" ka="1"/>
+ *     <materials>
+ *         <material id="glass" kd="0.2" ks="0.5" shininess="30" kt="0.6" kr="0 0 0.3"/>
+ *     </materials>
+ *     <lights>
+ *         <directional-light color="..." direction="..."/>
+ *         <point-light color="..." position="..." kc="1" kl="0" kq="0"/>
+ *         <spot-light color="..." position="..." direction="..." kc="1" kl="0" kq="0" narrow-beam="1"/>
+ *     </lights>
+ *     <geometries>
+ *         <sphere center="0 0 -100" radius="50" emission="..." material="glass"/>
+ *         <triangle p0="..." p1="..." p2="..."/>
+ *         <polygon vertices="x y z, x y z, x y z, ..."/>
+ *         <plane point="..." normal="..."/>
+ *         <tube radius="..." axis-head="..." axis-direction="..."/>
+ *         <cylinder radius="..." axis-head="..." axis-direction="..." height="..."/>
+ *     </geometries>
+ * </scene>
+ * }</pre>
+ * Colors, points and vectors are 3 numbers separated by spaces, the attenuation
+ * factors of the materials (kd, ks, kt, kr) are a single number or 3 numbers.
+ * The materials of the table are referred by their id. A geometry may have its
+ * own material as a nested element instead - materials with the same factors
+ * (in the table or nested) are a single {@link Material} object, shared by all
+ * their geometries.
+ */
+public final class XmlSceneLoader {
+    /**
+     * factory of the stream readers - without DTDs and external entities
+     */
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * the reader of the XML stream
+     */
+    private final XMLStreamReader reader;
+    /**
+     * the loaded scene
+     */
+    private Scene scene = null;
+    /**
+     * materials of the table by their id
+     */
+    private final Map<String, Material> materialsTable = new HashMap<>();
+    /**
+     * all the materials by their factors - for sharing the materials with the same factors
+     */
+    private final Map<String, Material> materials = new HashMap<>();
+    /**
+     * the geometry whose element is read (null - outside of a geometry element)
+     */
+    private Geometry geometry = null;
+
+    /**
+     * Constructor of a loader of a stream
+     *
+     * @param reader the reader of the XML stream
+     */
+    private XmlSceneLoader(XMLStreamReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Load a scene from an XML file
+     *
+     * @param file the XML file (its name without the extension is the default name of the scene)
+     * @return the scene
+     * @throws IllegalArgumentException if the file is not a valid scene
+     * @throws IllegalStateException    if the file can't be read
+     */
+    public static Scene load(Path file) {
+        String fileName = file.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return load(in, dot > 0 ? fileName.substring(0, dot) : fileName);
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't read scene file " + file, e);
+        }
+    }
+
+    /**
+     * Load a scene from an XML stream
+     *
+     * @param in          the XML stream (it is not closed)
+     * @param defaultName name of the scene if it has no name attribute
+     * @return the scene
+     * @throws IllegalArgumentException if the stream is not a valid scene
+     */
+    public static Scene load(InputStream in, String defaultName) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(in);
+            return new XmlSceneLoader(reader).read(defaultName);
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Bad scene XML - " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // the stream itself is closed by its owner
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the elements of the stream into the scene
+     *
+     * @param defaultName name of the scene if it has no name attribute
+     * @return the scene
+     * @throws XMLStreamException       if the stream is not well-formed XML
+     * @throws IllegalArgumentException if the stream is not a valid scene
+     */
+    private Scene read(String defaultName) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                try {
+                    startElement(reader.getLocalName(), defaultName);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Bad scene XML at line "
+                            + reader.getLocation().getLineNumber() + " - " + e.getMessage(), e);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                geometry = null; // geometry elements have no nested geometries
+            }
+        }
+        if (scene == null) {
+            throw new IllegalArgumentException("Bad scene XML - missing scene element");
+        }
+        return scene;
+    }
+
+    /**
+     * Handle the start of an element
+     *
+     * @param element     name of the element
+     * @param defaultName name of the scene if it has no name attribute
+     */
+    private void startElement(String element, String defaultName) {
+        if (scene == null && !element.equals("scene")) {
+            throw new IllegalArgumentException("the root element must be scene");
+        }
+        switch (element) {
+            case "scene" -> {
+                if (scene != null) throw new IllegalArgumentException("nested scene element");
+                String name = attribute("name");
+                scene = new Scene(name == null ? defaultName : name);
+                String background = attribute("background-color");
+                if (background != null) scene.setBackground(toColor(background));
+            }
+            case "ambient-light" -> {
+                String ka = attribute("ka");
+                scene.setAmbientLight(new AmbientLight(toColor(requiredAttribute("color")),
+                        ka == null ? Double3.ONE : toDouble3(ka)));
+            }
+            case "materials", "lights", "geometries" -> {
+                // sections of the scene
+            }
+            case "material" -> {
+                String id = attribute("id");
+                if (id != null) {
+                    if (materialsTable.putIfAbsent(id, readMaterial()) != null) {
+                        throw new IllegalArgumentException("duplicate material " + id);
+                    }
+                } else if (geometry != null) {
+                    geometry.setMaterial(readMaterial());
+                } else {
+                    throw new IllegalArgumentException("material must have an id or be nested in a geometry");
+                }
+            }
+            case "directional-light" -> scene.lights.add(new DirectionalLight(toColor(requiredAttribute("color")),
+                    toVector(requiredAttribute("direction"))));
+            case "point-light" -> scene.lights.add(readAttenuation(new PointLight(
+                    toColor(requiredAttribute("color")), toPoint(requiredAttribute("position")))));
+            case "spot-light" -> {
+                SpotLight light = new SpotLight(toColor(requiredAttribute("color")),
+                        toPoint(requiredAttribute("position")), toVector(requiredAttribute("direction")));
+                readAttenuation(light);
+                String narrowBeam = attribute("narrow-beam");
+                if (narrowBeam != null) light.setNarrowBeam(Double.parseDouble(narrowBeam));
+                scene.lights.add(light);
+            }
+            case "sphere" -> addGeometry(new Sphere(toPoint(requiredAttribute("center")),
+                    Double.parseDouble(requiredAttribute("radius"))));
+            case "triangle" -> addGeometry(new Triangle(toPoint(requiredAttribute("p0")),
+                    toPoint(requiredAttribute("p1")), toPoint(requiredAttribute("p2"))));
+            case "polygon" -> {
+                String[] vertices = requiredAttribute("vertices").split(",");
+                Point[] points = new Point[vertices.length];
+                for (int i = 0; i < vertices.length; ++i) points[i] = toPoint(vertices[i]);
+                addGeometry(new Polygon(points));
+            }
+            case "plane" -> addGeometry(new Plane(toPoint(requiredAttribute("point")),
+                    toVector(requiredAttribute("normal"))));
+            case "tube" -> addGeometry(new Tube(Double.parseDouble(requiredAttribute("radius")), readAxis()));
+            case "cylinder" -> addGeometry(new Cylinder(Double.parseDouble(requiredAttribute("radius")),
+                    readAxis(), Double.parseDouble(requiredAttribute("height"))));
+            default -> throw new IllegalArgumentException("unknown element " + element);
+        }
+    }
+
+    /**
+     * Add a geometry to the scene, with its emission and its material from the table
+     *
+     * @param geometry the geometry
+     */
+    private void addGeometry(Geometry geometry) {
+        String emission = attribute("emission");
+        if (emission != null) geometry.setEmission(toColor(emission));
+        String id = attribute("material");
+        if (id != null) {
+            Material material = materialsTable.get(id);
+            if (material == null) throw new IllegalArgumentException("unknown material " + id);
+            geometry.setMaterial(material);
+        }
+        scene.geometries.add(geometry);
+        this.geometry = geometry;
+    }
+
+    /**
+     * Read the material of the element - the material with the same factors is shared
+     *
+     * @return the material
+     */
+    private Material readMaterial() {
+        Material material = new Material();
+        String value;
+        if ((value = attribute("kd")) != null) material.setkD(toDouble3(value));
+        if ((value = attribute("ks")) != null) material.setkS(toDouble3(value));
+        if ((value = attribute("kt")) != null) material.setkT(toDouble3(value));
+        if ((value = attribute("kr")) != null) material.setkR(toDouble3(value));
+        if ((value = attribute("shininess")) != null) material.setnShininess(Integer.parseInt(value));
+        if ((value = attribute("kg")) != null) material.setKg(Double.parseDouble(value));
+        if ((value = attribute("kb")) != null) material.setKb(Double.parseDouble(value));
+        if ((value = attribute("blur-rays")) != null) material.setNumOfRays(Integer.parseInt(value));
+        if ((value = attribute("blur-distance")) != null) material.setBlurGlassDistance(Double.parseDouble(value));
+        if ((value = attribute("blur-radius")) != null) material.setBlurGlassRadius(Double.parseDouble(value));
+        String key = String.join("|", material.kD.toString(), material.kS.toString(), material.kT.toString(),
+                material.kR.toString(), Integer.toString(material.nShininess), Double.toString(material.kG),
+                Double.toString(material.kB), Integer.toString(material.numOfRays),
+                Double.toString(material.blurGlassDistance), Double.toString(material.blurGlassRadius));
+        Material shared = materials.putIfAbsent(key, material);
+        return shared == null ? material : shared;
+    }
+
+    /**
+     * Read the attenuation factors of a point light (or a spot light)
+     *
+     * @param light the light
+     * @return the light itself
+     */
+    private PointLight readAttenuation(PointLight light) {
+        String value;
+        if ((value = attribute("kc")) != null) light.setkC(Double.parseDouble(value));
+        if ((value = attribute("kl")) != null) light.setkL(Double.parseDouble(value));
+        if ((value = attribute("kq")) != null) light.setkQ(Double.parseDouble(value));
+        return light;
+    }
+
+    /**
+     * @return the axis of a tube (or a cylinder)
+     */
+    private Ray readAxis() {
+        return new Ray(toPoint(requiredAttribute("axis-head")), toVector(requiredAttribute("axis-direction")));
+    }
+
+    /**
+     * @param name name of an attribute
+     * @return the value of the attribute of the current element (null if it is missing)
+     */
+    private String attribute(String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * @param name name of an attribute
+     * @return the value of the attribute of the current element
+     * @throws IllegalArgumentException if the attribute is missing
+     */
+    private String requiredAttribute(String name) {
+        String value = attribute(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing attribute " + name + " of " + reader.getLocalName());
+        }
+        return value;
+    }
+
+    /**
+     * @param value 3 numbers separated by spaces
+     * @return the numbers
+     * @throws IllegalArgumentException if the value isn't 3 numbers
+     */
+    private static double[] toTriple(String value) {
+        String[] numbers = value.trim().split("\\s+");
+        if (numbers.length != 3) {
+            throw new IllegalArgumentException("3 numbers expected - " + value);
+        }
+        return new double[]{Double.parseDouble(numbers[0]), Double.parseDouble(numbers[1]),
+                Double.parseDouble(numbers[2])};
+    }
+
+    /**
+     * @param value a single number or 3 numbers separated by spaces
+     * @return the numbers as a triad
+     */
+    private static Double3 toDouble3(String value) {
+        String trimmed = value.trim();
+        if (!trimmed.contains(" ")) return new Double3(Double.parseDouble(trimmed));
+        double[] triple = toTriple(trimmed);
+        return new Double3(triple[0], triple[1], triple[2]);
+    }
+
+    /**
+     * @param value red, green and blue separated by spaces
+     * @return the color
+     */
+    private static Color toColor(String value) {
+        double[] triple = toTriple(value);
+        return new Color(triple[0], triple[1], triple[2]);
+    }
+
+    /**
+     * @param value coordinates separated by spaces
+     * @return the point
+     */
+    private static Point toPoint(String value) {
+        double[] triple = toTriple(value);
+        return new Point(triple[0], triple[1], triple[2]);
+    }
+
+    /**
+     * @param value coordinates separated by spaces
+     * @return the vector
+     */
+    private static Vector toVector(String value) {
+        double[] triple = toTriple(value);
+        return new Vector(triple[0], triple[1], triple[2]);
+    }
+}
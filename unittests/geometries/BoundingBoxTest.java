@@ -0,0 +1,83 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.BoundingBox class
+ */
+class BoundingBoxTest {
+    private final BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray)}.
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0))), "Ray crosses the box");
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0.5), new Vector(1, 0, 0))), "Ray misses the box");
+        // TC03: Box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(2, 0.5, 0.5), new Vector(1, 0, 0))), "Box is behind the ray");
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(1, 1, 1))), "Ray starts inside the box");
+        // TC05: Box is farther than the maximal distance
+        assertFalse(box.intersects(new Ray(new Point(-2, 0.5, 0.5), new Vector(1, 0, 0)), 1),
+                "Box is farther than the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray crosses a flat box
+        BoundingBox flat = new BoundingBox(0, 0, -1, 1, 1, -1);
+        assertTrue(flat.intersects(new Ray(new Point(0.3, 0.3, 0), new Vector(0.1, 0.2, -1))), "Ray crosses a flat box");
+        // TC11: Ray parallel to the faces of the box, outside of it
+        assertFalse(flat.intersects(new Ray(new Point(0.3, 0.3, 0), new Vector(1, 0, 0))),
+                "Ray parallel to a flat box misses it");
+        // TC12: Infinite box
+        assertTrue(BoundingBox.INFINITE.intersects(new Ray(new Point(5, 5, 5), new Vector(0, 1, 0))),
+                "Every ray crosses the infinite box");
+        // TC13: Empty box
+        assertFalse(BoundingBox.EMPTY.intersects(new Ray(new Point(5, 5, 5), new Vector(0, 1, 0))),
+                "No ray crosses the empty box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Box of a sphere
+        BoundingBox sphereBox = new Sphere(new Point(1, 2, 3), 2).getBoundingBox();
+        assertEquals(-1, sphereBox.minX, 1e-10, "Wrong box of a sphere");
+        assertEquals(5, sphereBox.maxZ, 1e-10, "Wrong box of a sphere");
+        // TC02: Box of a cylinder along the z axis
+        BoundingBox cylinderBox = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 3).getBoundingBox();
+        assertEquals(-1, cylinderBox.minX, 1e-10, "Wrong box of a cylinder");
+        assertEquals(1, cylinderBox.maxY, 1e-10, "Wrong box of a cylinder");
+        assertEquals(0, cylinderBox.minZ, 1e-10, "Wrong box of a cylinder");
+        assertEquals(3, cylinderBox.maxZ, 1e-10, "Wrong box of a cylinder");
+        // TC03: Box of a collection is the union of the boxes of its children
+        BoundingBox union = new Geometries(new Sphere(new Point(1, 2, 3), 2),
+                new Triangle(new Point(0, 0, 10), new Point(1, 0, 10), new Point(0, 1, 10))).getBoundingBox();
+        assertEquals(-1, union.minX, 1e-10, "Wrong box of a collection");
+        assertEquals(10, union.maxZ, 1e-10, "Wrong box of a collection");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Plane and tube are unbounded
+        assertTrue(new Plane(new Point(0, 0, 1), new Vector(0, 0, 1)).getBoundingBox().isInfinite(),
+                "Box of a plane must be infinite");
+        assertTrue(new Tube(1, new Ray(Point.ZERO, new Vector(0, 0, 1))).getBoundingBox().isInfinite(),
+                "Box of a tube must be infinite");
+        // TC11: A collection with an unbounded child is unbounded
+        assertTrue(new Geometries(new Sphere(Point.ZERO, 1), new Plane(new Point(0, 0, 1), new Vector(0, 0, 1)))
+                .getBoundingBox().isInfinite(), "Box of a collection with a plane must be infinite");
+        // TC12: Box of an empty collection
+        assertTrue(new Geometries().getBoundingBox().isEmpty(), "Box of an empty collection must be empty");
+    }
+}
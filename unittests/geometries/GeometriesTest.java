@@ -1,8 +1,11 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Transform;
 import primitives.Vector;
 
 
@@ -46,4 +49,158 @@ class GeometriesTest {
                 "Suppose to be 4 intersection points");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void testBuildBVH() {
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        addGrid(linear, bvh);
+        bvh.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The hierarchy finds exactly the same intersections as the linear scan
+        for (double x = -2; x < 32; x += 0.7) {
+            for (double y = -2; y < 32; y += 0.7) {
+                Ray ray = new Ray(new Point(x, y, 0), new Vector(0.01, 0.02, -1));
+                var expected = linear.findGeoIntersections(ray);
+                var result = bvh.findGeoIntersections(ray);
+                assertEquals(expected.size(), result.size(), "Wrong number of intersections with the hierarchy");
+                assertTrue(result.containsAll(expected), "Wrong intersections with the hierarchy");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray that misses all the boxes
+        assertNull(bvh.findGeoIntersections(new Ray(new Point(-5, -5, 0), new Vector(0, 0, 1))),
+                "Ray behind all the geometries must not intersect");
+        // TC11: Hierarchy of an empty collection
+        assertNull(new Geometries().buildBVH().findGeoIntersections(new Ray(new Point(1, 1, 1), new Vector(0, -1, 0))),
+                "The List empty");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)}.
+     */
+    @Test
+    void testAdd() {
+        Ray far = new Ray(new Point(100, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Geometry added to a nested collection after the box of the parent was calculated
+        Geometries inner = new Geometries(new Sphere(new Point(0, 0, -10), 1));
+        Geometries outer = new Geometries(inner, new Sphere(new Point(5, 0, -10), 1));
+        assertNull(outer.findClosestGeoIntersection(far), "Nothing must be hit yet");
+        inner.add(new Sphere(new Point(100, 0, -10), 1));
+        assertEquals(new Point(100, 0, -9), outer.findClosestGeoIntersection(far).point,
+                "Geometry added to a nested collection must be found");
+        assertEquals(101, outer.getBoundingBox().maxX, 1e-9, "Box of the parent must grow");
+        // TC02: Geometry added to a nested collection after the hierarchy was built
+        Geometries nested = new Geometries(new Sphere(new Point(0, 0, -10), 1));
+        Geometries scene = new Geometries(nested, new Sphere(new Point(5, 0, -10), 1),
+                new Sphere(new Point(-5, 0, -10), 1)).buildBVH();
+        assertNull(scene.findClosestGeoIntersection(far), "Nothing must be hit yet");
+        nested.add(new Sphere(new Point(100, 0, -10), 1));
+        assertEquals(new Point(100, 0, -9), scene.findClosestGeoIntersection(far).point,
+                "Geometry added after the hierarchy was built must be found");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Geometry added to a collection shared by an instance
+        Geometries shared = new Geometries(new Sphere(new Point(0, 0, -10), 1));
+        Instance instance = new Instance(shared, Transform.translation(new Vector(0, 50, 0)));
+        Geometries world = new Geometries(instance);
+        assertNull(world.findClosestGeoIntersection(new Ray(new Point(100, 50, 0), new Vector(0, 0, -1))),
+                "Nothing must be hit yet");
+        shared.add(new Sphere(new Point(100, 0, -10), 1));
+        assertEquals(new Point(100, 50, -9),
+                world.findClosestGeoIntersection(new Ray(new Point(100, 50, 0), new Vector(0, 0, -1))).point,
+                "Geometry added to a shared collection must be found by its instances");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries linear = new Geometries();
+        Geometries bvh = new Geometries();
+        addGrid(linear, bvh);
+        bvh.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the closest of all the intersections
+        for (double x = -2; x < 32; x += 0.7) {
+            for (double y = -2; y < 32; y += 0.7) {
+                Ray ray = new Ray(new Point(x, y, 0), new Vector(0.01, 0.02, -1));
+                var expected = ray.findClosestGeoPoint(linear.findGeoIntersections(ray));
+                assertEquals(expected, linear.findClosestGeoIntersection(ray), "Wrong closest intersection");
+                assertEquals(expected, bvh.findClosestGeoIntersection(ray), "Wrong closest intersection with the hierarchy");
+            }
+        }
+        // TC02: Intersections farther than the maximal distance are ignored
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+        assertEquals(new Point(0, 0, -9), bvh.findClosestGeoIntersection(ray, 15).point, "Wrong closest intersection");
+        assertNull(bvh.findClosestGeoIntersection(ray, 5), "The intersection is farther than the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray starts inside a sphere
+        Ray inside = new Ray(new Point(0, 0, -10), new Vector(0, 0, 1));
+        assertEquals(new Point(0, 0, -9), bvh.findClosestGeoIntersection(inside).point, "Wrong closest intersection");
+        // TC11: Empty collection
+        assertNull(new Geometries().findClosestGeoIntersection(ray), "The List empty");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, -10), 1).setMaterial(new Material().setkT(0.5)),
+                new Triangle(new Point(-1, -1, -20), new Point(2, -1, -20), new Point(-1, 2, -20))
+                        .setMaterial(new Material().setkT(0.5)),
+                new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)));
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Light passes twice through the sphere surface and once through the triangle
+        assertEquals(new Double3(0.125), geometries.findTransparency(ray, 25, 0.001),
+                "Wrong transparency through two transparent objects");
+        // TC02: Objects behind the light don't block it
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 15, 0.001),
+                "Objects behind the light must not block it");
+        // TC03: Opaque object blocks the light
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 35, 0.001), "Opaque plane must block the light");
+        // TC04: The light is blocked when the product drops below the minimal factor
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 25, 0.2),
+                "Light must be blocked below the minimal factor");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: No objects on the way to the light
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 5, 0.001), "Nothing blocks the light");
+    }
+
+    /**
+     * Fill collections with the same grid of spheres and triangles above a plane
+     *
+     * @param collections the collections to fill
+     */
+    private static void addGrid(Geometries... collections) {
+        Plane plane = new Plane(new Point(0, 0, -30), new Vector(0, 0, 1));
+        for (Geometries geometries : collections) {
+            geometries.add(plane);
+        }
+        for (int i = 0; i < 10; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                Sphere sphere = new Sphere(new Point(i * 3, j * 3, -10), 1);
+                Triangle triangle = new Triangle(new Point(i * 3, j * 3, -20), new Point(i * 3 + 2, j * 3, -20),
+                        new Point(i * 3, j * 3 + 2, -20));
+                for (Geometries geometries : collections) {
+                    geometries.add(sphere, triangle);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.Instance class
+ */
+class InstanceTest {
+    /**
+     * material of the glass of the shared collection
+     */
+    private static final Material GLASS = new Material().setkT(0.5);
+    /**
+     * placement of the instance - uniform scaling, rotation and translation
+     */
+    private static final Transform TRANSFORM = Transform.scaling(2).then(Transform.rotation(new Vector(0, 0, 1), 90))
+            .then(Transform.translation(new Vector(10, 0, 0)));
+
+    /**
+     * @return shared collection - a sphere and a triangle in front of it
+     */
+    private static Geometries shared() {
+        return new Geometries(new Sphere(new Point(0, 0, -10), 2).setEmission(new Color(0, 0, 100)),
+                new Triangle(new Point(-3, -3, -5), new Point(3, -3, -5), new Point(0, 3, -5)).setMaterial(GLASS))
+                .buildBVH();
+    }
+
+    /**
+     * @return the shared collection placed by {@link #TRANSFORM}, built of its own geometries
+     */
+    private static Geometries placed() {
+        return new Geometries(new Sphere(new Point(10, 0, -20), 4),
+                new Triangle(new Point(16, -6, -10), new Point(16, 6, -10), new Point(4, 0, -10)));
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Instance instance = new Instance(shared(), TRANSFORM);
+        Geometries expected = placed();
+        Comparator<GeoPoint> byZ = Comparator.comparingDouble(gp -> -gp.point.getZ());
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through the triangle and the sphere
+        Ray ray = new Ray(new Point(10.5, 0.5, 0), new Vector(0, 0, -1));
+        List<GeoPoint> result = instance.findGeoIntersections(ray).stream().sorted(byZ).toList();
+        List<GeoPoint> points = expected.findGeoIntersections(ray).stream().sorted(byZ).toList();
+        assertEquals(3, result.size(), "Wrong amount of intersections");
+        for (int i = 0; i < 3; ++i)
+            assertEquals(points.get(i).point, result.get(i).point, "Wrong intersection");
+        // TC02: Ray that misses the instance
+        assertNull(instance.findGeoIntersections(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1))),
+                "Ray must miss the instance");
+        // TC03: Geometry of an intersection is intersected and bounded in the scene
+        GeoPoint sphere = result.get(1);
+        assertEquals(2, sphere.geometry.findGeoIntersections(ray).size(), "Wrong intersections of the hit geometry");
+        assertEquals(sphere.point, sphere.geometry.findClosestGeoIntersection(ray).point,
+                "Wrong intersection of the hit geometry");
+        assertEquals(-24, sphere.geometry.getBoundingBox().minZ, 1e-9, "Wrong box of the hit geometry");
+        assertEquals(14, sphere.geometry.getBoundingBox().maxX, 1e-9, "Wrong box of the hit geometry");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries shared = shared();
+        Instance instance = new Instance(shared, TRANSFORM);
+        Geometries expected = placed();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The instance is hit where its geometries placed by the transform are hit
+        for (double x = 3; x < 17; x += 0.7)
+            for (double y = -7; y < 7; y += 0.9) {
+                Ray ray = new Ray(new Point(x, y, 5), new Vector(0.1, -0.05, -1));
+                GeoPoint hit = instance.findClosestGeoIntersection(ray);
+                GeoPoint expectedHit = expected.findClosestGeoIntersection(ray);
+                if (expectedHit == null) {
+                    assertNull(hit, "Instance must not be hit");
+                    continue;
+                }
+                assertNotNull(hit, "Instance must be hit");
+                assertEquals(expectedHit.point, hit.point, "Wrong closest intersection");
+                // TC02: Normal is transformed into the scene
+                assertEquals(expectedHit.geometry.getNormal(expectedHit.point), hit.geometry.getNormal(hit.point),
+                        "Wrong normal of the instance");
+            }
+        // TC03: Material and emission are of the shared geometries
+        GeoPoint sphere = instance.findClosestGeoIntersection(new Ray(new Point(9, 1, -12), new Vector(0, 0, -1)));
+        assertEquals(new Color(0, 0, 100).toString(), sphere.geometry.getEmission().toString(), "Wrong emission");
+        GeoPoint glass = instance.findClosestGeoIntersection(new Ray(new Point(10, 0, 0), new Vector(0, 0, -1)));
+        assertSame(GLASS, glass.geometry.getMaterial(), "Material of the shared geometry must be used");
+        Material other = new Material().setkT(0.25);
+        glass.geometry.setMaterial(other);
+        assertSame(other, instance.getGeometries().findClosestGeoIntersection(
+                new Ray(new Point(0.5, 0.5, 0), new Vector(0, 0, -1))).geometry.getMaterial(),
+                "Material set through an instance must be set to the shared geometry");
+        // TC04: Instances of one collection at different places
+        Geometries scene = new Geometries(instance,
+                new Instance(shared, TRANSFORM.then(Transform.translation(new Vector(0, 100, 0))))).buildBVH();
+        assertEquals(new Point(10, 100, -10),
+                scene.findClosestGeoIntersection(new Ray(new Point(10, 100, 0), new Vector(0, 0, -1))).point,
+                "Wrong intersection of the second instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Intersection farther than the maximal distance
+        assertNull(instance.findClosestGeoIntersection(new Ray(new Point(10, 0, 0), new Vector(0, 0, -1)), 9),
+                "Intersection beyond the maximal distance must be skipped");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Instance instance = new Instance(shared(), TRANSFORM);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Light passes the glass triangle only
+        Ray ray = new Ray(new Point(10, 0, 0), new Vector(0, 0, -1));
+        assertEquals(new Double3(0.5), instance.findTransparency(ray, 15, 0.001), "Wrong transparency of the glass");
+        // TC02: The opaque sphere blocks the light
+        assertEquals(Double3.ZERO, instance.findTransparency(ray, 100, 0.001), "Sphere must block the light");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The light is before the instance (the distance is scaled by the transform)
+        assertEquals(Double3.ONE, instance.findTransparency(ray, 9, 0.001), "Nothing must block the light");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#setTransform(Transform)}.
+     */
+    @Test
+    void testSetTransform() {
+        Instance instance = new Instance(shared(), TRANSFORM);
+        Geometries scene = new Geometries(instance, new Sphere(new Point(-50, 0, 0), 1)).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The instance is moved after its placement, and the box follows it
+        instance.setTransform(Transform.translation(new Vector(0, 0, -30)));
+        scene.refit();
+        assertEquals(new Point(10, 0, -40),
+                scene.findClosestGeoIntersection(new Ray(new Point(10, 0, 0), new Vector(0, 0, -1))).point,
+                "Wrong intersection of the moved instance");
+        assertEquals(-54, instance.getBoundingBox().minZ, 1e-9, "Wrong box of the moved instance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Identity brings the instance back to its placement
+        instance.setTransform(Transform.IDENTITY);
+        scene.refit();
+        assertEquals(new Point(10, 0, -10),
+                scene.findClosestGeoIntersection(new Ray(new Point(10, 0, 0), new Vector(0, 0, -1))).point,
+                "Identity must restore the placement");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#fingerprint(Fingerprint)}.
+     */
+    @Test
+    void testFingerprint() {
+        Geometries shared = shared();
+        Instance first = new Instance(shared, TRANSFORM);
+        Instance second = new Instance(shared, Transform.translation(new Vector(0, 50, 0)));
+        Geometries scene = new Geometries(first, second);
+        long original = fingerprint(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same instances of a copy of the shared collection have the same fingerprint
+        Geometries copy = shared();
+        assertEquals(original, fingerprint(new Geometries(new Instance(copy, TRANSFORM),
+                        new Instance(copy, Transform.translation(new Vector(0, 50, 0))))),
+                "Same instances must have the same fingerprint");
+        // TC02: Instances of two distinct collections differ from instances of one shared collection
+        assertNotEquals(original, fingerprint(new Geometries(new Instance(shared(), TRANSFORM),
+                        new Instance(shared(), Transform.translation(new Vector(0, 50, 0))))),
+                "Sharing of the collection must be fingerprinted");
+        // TC03: Moving an instance changes the fingerprint
+        second.setTransform(Transform.translation(new Vector(0, 60, 0)));
+        assertNotEquals(original, fingerprint(scene), "Moved instance must change the fingerprint");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Changing the shared collection changes the fingerprint
+        long moved = fingerprint(scene);
+        shared.add(new Sphere(new Point(0, 0, -30), 1));
+        assertNotEquals(moved, fingerprint(scene), "Changed shared collection must change the fingerprint");
+    }
+
+    /**
+     * @param intersectable the intersectable
+     * @return the fingerprint of the intersectable
+     */
+    private static long fingerprint(Intersectable intersectable) {
+        Fingerprint fingerprint = new Fingerprint();
+        intersectable.fingerprint(fingerprint);
+        return fingerprint.getHash();
+    }
+}
@@ -0,0 +1,113 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.ObjLoader class
+ */
+class ObjLoaderTest {
+    /**
+     * Folder of the OBJ files of the tests
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * @param name    name of the file
+     * @param content content of the file
+     * @return the file
+     * @throws IOException if the file can't be written
+     */
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(folder.resolve(name), content);
+    }
+
+    /**
+     * Test method for {@link geometries.ObjLoader#load(Path, int)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Quad of texture and normal indices, with comments and the other kinds of lines
+        Path quad = write("quad.obj", """
+                # unit square
+                mtllib square.mtl
+                o square
+                v 0 0 -1
+                v 1.0 0 -1.0 1.0
+                v  1   1e0  -1\r
+                v 0 +1 -10E-1
+                vt 0 0
+                vn 0 0 1
+                usemtl white
+                s off
+                f 1/1/1 2/1/1 3//1 4 # the face
+                """);
+        TriangleMesh mesh = ObjLoader.load(quad, 1);
+        assertEquals(4, mesh.getVertexCount(), "Wrong amount of vertices");
+        assertEquals(2, mesh.getTriangleCount(), "The quad must be split into 2 triangles");
+        assertEquals(new Point(0.25, 0.75, -1),
+                mesh.findClosestGeoIntersection(new Ray(new Point(0.25, 0.75, 0), new Vector(0, 0, -1))).point,
+                "Wrong intersection of the quad");
+        assertEquals(new Vector(0, 0, 1), mesh.getNormal(new Point(0.75, 0.25, -1)), "Wrong normal of the quad");
+        // TC02: Negative indices are relative to the last vertex
+        mesh = ObjLoader.load(write("relative.obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf -3 -2 -1\n"), 1);
+        assertEquals(1, mesh.getTriangleCount(), "Wrong relative face");
+        // TC03: Triangles on a line are dropped
+        mesh = ObjLoader.load(write("line.obj", "v 0 0 0\nv 1 1 1\nv 2 2 2\nv 0 1 0\nf 1 2 3\nf 1 2 4\n"), 1);
+        assertEquals(1, mesh.getTriangleCount(), "Triangle on a line must be dropped");
+        // TC04: Parallel loading in small chunks gives the same mesh, relative indices across the chunks
+        StringBuilder grid = new StringBuilder();
+        for (int i = 0; i <= 20; i++)
+            for (int j = 0; j <= 20; j++)
+                grid.append(String.format(Locale.ROOT, "v %d %d %.3f%n", i, j, Math.sin(i * 0.3 + j * 0.7)));
+        for (int i = 0; i < 20; i++)
+            for (int j = 0; j < 20; j++) {
+                int a = i * 21 + j + 1;
+                grid.append("f ").append(a).append(' ').append(a + 21).append(' ').append(a + 22).append(' ')
+                        .append(a + 1).append('\n');
+            }
+        grid.append("v 30 0 0\nv 30 1 0\nv 31 0 0\nf -1 -2 -3\n");
+        Path gridFile = write("grid.obj", grid.toString());
+        TriangleMesh serial = ObjLoader.load(gridFile, 1);
+        TriangleMesh parallel = ObjLoader.load(gridFile, 4, 100);
+        assertEquals(20 * 20 * 2 + 1, serial.getTriangleCount(), "Wrong amount of triangles of the grid");
+        assertEquals(serial.getTriangleCount(), parallel.getTriangleCount(), "Wrong amount of parallel triangles");
+        for (double x = 0.1; x < 31; x += 0.77)
+            for (double y = 0.1; y < 20; y += 0.93) {
+                Ray ray = new Ray(new Point(x, y, 5), new Vector(0, 0, -1));
+                var a = serial.findClosestGeoIntersection(ray);
+                var b = parallel.findClosestGeoIntersection(ray);
+                assertEquals(a == null ? null : a.point, b == null ? null : b.point, "Wrong parallel intersection");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Face of a missing vertex
+        Path missing = write("missing.obj", "v 0 0 0\nv 1 0 0\nf 1 2 3\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(missing, 1), "Missing vertex must be rejected");
+        // TC11: Bad number - the error tells the line
+        Path bad = write("bad.obj", "v 0 0 0\nv 1 0 x\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(bad, 1),
+                "Bad number must be rejected");
+        assertTrue(e.getMessage().contains("line 2"), "The error must tell the line");
+        // TC12: Face of 2 vertices
+        Path line = write("face.obj", "v 0 0 0\nv 1 0 0\nf 1 2\n");
+        assertThrows(IllegalArgumentException.class, () -> ObjLoader.load(line, 1), "Short face must be rejected");
+        // TC13: Empty file
+        assertEquals(0, ObjLoader.load(write("empty.obj", ""), 1).getTriangleCount(), "Empty file must be empty");
+        // TC14: Missing file
+        assertThrows(IllegalStateException.class, () -> ObjLoader.load(folder.resolve("none.obj"), 1),
+                "Missing file must be rejected");
+    }
+}
@@ -0,0 +1,228 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ */
+class TriangleMeshTest {
+    /** amount of the grid cells along each axis */
+    private static final int CELLS = 12;
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0};
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertDoesNotThrow(() -> new TriangleMesh(vertices, new int[]{0, 1, 2}), "Failed constructing a correct mesh");
+        // TC02: Vertices are not triples
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[]{}),
+                "Constructed a mesh with broken vertices");
+        // TC03: Indices are not triples
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1}),
+                "Constructed a mesh with broken triangles");
+        // TC04: Index of a missing vertex
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Vertices of a triangle on one line
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 1, 1, 2, 2, 2}, new int[]{0, 1, 2}),
+                "Constructed a mesh with a triangle on a line");
+        // TC11: Empty mesh
+        assertTrue(new TriangleMesh(new double[]{}, new int[]{}).getBoundingBox().isEmpty(),
+                "Box of an empty mesh must be empty");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Geometries triangles = new Geometries();
+        TriangleMesh mesh = wave(triangles);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mesh finds the same intersections as separate triangles
+        for (double x = -1; x < CELLS + 1; x += 0.37) {
+            for (double y = -1; y < CELLS + 1; y += 0.41) {
+                Ray ray = new Ray(new Point(x, y, 5), new Vector(0.3, -0.2, -1));
+                var expected = triangles.findGeoIntersections(ray);
+                var result = mesh.findGeoIntersections(ray);
+                if (expected == null) {
+                    assertNull(result, "Ray must miss the mesh");
+                    continue;
+                }
+                assertEquals(expected.size(), result.size(), "Wrong number of intersections with the mesh");
+                for (int i = 0; i < expected.size(); ++i) {
+                    assertTrue(result.contains(new GeoPoint(mesh, expected.get(i).point)),
+                            "Wrong intersections with the mesh");
+                }
+            }
+        }
+        // TC02: Ray parallel to the mesh
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(-1, -1, 5), new Vector(1, 1, 0))),
+                "Ray above the mesh must not intersect it");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray through an edge shared by two triangles
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(0.5, 0.5, 5), new Vector(0, 0, -1))),
+                "Ray through an edge must not intersect the mesh");
+        // TC11: Ray through a vertex
+        assertNull(mesh.findGeoIntersections(new Ray(new Point(1, 1, 5), new Vector(0, 0, -1))),
+                "Ray through a vertex must not intersect the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray)}
+     * and {@link geometries.Intersectable#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries triangles = new Geometries();
+        TriangleMesh mesh = wave(triangles);
+        mesh.setMaterial(new Material().setkT(0.5));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection and the transparency match the separate triangles
+        for (double x = -1; x < CELLS + 1; x += 0.53) {
+            Ray ray = new Ray(new Point(x, -1, 0.3), new Vector(0.1, 1, -0.05));
+            var expected = triangles.findClosestGeoIntersection(ray);
+            var result = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(result, "Ray must miss the mesh");
+            } else {
+                assertEquals(expected.point, result.point, "Wrong closest intersection with the mesh");
+            }
+            var all = triangles.findGeoIntersections(ray);
+            Double3 transparency = new Double3(Math.pow(0.5, all == null ? 0 : all.size()));
+            assertEquals(transparency, mesh.findTransparency(ray, 100, 0.0001), "Wrong transparency of the mesh");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Closest intersection farther than the maximal distance
+        Ray down = new Ray(new Point(0.3, 0.6, 5), new Vector(0, 0, -1));
+        assertNotNull(mesh.findClosestGeoIntersection(down), "Ray must hit the mesh");
+        assertNull(mesh.findClosestGeoIntersection(down, 1), "Intersection is farther than the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        Geometries triangles = new Geometries();
+        TriangleMesh mesh = wave(triangles);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Normal at an intersection point is the normal of the triangle that was hit
+        for (double x = 0.1; x < CELLS; x += 0.77) {
+            Ray ray = new Ray(new Point(x, x / 2 + 0.05, 5), new Vector(0.05, 0.1, -1));
+            var expected = triangles.findClosestGeoIntersection(ray);
+            var result = mesh.findClosestGeoIntersection(ray);
+            assertEquals(expected.geometry.getNormal(expected.point), mesh.getNormal(result.point),
+                    "Wrong normal of the mesh");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Point off the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(0.3, 0.3, 10)),
+                "Point off the mesh must not have a normal");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#setTransform(Transform)}.
+     */
+    @Test
+    void testSetTransform() {
+        TriangleMesh mesh = wave(new Geometries());
+        TriangleMesh original = wave(new Geometries());
+        Transform transform = Transform.rotation(new Vector(1, 2, 3), 40).then(Transform.scaling(2, 1, 0.5))
+                .then(Transform.translation(new Vector(-3, 5, 1)));
+        Transform inverse = transform.inverse();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The transformed mesh is hit where the original one is hit by the inverse transformed ray
+        mesh.setTransform(transform);
+        for (double x = -10; x < 20; x += 0.93) {
+            for (double y = -5; y < 20; y += 1.1) {
+                Ray ray = new Ray(new Point(x, y, 20), new Vector(0.1, 0.05, -1));
+                GeoPoint result = mesh.findClosestGeoIntersection(ray);
+                GeoPoint expected = original.findClosestGeoIntersection(
+                        new Ray(inverse.apply(ray.getHead()), inverse.apply(ray.getDirection())));
+                if (expected == null) {
+                    assertNull(result, "Transformed mesh must not be hit");
+                } else {
+                    assertNotNull(result, "Transformed mesh must be hit");
+                    assertEquals(transform.apply(expected.point), result.point, "Wrong intersection");
+                    assertDoesNotThrow(() -> mesh.getNormal(result.point), "Hit point must be on the mesh");
+                }
+            }
+        }
+        // TC02: A second transform is relative to the original placement, and the box is refitted
+        mesh.setTransform(Transform.translation(new Vector(0, 0, 100)));
+        assertEquals(100 + original.getBoundingBox().minZ, mesh.getBoundingBox().minZ, 1e-9,
+                "Wrong box of the moved mesh");
+        assertEquals(100 + original.getBoundingBox().maxZ, mesh.getBoundingBox().maxZ, 1e-9,
+                "Wrong box of the moved mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Identity brings the mesh back to its place
+        mesh.setTransform(Transform.IDENTITY);
+        for (double x = 0.1; x < CELLS; x += 0.77) {
+            Ray ray = new Ray(new Point(x, x / 2 + 0.05, 5), new Vector(0.05, 0.1, -1));
+            assertEquals(original.findClosestGeoIntersection(ray).point, mesh.findClosestGeoIntersection(ray).point,
+                    "Identity must restore the mesh");
+        }
+    }
+
+    /**
+     * Build a wavy grid surface, as a mesh and as separate triangles
+     *
+     * @param triangles collection to add the separate triangles to
+     * @return the mesh
+     */
+    private static TriangleMesh wave(Geometries triangles) {
+        int size = CELLS + 1;
+        double[] vertices = new double[3 * size * size];
+        Point[] points = new Point[size * size];
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                int vertex = i * size + j;
+                double z = Math.sin(i * 0.7) * Math.cos(j * 0.5);
+                vertices[3 * vertex] = i;
+                vertices[3 * vertex + 1] = j;
+                vertices[3 * vertex + 2] = z;
+                points[vertex] = new Point(i, j, z);
+            }
+        }
+        int[] indices = new int[6 * CELLS * CELLS];
+        int k = 0;
+        for (int i = 0; i < CELLS; ++i) {
+            for (int j = 0; j < CELLS; ++j) {
+                int a = i * size + j, b = a + size, c = b + 1, d = a + 1;
+                int[] cell = {a, b, d, b, c, d};
+                for (int index : cell) {
+                    indices[k++] = index;
+                }
+                triangles.add(new Triangle(points[a], points[b], points[d]),
+                        new Triangle(points[b], points[c], points[d]));
+            }
+        }
+        return new TriangleMesh(vertices, indices);
+    }
+}
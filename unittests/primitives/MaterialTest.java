@@ -0,0 +1,44 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Material class
+ */
+class MaterialTest {
+    /**
+     * Test method for {@link primitives.Material#setKg(double)}.
+     */
+    @Test
+    void testSetKg() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Positive exponent
+        assertEquals(20, new Material().setKg(20).kG, "Wrong glossiness exponent");
+        // TC02: Negative exponent
+        assertThrows(IllegalArgumentException.class, () -> new Material().setKg(-1),
+                "Negative glossiness exponent must be rejected");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero exponent - the blur glass disk
+        assertEquals(0, new Material().setKg(0).kG, "Zero glossiness exponent must be accepted");
+    }
+
+    /**
+     * Test method for {@link primitives.Material#setKb(double)}.
+     */
+    @Test
+    void testSetKb() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Positive exponent
+        assertEquals(20, new Material().setKb(20).kB, "Wrong blurriness exponent");
+        // TC02: Negative exponent
+        assertThrows(IllegalArgumentException.class, () -> new Material().setKb(-1),
+                "Negative blurriness exponent must be rejected");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero exponent - the blur glass disk
+        assertEquals(0, new Material().setKb(0).kB, "Zero blurriness exponent must be accepted");
+    }
+}
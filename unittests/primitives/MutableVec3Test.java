@@ -0,0 +1,74 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MutableVec3} class.
+ */
+class MutableVec3Test {
+    Vector v1 = new Vector(1, 2, 3);
+    Vector v2 = new Vector(0, 3, -2);
+    Point p1 = new Point(4, -1, 2);
+
+    /**
+     * Test method for {@link MutableVec3#addScaled(Vector, double)} and
+     * {@link MutableVec3#setSubtract(Point, Point)}.
+     */
+    @Test
+    void testAddAndSubtract() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same result as the immutable point and vector
+        assertEquals(p1.add(v1.scale(2.5)), new MutableVec3().set(p1).addScaled(v1, 2.5).toPoint(),
+                "Wrong scaled addition");
+        // TC02: Same result as the subtraction of points
+        assertEquals(p1.subtract(v1), new MutableVec3().setSubtract(p1, v1).toVector(), "Wrong subtraction");
+        // TC03: The operations change the object itself
+        MutableVec3 v = new MutableVec3(1, 1, 1);
+        assertSame(v, v.add(v1).scale(2), "Operation must return the object itself");
+        assertEquals(new Point(4, 6, 8), v.toPoint(), "Wrong chained operations");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero triad is allowed, but not as a vector
+        MutableVec3 zero = new MutableVec3().setSubtract(p1, p1);
+        assertEquals(0, zero.lengthSquared(), "Triad minus itself must be zero");
+        assertThrows(IllegalArgumentException.class, zero::toVector, "Zero triad must not become a vector");
+    }
+
+    /**
+     * Test method for {@link MutableVec3#setCrossProduct(MutableVec3, MutableVec3)}
+     * and {@link MutableVec3#dotProduct(Vector)}.
+     */
+    @Test
+    void testProducts() {
+        MutableVec3 a = new MutableVec3().set(v1);
+        MutableVec3 b = new MutableVec3().set(v2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same cross product as the immutable vectors
+        assertEquals(v1.crossProduct(v2), new MutableVec3().setCrossProduct(a, b).toVector(), "Wrong cross product");
+        // TC02: Same dot product as the immutable vectors
+        assertEquals(v1.dotProduct(v2), a.dotProduct(v2), "Wrong dot product");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Cross product into one of its operands
+        assertEquals(v1.crossProduct(v2), a.setCrossProduct(a, b).toVector(),
+                "Wrong cross product into an operand");
+    }
+
+    /**
+     * Test method for {@link MutableVec3#normalize()}.
+     */
+    @Test
+    void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same unit vector as the immutable vector
+        assertEquals(v1.normalize(), new MutableVec3().set(v1).normalize().toVector(), "Wrong normalized vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero triad
+        assertThrows(IllegalArgumentException.class, () -> new MutableVec3().normalize(),
+                "Zero triad must not be normalized");
+    }
+}
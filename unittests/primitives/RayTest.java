@@ -8,8 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class RayTests {
 
@@ -61,4 +60,59 @@ class RayTests {
         );
         assertEquals(new Point(0.1, 0, 0), ray.findClosestPoint(points), "ERROR: wrong closest point");
     }
+
+    /**
+     * Test method for {@link primitives.Ray#generateBeam(Vector, double, double, int)}.
+     */
+    @Test
+    void testGenerateBeam() {
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+        Vector n = new Vector(0, 0, 1);
+        Util.setRandomSeed(5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray itself and the rays through the disk, spread uniformly over the disk
+        List<Ray> beam = ray.generateBeam(n, 1, 10, 401);
+        assertSame(ray, beam.get(0), "The beam must start with the ray itself");
+        assertEquals(401, beam.size(), "No ray crosses the surface");
+        double squares = 0;
+        for (Ray r : beam.subList(1, beam.size())) {
+            Point p = r.getPoint(10 / r.getDirection().getZ());
+            double square = p.getX() * p.getX() + p.getY() * p.getY();
+            assertTrue(square <= 1 + 1e-9, "Ray must pass through the disk");
+            squares += square;
+        }
+        assertEquals(0.5, squares / 400, 0.01, "Rays must be spread uniformly over the disk");
+        // TC02: Rays that cross the surface are dropped
+        List<Ray> grazing = new Ray(Point.ZERO, new Vector(1, 0, 0.01)).generateBeam(n, 1, 10, 101);
+        for (Ray r : grazing) assertTrue(r.getDirection().getZ() > 0, "Ray must not cross the surface");
+        assertTrue(grazing.size() < 101, "Rays that cross the surface must be dropped");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A single ray
+        assertEquals(List.of(ray), ray.generateBeam(n, 1, 10, 1), "Single ray beam must be the ray itself");
+    }
+
+    /**
+     * Test method for {@link primitives.Ray#generateLobe(Vector, double, int)}.
+     */
+    @Test
+    void testGenerateLobe() {
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+        Vector n = new Vector(0, 0, 1);
+        Util.setRandomSeed(5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The mean cosine of a cosine-power lobe is (e+1)/(e+2)
+        List<Ray> lobe = ray.generateLobe(n, 10, 401);
+        assertSame(ray, lobe.get(0), "The lobe must start with the ray itself");
+        double cosines = 0;
+        for (Ray r : lobe.subList(1, lobe.size())) cosines += r.getDirection().getZ();
+        assertEquals(11d / 12, cosines / 400, 0.005, "Wrong spread of the lobe");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Negative exponent
+        assertThrows(IllegalArgumentException.class, () -> ray.generateLobe(n, -1, 10),
+                "Negative exponent must be rejected");
+    }
 }
@@ -0,0 +1,127 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Sampler} interface.
+ */
+class SamplerTest {
+    /**
+     * the samplers of the library
+     */
+    private final Sampler[] samplers = {Sampler.RANDOM, Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL};
+
+    /**
+     * Test method for {@link Sampler#generate(int)}.
+     */
+    @Test
+    void testGenerate() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Samples in the unit square, the same with the same seed
+        for (Sampler sampler : samplers) {
+            Util.setRandomSeed(5);
+            double[] samples = sampler.generate(100);
+            assertEquals(200, samples.length, "Wrong amount of samples of " + sampler);
+            for (double value : samples)
+                assertTrue(value >= 0 && value < 1, "Sample out of the unit square of " + sampler);
+            Util.setRandomSeed(5);
+            assertArrayEquals(samples, sampler.generate(100), "Samples must be reproducible with a seed");
+        }
+        // TC02: One stratified sample in every row and every column
+        double[] samples = Sampler.STRATIFIED.generate(10);
+        boolean[] rows = new boolean[10], columns = new boolean[10];
+        for (int i = 0; i < 10; i++) {
+            rows[(int) (samples[2 * i] * 10)] = true;
+            columns[(int) (samples[2 * i + 1] * 10)] = true;
+        }
+        for (int i = 0; i < 10; i++)
+            assertTrue(rows[i] && columns[i], "Stratified samples must cover every row and column");
+        // TC03: Scrambled Sobol samples are a (0,4,2)-net - one sample in every elementary interval of area 1/16
+        samples = Sampler.SOBOL.generate(16);
+        for (int bits = 0; bits <= 4; bits++) {
+            int[] cells = new int[16];
+            for (int i = 0; i < 16; i++)
+                cells[(int) (samples[2 * i] * (1 << bits)) * (16 >> bits) + (int) (samples[2 * i + 1] * (16 >> bits))]++;
+            int[] expected = new int[16];
+            Arrays.fill(expected, 1);
+            assertArrayEquals(expected, cells, "Sobol samples must be stratified in every elementary interval");
+        }
+        // TC04: Lower integration error than the random samples (area of the quarter disk)
+        double randomError = integrationError(Sampler.RANDOM);
+        for (Sampler sampler : new Sampler[]{Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL})
+            assertTrue(integrationError(sampler) < randomError / 2, "Integration error is too big for " + sampler);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Single sample
+        for (Sampler sampler : samplers)
+            assertEquals(2, sampler.generate(1).length, "Wrong single sample of " + sampler);
+        // TC11: No samples
+        for (Sampler sampler : samplers)
+            assertEquals(0, sampler.generate(0).length, "Wrong empty set of " + sampler);
+    }
+
+    /**
+     * @param sampler a sampler
+     * @return mean squared error of the area of the quarter unit disk, estimated by 64 samples
+     */
+    private static double integrationError(Sampler sampler) {
+        Util.setRandomSeed(1);
+        double error = 0;
+        for (int set = 0; set < 200; set++) {
+            double[] samples = sampler.generate(64);
+            int inside = 0;
+            for (int i = 0; i < 64; i++)
+                if (samples[2 * i] * samples[2 * i] + samples[2 * i + 1] * samples[2 * i + 1] < 1) inside++;
+            error += (inside / 64d - Math.PI / 4) * (inside / 64d - Math.PI / 4);
+        }
+        return error / 200;
+    }
+
+    /**
+     * Test method for {@link Sampler#generate(int, int, int)}.
+     */
+    @Test
+    void testGenerateSlice() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Slices of the sequences are the samples of the set at their indices
+        for (Sampler sampler : new Sampler[]{Sampler.HALTON, Sampler.SOBOL}) {
+            Util.setRandomSeed(5);
+            double[] set = sampler.generate(16);
+            Util.setRandomSeed(5);
+            assertArrayEquals(Arrays.copyOfRange(set, 10, 16), sampler.generate(5, 3, 16),
+                    "Wrong slice of " + sampler);
+        }
+        // TC02: Consecutive stratified slices make the whole set, and every slice is spread over the rows
+        Util.setRandomSeed(5);
+        double[] set = Sampler.STRATIFIED.generate(16);
+        double[] slices = new double[32];
+        for (int offset = 0; offset < 16; offset += 4) {
+            Util.setRandomSeed(5);
+            double[] slice = Sampler.STRATIFIED.generate(offset, 4, 16);
+            System.arraycopy(slice, 0, slices, 2 * offset, 8);
+        }
+        double[] sortedSet = set.clone(), sortedSlices = slices.clone();
+        Arrays.sort(sortedSet);
+        Arrays.sort(sortedSlices);
+        assertArrayEquals(sortedSet, sortedSlices, "Stratified slices must make the whole set");
+        assertFalse(Arrays.equals(Arrays.copyOf(set, 8), Arrays.copyOf(slices, 8)),
+                "Stratified slice must not take the strata in their order");
+        // TC03: Slice of a sampler without its own slicing is cut from the whole set
+        Sampler grid = count -> {
+            double[] samples = new double[2 * count];
+            for (int i = 0; i < 2 * count; i++) samples[i] = i / (2d * count);
+            return samples;
+        };
+        assertArrayEquals(new double[]{0.25, 0.3125}, grid.generate(2, 1, 8), "Wrong slice of the whole set");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Slice out of the set
+        for (Sampler sampler : new Sampler[]{Sampler.RANDOM, Sampler.STRATIFIED, Sampler.SOBOL, grid})
+            assertThrows(IllegalArgumentException.class, () -> sampler.generate(14, 4, 16),
+                    "Slice out of the set must be rejected by " + sampler);
+    }
+}
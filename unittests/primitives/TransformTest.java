@@ -0,0 +1,92 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Transform class
+ */
+class TransformTest {
+    /**
+     * Test method for {@link primitives.Transform#apply(Point)}, {@link primitives.Transform#apply(Vector)}
+     * and {@link primitives.Transform#applyNormal(Vector)}.
+     */
+    @Test
+    void testApply() {
+        Point p = new Point(1, 2, 3);
+        Vector v = new Vector(1, 2, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Translation moves points, not vectors
+        Transform translation = Transform.translation(new Vector(10, 20, 30));
+        assertEquals(new Point(11, 22, 33), translation.apply(p), "Wrong translated point");
+        assertEquals(v, translation.apply(v), "Translation must not change a vector");
+        // TC02: Scaling
+        assertEquals(new Point(2, -2, 1.5), Transform.scaling(2, -1, 0.5).apply(p), "Wrong scaled point");
+        // TC03: Rotation is counterclockwise around the axis
+        assertEquals(new Point(-2, 1, 3), Transform.rotation(new Vector(0, 0, 1), 90).apply(p),
+                "Wrong rotated point");
+        // TC04: Packed points are transformed as points, in place
+        double[] points = {1, 2, 3, 0, 0, 0};
+        translation.apply(points, points);
+        assertArrayEquals(new double[]{11, 22, 33, 10, 20, 30}, points, 1e-12, "Wrong packed points");
+        // TC05: Normal stays orthogonal to the surface under non-uniform scaling
+        Transform stretch = Transform.scaling(1, 2, 1);
+        Vector normal = stretch.applyNormal(new Vector(1, 1, 0));
+        assertEquals(0, normal.dotProduct(stretch.apply(new Vector(1, -1, 0))), 1e-12, "Normal must stay orthogonal");
+        assertEquals(1, normal.length(), 1e-12, "Normal must be normalized");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero scaling factor
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "Zero factor must be rejected");
+        // TC11: Arrays of different sizes
+        assertThrows(IllegalArgumentException.class, () -> translation.apply(new double[3], new double[6]),
+                "Arrays of different sizes must be rejected");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#then(Transform)} and {@link primitives.Transform#inverse()}.
+     */
+    @Test
+    void testThenInverse() {
+        Point p = new Point(1, 2, 3);
+        Transform rotation = Transform.rotation(new Vector(1, 1, 0), 30);
+        Transform transform = Transform.scaling(2, 3, 4).then(rotation)
+                .then(Transform.translation(new Vector(-1, 5, 2)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Composition applies the first transform and then the second one
+        assertEquals(rotation.apply(Transform.scaling(2).apply(p)), Transform.scaling(2).then(rotation).apply(p),
+                "Wrong composed transform");
+        // TC02: Inverse brings a point back
+        assertEquals(p, transform.inverse().apply(transform.apply(p)), "Inverse must bring the point back");
+        // TC03: Transform composed with its inverse is the identity
+        Transform identity = transform.then(transform.inverse());
+        assertEquals(new Point(7, -8, 9), identity.apply(new Point(7, -8, 9)), "Wrong composition with the inverse");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Identity is its own inverse
+        assertEquals(Transform.IDENTITY, Transform.IDENTITY.inverse(), "Identity must be its own inverse");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#of(double[])} and {@link primitives.Transform#toArray()}.
+     */
+    @Test
+    void testOf() {
+        Transform transform = Transform.rotation(new Vector(1, 2, 3), 40)
+                .then(Transform.translation(new Vector(1, 2, 3)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Transform of its own matrix is the same transform
+        assertEquals(transform, Transform.of(transform.toArray()), "Wrong transform of the matrix");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Matrix that flattens the space
+        assertThrows(IllegalArgumentException.class,
+                () -> Transform.of(new double[]{1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0}), "Flattening matrix must be rejected");
+        // TC11: Matrix of a wrong size
+        assertThrows(IllegalArgumentException.class, () -> Transform.of(new double[9]), "Wrong size must be rejected");
+    }
+}
@@ -1,12 +1,21 @@
 package renderer;
 
+import geometries.Sphere;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
-import primitives.Point;
-import primitives.Ray;
-import primitives.Vector;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
 import scene.Scene;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
 //import scene.Scene;
 
 /**
@@ -25,6 +34,32 @@ class CameraTest {
             .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
             .setVpDistance(10);
 
+    /**
+     * @param name name of the scene
+     * @return scene of a blue shiny sphere lit by a point light
+     */
+    private static Scene sphereScene(String name) {
+        Scene scene = new Scene(name);
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50)
+                .setEmission(new Color(java.awt.Color.BLUE))
+                .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(100)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 50)));
+        return scene;
+    }
+
+    /**
+     * @param scene the scene (of {@link #sphereScene(String)})
+     * @return builder of a camera that views the whole sphere of the scene, with a fixed seed
+     */
+    private static Camera.Builder sphereCamera(Scene scene) {
+        return Camera.getBuilder()
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(200, 200)
+                .setSeed(7);
+    }
+
     /**
      * Test method for
      * {@link renderer.Camera#constructRay(int, int, int, int)}.
@@ -67,4 +102,366 @@ class CameraTest {
 
     }
 
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} -
+     * rendering with several threads gives exactly the image of a single thread
+     */
+    @Test
+    void testRenderImageThreads() throws IOException {
+        Scene scene = sphereScene("Threads test");
+        Camera.Builder builder = sphereCamera(scene);
+
+        builder.setImageWriter(new ImageWriter("threadsTestSerial", 40, 30)).build().renderImage().writeToImage();
+        builder.setImageWriter(new ImageWriter("threadsTestParallel", 40, 30)).setThreads(3).setTileSize(7)
+                .build().renderImage().writeToImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same pixels with one and with several threads
+        String folder = System.getProperty("user.dir") + "/images/";
+        BufferedImage serial = ImageIO.read(new File(folder + "threadsTestSerial.png"));
+        BufferedImage parallel = ImageIO.read(new File(folder + "threadsTestParallel.png"));
+        for (int x = 0; x < 40; x++)
+            for (int y = 0; y < 30; y++)
+                assertEquals(serial.getRGB(x, y), parallel.getRGB(x, y), "Different pixel rendered by several threads");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setAdaptiveSampling(int, int, double)}.
+     */
+    @Test
+    void testAdaptiveSampling() {
+        // =============== Boundary Values Tests ==================
+        // TC10: Batch of one ray
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setAdaptiveSampling(1, 10, 1),
+                "Batch of one ray must be rejected");
+        // TC11: Maximal amount smaller than the batch
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setAdaptiveSampling(8, 4, 1),
+                "Maximal amount smaller than the batch must be rejected");
+        // TC12: Negative threshold
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setAdaptiveSampling(4, 16, -1),
+                "Negative threshold must be rejected");
+
+        Scene scene = sphereScene("Adaptive sampling test");
+        Camera.Builder builder = sphereCamera(scene);
+
+        ImageWriter fixed = new ImageWriter("adaptiveTest", 40, 30);
+        ImageWriter adaptive = new ImageWriter("adaptiveTest", 40, 30);
+        builder.setImageWriter(fixed).build().renderImage();
+        builder.setImageWriter(adaptive).setAdaptiveSampling(4, 64, 1).build().renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Adaptive sampling converges to the same image as the fixed amount of rays
+        assertTrue(imageError(fixed, adaptive) < 2, "Adaptive sampling image is too different");
+        // TC02: Background pixel (the corner) is exactly black
+        assertEquals(Color.BLACK.toString(), adaptive.getFrameBuffer().getPixel(0, 0).toString(),
+                "Background pixel must be black");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setProgressive(int, int)} and
+     * {@link renderer.Camera.Builder#setTimeBudget(Duration)}.
+     */
+    @Test
+    void testProgressive() {
+        // =============== Boundary Values Tests ==================
+        // TC10: Pass without samples
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setProgressive(0, 10),
+                "Pass without samples must be rejected");
+        // TC11: Negative time budget
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setTimeBudget(Duration.ofSeconds(-1)),
+                "Negative time budget must be rejected");
+
+        Scene scene = sphereScene("Progressive test");
+        Camera.Builder builder = sphereCamera(scene);
+
+        ImageWriter fixed = new ImageWriter("progressiveTest", 20, 15);
+        ImageWriter serial = new ImageWriter("progressiveTest", 20, 15);
+        ImageWriter parallel = new ImageWriter("progressiveTest", 20, 15);
+        ImageWriter limited = new ImageWriter("progressiveTest", 20, 15);
+        builder.setImageWriter(fixed).build().renderImage();
+        builder.setImageWriter(serial).setProgressive(8, 50).build().renderImage();
+        builder.setImageWriter(parallel).setThreads(3).setTileSize(4).build().renderImage();
+        builder.setImageWriter(limited).setTimeBudget(Duration.ZERO).build().renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every pixel gets exactly the target amount of samples (the last pass is partial)
+        // TC02: The passes converge to the same image as the fixed amount of rays
+        // TC03: Parallel progressive rendering gives the same image
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 15; y++)
+                assertEquals(50, serial.getFrameBuffer().getWeight(x, y), "Wrong amount of samples");
+        assertTrue(imageError(fixed, serial) < 3, "Progressive image is too different");
+        assertSameImage(serial, parallel);
+
+        // =============== Boundary Values Tests ==================
+        // TC12: Spent time budget - not even the first pass is rendered
+        assertEquals(0, limited.getFrameBuffer().getWeight(10, 7), "No pass must be rendered");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setSampler(Sampler)} and
+     * {@link renderer.Camera.Builder#setNumOfRays(int)}.
+     */
+    @Test
+    void testSampler() {
+        // =============== Boundary Values Tests ==================
+        // TC10: No sampler
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setSampler(null),
+                "Missing sampler must be rejected");
+        // TC11: No rays
+        assertThrows(IllegalArgumentException.class, () -> cameraBuilder.setNumOfRays(0),
+                "Pixel without rays must be rejected");
+
+        Scene scene = sphereScene("Sampler test");
+        Camera.Builder builder = sphereCamera(scene);
+
+        ImageWriter reference = new ImageWriter("samplerTest", 20, 15);
+        ImageWriter jittered = new ImageWriter("samplerTest", 20, 15);
+        builder.setImageWriter(jittered).build().renderImage();
+        builder.setImageWriter(reference).setSampler(Sampler.SOBOL).setNumOfRays(1024).build().renderImage();
+        double jitteredError = imageError(reference, jittered);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Stratified and low-discrepancy samplers are less noisy with 16 rays than 50 jittered rays
+        for (Sampler sampler : new Sampler[]{Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL}) {
+            ImageWriter sampled = new ImageWriter("samplerTest", 20, 15);
+            builder.setImageWriter(sampled).setSampler(sampler).setNumOfRays(16).build().renderImage();
+            assertTrue(imageError(reference, sampled) < jitteredError, "Too noisy image of " + sampler);
+        }
+        // TC02: The camera doesn't change the sampler of the ray tracer, that may be shared
+        SimpleRayTracer shared = new SimpleRayTracer(scene);
+        shared.setSampler(Sampler.HALTON);
+        builder.setRayTracer(shared).setSampler(Sampler.SOBOL).build();
+        assertSame(Sampler.HALTON, shared.sampler, "Camera must not change the sampler of the ray tracer");
+        // TC03: The passes of a progressive render take their samples from one set of the pixel
+        Camera.Builder progressiveBuilder = sphereCamera(scene).setProgressive(3, 16);
+        for (Sampler sampler : new Sampler[]{Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL}) {
+            ImageWriter fixed = new ImageWriter("samplerTest", 20, 15);
+            ImageWriter progressive = new ImageWriter("samplerTest", 20, 15);
+            builder.setImageWriter(fixed).setSampler(sampler).setNumOfRays(16).build().renderImage();
+            progressiveBuilder.setImageWriter(progressive).setSampler(sampler).build().renderImage();
+            assertEquals(0, imageError(fixed, progressive), 1e-9,
+                    "Passes must take the samples of the fixed set of " + sampler);
+        }
+    }
+
+    /**
+     * @param expected the expected image
+     * @param actual   the actual image
+     * @return mean absolute difference of the channels of the pixels
+     */
+    private static double imageError(ImageWriter expected, ImageWriter actual) {
+        double difference = 0;
+        for (int x = 0; x < expected.getNx(); x++)
+            for (int y = 0; y < expected.getNy(); y++) {
+                Color a = expected.getFrameBuffer().getPixel(x, y), b = actual.getFrameBuffer().getPixel(x, y);
+                difference += Math.abs(a.getRed() - b.getRed()) + Math.abs(a.getGreen() - b.getGreen())
+                        + Math.abs(a.getBlue() - b.getBlue());
+            }
+        return difference / (expected.getNx() * expected.getNy() * 3);
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage(Duration, CancellationToken)}.
+     */
+    @Test
+    void testRenderLimit() {
+        Scene scene = sphereScene("Render limit test");
+        CancellationToken token = new CancellationToken();
+        // ray tracer that cancels the render at its first ray
+        RayTracerBase cancelling = new SimpleRayTracer(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                token.cancel();
+                return super.traceRay(ray);
+            }
+        };
+        Camera.Builder builder = sphereCamera(scene).setThreads(2).setTileSize(4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Render within the budget is done
+        ImageWriter done = new ImageWriter("renderLimitTest", 20, 15);
+        assertTrue(builder.setImageWriter(done).build().renderImage(Duration.ofHours(1)).isComplete(),
+                "Render within the budget must be done");
+        assertEquals(0, countMissing(done), "Every pixel must be rendered");
+        // TC02: Cancelled render keeps the tiles that were started (at most one per thread), and skips the others
+        ImageWriter cancelled = new ImageWriter("renderLimitTest", 20, 15);
+        Camera camera = builder.setImageWriter(cancelled).setRayTracer(cancelling).build();
+        assertFalse(camera.renderImage(null, token).isComplete(), "Cancelled render must not be done");
+        int missing = countMissing(cancelled);
+        assertTrue(missing >= 20 * 15 - 2 * 16 && missing < 20 * 15, "Only the started tiles must be rendered");
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 15; y++)
+                if (cancelled.getFrameBuffer().getWeight(x, y) != 0)
+                    assertEquals(done.getFrameBuffer().getPixel(x, y).toString(),
+                            cancelled.getFrameBuffer().getPixel(x, y).toString(), "Rendered pixel must be final");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Spent budget on the calling thread - nothing is rendered
+        ImageWriter spent = new ImageWriter("renderLimitTest", 20, 15);
+        assertFalse(builder.setImageWriter(spent).setThreads(1).build().renderImage(Duration.ZERO).isComplete(),
+                "Render with a spent budget must not be done");
+        assertEquals(20 * 15, countMissing(spent), "No pixel must be rendered");
+        // TC11: Spent budget of a progressive render - not even the first pass is rendered
+        ImageWriter progressive = new ImageWriter("renderLimitTest", 20, 15);
+        assertFalse(builder.setImageWriter(progressive).setProgressive(2, 10).build().renderImage(Duration.ZERO)
+                .isComplete(), "Progressive render with a spent budget must not be done");
+        assertEquals(20 * 15, countMissing(progressive), "No pixel must be rendered");
+        // TC12: Progressive render cancelled in its first pass stops after the started tile
+        ImageWriter firstPass = new ImageWriter("renderLimitTest", 20, 15);
+        CancellationToken firstPassToken = new CancellationToken();
+        RayTracerBase firstPassCancelling = new SimpleRayTracer(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                firstPassToken.cancel();
+                return super.traceRay(ray);
+            }
+        };
+        assertFalse(builder.setImageWriter(firstPass).setRayTracer(firstPassCancelling).build()
+                .renderImage(null, firstPassToken).isComplete(),
+                "Progressive render cancelled in the first pass must not be done");
+        assertEquals(20 * 15 - 16, countMissing(firstPass), "Only the started tile must be rendered");
+        assertEquals(2, firstPass.getFrameBuffer().getWeight(0, 0), "Started tile must finish the first pass");
+        // TC13: Negative budget
+        assertThrows(IllegalArgumentException.class, () -> builder.build().renderImage(Duration.ofSeconds(-1)),
+                "Negative budget must be rejected");
+    }
+
+    /**
+     * @param imageWriter the image writer
+     * @return amount of pixels of the image without samples
+     */
+    private static int countMissing(ImageWriter imageWriter) {
+        int count = 0;
+        for (int x = 0; x < imageWriter.getNx(); x++)
+            for (int y = 0; y < imageWriter.getNy(); y++)
+                if (imageWriter.getFrameBuffer().getWeight(x, y) == 0)
+                    ++count;
+        return count;
+    }
+
+    /**
+     * Ray tracer that counts the primary rays, and cancels the render after some rays
+     */
+    private static class CountingTracer extends SimpleRayTracer {
+        /**
+         * amount of the traced rays
+         */
+        final AtomicInteger rays = new AtomicInteger();
+        /**
+         * token to cancel
+         */
+        final CancellationToken token = new CancellationToken();
+        /**
+         * amount of rays after which the render is cancelled
+         */
+        final int cancelAt;
+
+        /**
+         * @param scene    the scene
+         * @param cancelAt amount of rays after which the render is cancelled
+         */
+        CountingTracer(Scene scene, int cancelAt) {
+            super(scene);
+            this.cancelAt = cancelAt;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            if (rays.incrementAndGet() >= cancelAt) token.cancel();
+            return super.traceRay(ray);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setCheckpoint(Path)}.
+     */
+    @Test
+    void testCheckpoint(@TempDir Path folder) {
+        Scene scene = sphereScene("Checkpoint test");
+        Camera.Builder builder = sphereCamera(scene).setTileSize(4).setSeed(3);
+        ImageWriter reference = new ImageWriter("checkpointTest", 20, 15);
+        builder.setRayTracer(new CountingTracer(scene, Integer.MAX_VALUE)).setImageWriter(reference)
+                .build().renderImage();
+        ImageWriter progressiveReference = new ImageWriter("checkpointTest", 20, 15);
+        builder.setImageWriter(progressiveReference).setProgressive(2, 5).build().renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Resumed render traces only the rays of the tiles that were not saved, and gives the same image
+        Path file = folder.resolve("render.ckp");
+        CountingTracer stopped = new CountingTracer(scene, 4000);
+        Camera.Builder checkpointed = sphereCamera(scene).setTileSize(4).setSeed(3).setCheckpoint(file);
+        assertFalse(checkpointed.setRayTracer(stopped).setImageWriter(new ImageWriter("checkpointTest", 20, 15))
+                .build().renderImage(null, stopped.token).isComplete(), "First render must be cancelled");
+        CountingTracer resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        ImageWriter resumedImage = new ImageWriter("checkpointTest", 20, 15);
+        assertTrue(checkpointed.setRayTracer(resumed).setImageWriter(resumedImage).build().renderImage().isComplete(),
+                "Resumed render must be done");
+        assertEquals(20 * 15 * 50, stopped.rays.get() + resumed.rays.get(), "Saved tiles must not be rendered again");
+        assertSameImage(reference, resumedImage);
+        // TC02: Resumed progressive render continues the passes
+        Path progressiveFile = folder.resolve("progressive.ckp");
+        stopped = new CountingTracer(scene, 20 * 15 * 3);
+        checkpointed.setCheckpoint(progressiveFile).setProgressive(2, 5).setThreads(2);
+        assertFalse(checkpointed.setRayTracer(stopped).setImageWriter(new ImageWriter("checkpointTest", 20, 15))
+                .build().renderImage(null, stopped.token).isComplete(), "First render must be cancelled");
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        resumedImage = new ImageWriter("checkpointTest", 20, 15);
+        checkpointed.setRayTracer(resumed).setImageWriter(resumedImage).build().renderImage();
+        assertEquals(20 * 15 * 5, stopped.rays.get() + resumed.rays.get(), "Saved passes must not be rendered again");
+        assertSameImage(progressiveReference, resumedImage);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Finished render only loads the image
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        resumedImage = new ImageWriter("checkpointTest", 20, 15);
+        checkpointed.setRayTracer(resumed).setImageWriter(resumedImage).build().renderImage();
+        assertEquals(0, resumed.rays.get(), "Finished render must not trace rays");
+        assertSameImage(progressiveReference, resumedImage);
+        // TC11: Checkpoint of other settings is started anew
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        checkpointed.setRayTracer(resumed).setImageWriter(new ImageWriter("checkpointTest", 20, 15)).setSeed(4)
+                .build().renderImage();
+        assertEquals(20 * 15 * 5, resumed.rays.get(), "Checkpoint of other settings must be ignored");
+        // TC12: Checkpoint of another light intensity is started anew
+        scene.lights.set(0, new PointLight(new Color(400, 300, 0), new Point(-50, -50, 50)));
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        checkpointed.setRayTracer(resumed).setImageWriter(new ImageWriter("checkpointTest", 20, 15))
+                .build().renderImage();
+        assertEquals(20 * 15 * 5, resumed.rays.get(), "Checkpoint of another light must be ignored");
+        // TC13: Checkpoint of another material is started anew
+        scene.geometries.add(new Sphere(new Point(0, 0, -300), 10).setMaterial(new Material().setkD(0.2)));
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        checkpointed.setRayTracer(resumed).setImageWriter(new ImageWriter("checkpointTest", 20, 15))
+                .build().renderImage();
+        assertEquals(20 * 15 * 5, resumed.rays.get(), "Checkpoint of other geometries must be ignored");
+        // TC14: Checkpoint of other ray tracer settings is started anew
+        resumed = new CountingTracer(scene, Integer.MAX_VALUE);
+        resumed.setRussianRoulette(0.1);
+        checkpointed.setRayTracer(resumed).setImageWriter(new ImageWriter("checkpointTest", 20, 15))
+                .build().renderImage();
+        assertEquals(20 * 15 * 5, resumed.rays.get(), "Checkpoint of other ray tracer settings must be ignored");
+        // TC15: Scene that can't be fingerprinted is not checkpointed, and renders without a checkpoint
+        Scene unknown = new Scene("Unknown");
+        unknown.geometries.add(new Sphere(new Point(0, 0, -100), 50) {
+        });
+        checkpointed.setRayTracer(new SimpleRayTracer(unknown)).setImageWriter(new ImageWriter("checkpointTest", 20, 15));
+        assertThrows(IllegalArgumentException.class, checkpointed::build,
+                "Scene that can't be fingerprinted must not be checkpointed");
+        assertTrue(checkpointed.setCheckpoint(null).build().renderImage().isComplete(),
+                "Scene that can't be fingerprinted must be rendered without a checkpoint");
+    }
+
+    /**
+     * Assert that two rendered images have exactly the same pixels
+     *
+     * @param expected the expected image
+     * @param actual   the actual image
+     */
+    private static void assertSameImage(ImageWriter expected, ImageWriter actual) {
+        for (int x = 0; x < expected.getNx(); x++)
+            for (int y = 0; y < expected.getNy(); y++)
+                assertEquals(expected.getFrameBuffer().getPixel(x, y).toString(),
+                        actual.getFrameBuffer().getPixel(x, y).toString(), "Wrong pixel " + x + "," + y);
+    }
 }
@@ -0,0 +1,84 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.FrameBuffer class
+ */
+class FrameBufferTest {
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#setPixel(int, int, Color)}.
+     */
+    @Test
+    void testSetPixel() {
+        FrameBuffer frameBuffer = new FrameBuffer(3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The color is kept without the 255 limit
+        frameBuffer.setPixel(2, 1, new Color(1000.5, 20.25, 0));
+        assertEquals(new Color(1000.5, 20.25, 0).toString(), frameBuffer.getPixel(2, 1).toString(),
+                "Wrong color of the pixel");
+        // TC02: Setting a pixel again replaces its color
+        frameBuffer.setPixel(2, 1, new Color(1, 2, 3));
+        assertEquals(new Color(1, 2, 3).toString(), frameBuffer.getPixel(2, 1).toString(),
+                "Pixel must have only its last color");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Pixel that was never set is black
+        assertSame(Color.BLACK, frameBuffer.getPixel(0, 0), "Pixel that was not set must be black");
+        // TC11: Zero resolution
+        assertThrows(IllegalArgumentException.class, () -> new FrameBuffer(0, 5), "Zero resolution must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#toRGB(ToneMapper)}.
+     */
+    @Test
+    void testToRGB() {
+        FrameBuffer frameBuffer = new FrameBuffer(2, 1);
+        frameBuffer.setPixel(0, 0, new Color(100.9, 300, 0));
+        frameBuffer.setPixel(1, 0, new Color(255, 510, 50));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Clamping cuts the fraction and the values above 255, as Color.getColor()
+        int[] clamped = frameBuffer.toRGB(ToneMapper.CLAMP);
+        assertEquals(new Color(100.9, 300, 0).getColor().getRGB() & 0xFFFFFF, clamped[0], "Wrong clamped pixel");
+        assertEquals(0xFFFF32, clamped[1], "Wrong clamped pixel");
+        // TC02: Reinhard keeps the difference between bright channels
+        int[] mapped = frameBuffer.toRGB(ToneMapper.reinhard(510));
+        int red = mapped[1] >> 16 & 0xFF, green = mapped[1] >> 8 & 0xFF;
+        assertEquals(255, green, "White value must be mapped to 255");
+        assertTrue(red < green && red > 0, "Bright channels must keep their order");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Non-positive white value
+        assertThrows(IllegalArgumentException.class, () -> ToneMapper.reinhard(0), "Zero white must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameBuffer#addSamples(int, int, Color, int)}.
+     */
+    @Test
+    void testAddSamples() {
+        FrameBuffer frameBuffer = new FrameBuffer(2, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The pixel is the average of all the samples
+        frameBuffer.addSamples(1, 0, new Color(30, 60, 3), 3);
+        frameBuffer.addSamples(1, 0, new Color(10, 0, 1), 1);
+        assertEquals(new Color(10, 15, 1).toString(), frameBuffer.getPixel(1, 0).toString(),
+                "Pixel must be the average of its samples");
+        assertEquals(4, frameBuffer.getWeight(1, 0), "Wrong amount of samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Setting a pixel drops its accumulated samples
+        frameBuffer.setPixel(1, 0, new Color(1, 2, 3));
+        frameBuffer.addSamples(1, 0, new Color(3, 2, 1), 1);
+        assertEquals(new Color(2, 2, 2).toString(), frameBuffer.getPixel(1, 0).toString(),
+                "Set pixel must count as one sample");
+    }
+}
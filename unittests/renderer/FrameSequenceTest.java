@@ -0,0 +1,112 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import geometries.TriangleMesh;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import scene.Scene;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.FrameSequence class
+ */
+class FrameSequenceTest {
+    /**
+     * @return a box of 12 triangles around the origin
+     */
+    private static TriangleMesh box() {
+        double[] vertices = {-10, -10, -10, 10, -10, -10, 10, 10, -10, -10, 10, -10,
+                -10, -10, 10, 10, -10, 10, 10, 10, 10, -10, 10, 10};
+        int[] indices = {0, 2, 1, 0, 3, 2, 4, 5, 6, 4, 6, 7, 0, 1, 5, 0, 5, 4,
+                1, 2, 6, 1, 6, 5, 2, 3, 7, 2, 7, 6, 3, 0, 4, 3, 4, 7};
+        return new TriangleMesh(vertices, indices);
+    }
+
+    /**
+     * Test method for {@link renderer.FrameSequence#render()}.
+     */
+    @Test
+    void testRender(@TempDir Path folder) {
+        TriangleMesh mesh = box();
+        mesh.setEmission(new Color(50, 20, 20)).setMaterial(new Material().setkD(0.6).setkS(0.3).setnShininess(20));
+        Scene scene = new Scene("Frames").setBackground(new Color(20, 20, 40))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.geometries = new Geometries(mesh, new Sphere(new Point(30, 0, 0), 5).setEmission(new Color(0, 80, 0)))
+                .buildBVH();
+        scene.lights.add(new DirectionalLight(new Color(300, 300, 300), new Vector(-1, -1, -1)));
+        Camera.Builder camera = Camera.getBuilder().setRayTracer(new SimpleRayTracer(scene))
+                .setLocation(new Point(0, 0, 200)).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(200).setVpSize(100, 100);
+        FrameSequence sequence = new FrameSequence(camera, scene, "frame sequence test", 100, 100, 4)
+                .setCameraPath(FrameSequence.CameraPath.turntable(Point.ZERO, new Vector(0, 1, 0),
+                        new Point(0, 50, 200), 4))
+                .addAnimation(mesh, frame -> Transform.rotation(new Vector(0, 1, 0), 20 * frame)
+                        .then(Transform.translation(new Vector(0, 5 * frame + 5, 0))))
+                .setCheckpoint(folder.resolve("frames.ckpt"));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The frames are written into a numbered series of images, each with its own checkpoint
+        sequence.render();
+        for (int frame = 0; frame < sequence.getFrames(); ++frame) {
+            File image = new File(System.getProperty("user.dir") + "/images/frame sequence test-000" + frame + ".png");
+            assertTrue(image.exists(), "Missing image of frame " + frame);
+            assertTrue(Files.exists(folder.resolve("frames.ckpt-000" + frame)), "Missing checkpoint of frame " + frame);
+        }
+        // TC02: The camera of a frame is placed by the path, the objects by their transforms
+        Camera third = sequence.prepareFrame(2);
+        assertEquals(new Point(0, 50, -200), third.getP0(), "Wrong camera location of frame 2");
+        assertEquals(new Point(0, 0, 0).subtract(third.getP0()).normalize(), third.getV_t0(),
+                "Camera must look at the target");
+        Ray ray = new Ray(new Point(1, 100, 2), new Vector(0, -1, 0));
+        assertEquals(new Point(1, 25, 2),
+                scene.geometries.findClosestGeoIntersection(ray).point, "Wrong placement of the mesh in frame 2");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Frame out of the sequence
+        assertThrows(IllegalArgumentException.class, () -> sequence.prepareFrame(4), "Missing frame must be rejected");
+        // TC11: No frames
+        assertThrows(IllegalArgumentException.class, () -> new FrameSequence(camera, scene, "none", 10, 10, 0),
+                "Sequence without frames must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.FrameSequence.CameraPath#lookAt(java.util.function.IntFunction, Point, Vector)}.
+     */
+    @Test
+    void testLookAt() {
+        Scene scene = new Scene("Far frames");
+        Camera.Builder camera = Camera.getBuilder().setRayTracer(new SimpleRayTracer(scene))
+                .setVpDistance(100).setVpSize(50, 50);
+        Point target = new Point(0, 0, -100);
+        FrameSequence sequence = new FrameSequence(camera, scene, "far frames", 10, 10, 72)
+                .setCameraPath(FrameSequence.CameraPath.turntable(target, new Vector(0, 1, 0),
+                        new Point(400, 150, 700), 72));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Camera hundreds of units from the target looks at it in all the frames
+        for (int frame = 0; frame < sequence.getFrames(); ++frame) {
+            Camera frameCamera = sequence.prepareFrame(frame);
+            assertEquals(target.subtract(frameCamera.getP0()).normalize(), frameCamera.getV_t0(),
+                    "Camera must look at the target in frame " + frame);
+            assertEquals(0, frameCamera.getV_t0().crossProduct(frameCamera.getV_up()).getY(), 1e-10,
+                    "Camera must not be rolled in frame " + frame);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Camera that looks along the up direction
+        FrameSequence vertical = new FrameSequence(camera, scene, "vertical frames", 10, 10, 1)
+                .setCameraPath(FrameSequence.CameraPath.lookAt(frame -> new Point(0, 500, -100), target,
+                        new Vector(0, 1, 0)));
+        assertThrows(IllegalArgumentException.class, () -> vertical.prepareFrame(0),
+                "Camera that looks along the up direction must be rejected");
+    }
+}
@@ -3,6 +3,8 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * ImageWriterTest is a test class for the ImageWriter class.
  * It creates an image with a grid and verifies the image creation.
@@ -38,4 +40,21 @@ class ImageWriterTest {
         // Write the image to a file
         imageWriter.writeToImage();
     }
+
+    /**
+     * Test method for {@link renderer.ImageWriter#setToneMapper(ToneMapper)}.
+     */
+    @Test
+    void testSetToneMapper() {
+        ImageWriter imageWriter = new ImageWriter("tone", 10, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Tone mapper is set
+        assertSame(imageWriter, imageWriter.setToneMapper(ToneMapper.CLAMP), "Setter must return the writer");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Null tone mapper
+        assertThrows(IllegalArgumentException.class, () -> imageWriter.setToneMapper(null),
+                "Null tone mapper must be rejected");
+    }
 }
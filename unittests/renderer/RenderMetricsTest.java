@@ -0,0 +1,91 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import renderer.RenderMetrics.RayType;
+import scene.Scene;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.RenderMetrics class
+ */
+class RenderMetricsTest {
+    /**
+     * Camera builder for the tests
+     */
+    private final Camera.Builder cameraBuilder = Camera.getBuilder()
+            .setLocation(Point.ZERO)
+            .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+            .setVpDistance(100).setVpSize(200, 200);
+
+    /**
+     * Test method for the ray counters of {@link renderer.RenderMetrics}.
+     */
+    @Test
+    void testCounters() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Single sphere without lights - a primary ray and an intersection test for every sample
+        Scene scene = new Scene("Metrics test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(java.awt.Color.BLUE)));
+        RenderMetrics metrics = new RenderMetrics();
+        cameraBuilder.setRayTracer(new SimpleRayTracer(scene).setMetrics(metrics))
+                .setImageWriter(new ImageWriter("metricsTest", 10, 10)).build().renderImage();
+        assertEquals(10 * 10 * 50, metrics.getRays(RayType.PRIMARY), "Wrong amount of primary rays");
+        assertEquals(metrics.getTotalRays(), metrics.getRays(RayType.PRIMARY), "Only primary rays must be traced");
+        assertEquals(1, metrics.getTestsPerRay(), "Every ray must test the sphere once");
+        assertEquals(1, metrics.getDepthHistogram().length, "Only seen intersections must be shaded");
+        assertTrue(metrics.getRaysPerSecond() > 0, "Rendering time must be measured");
+
+        // TC02: Mirror sphere that reflects a sphere behind the camera, with a light
+        scene = new Scene("Metrics test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(java.awt.Color.BLUE))
+                        .setMaterial(new Material().setkD(0.5).setkR(0.8)),
+                new Sphere(new Point(0, 0, 200), 50).setEmission(new Color(20, 20, 20)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 50)));
+        metrics.reset();
+        cameraBuilder.setRayTracer(new SimpleRayTracer(scene).setMetrics(metrics))
+                .setImageWriter(new ImageWriter("metricsTest", 10, 10)).build().renderImage();
+        assertTrue(metrics.getRays(RayType.SHADOW) > 0, "Shadow rays must be counted");
+        assertTrue(metrics.getRays(RayType.REFLECTED) > 0, "Reflected rays must be counted");
+        assertEquals(0, metrics.getRays(RayType.REFRACTED), "Nothing is transparent");
+        assertTrue(metrics.getDepthHistogram().length > 1, "Reflections must be deeper intersections");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Reset metrics
+        metrics.reset();
+        assertEquals(0, metrics.getTotalRays(), "Reset metrics must have no rays");
+        assertEquals(0, metrics.getRaysPerSecond(), "Reset metrics must have no rendering time");
+        assertEquals(0, metrics.getDepthHistogram().length, "Reset metrics must have an empty histogram");
+    }
+
+    /**
+     * Test method for {@link renderer.RenderMetrics#writeCostMap(String)}.
+     */
+    @Test
+    void testCostMap() {
+        Scene scene = new Scene("Cost map test");
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(java.awt.Color.BLUE)));
+        RenderMetrics metrics = new RenderMetrics(true);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Cost map before any render
+        assertThrows(IllegalStateException.class, () -> metrics.getPixelCost(0, 0),
+                "Cost map must not exist before rendering");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every pixel has its cost, and the map is written next to the image
+        Camera camera = cameraBuilder.setRayTracer(new SimpleRayTracer(scene).setMetrics(metrics))
+                .setImageWriter(new ImageWriter("costMapTest", 10, 10)).setThreads(2).setTileSize(4).build();
+        camera.renderImage().writeToImage();
+        for (int x = 0; x < 10; x++)
+            for (int y = 0; y < 10; y++)
+                assertTrue(metrics.getPixelCost(x, y) > 0, "Every pixel must have its cost");
+        assertTrue(new File(System.getProperty("user.dir") + "/images/costMapTest-cost.png").exists(),
+                "Cost map must be written");
+    }
+}
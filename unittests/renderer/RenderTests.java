@@ -10,6 +10,9 @@ import lighting.AmbientLight;
 import primitives.*;
 import renderer.*;
 import scene.Scene;
+import scene.XmlSceneLoader;
+
+import java.nio.file.Path;
 
 public class RenderTests {
     /** Scene of the tests */
@@ -84,12 +87,12 @@ public class RenderTests {
     /** Test for XML based scene - for bonus */
     @Test
     public void basicRenderXml() {
-        // enter XML file name and parse from XML file into scene object
-        // using the code you added in appropriate packages
-        // ...
-        // NB: unit tests is not the correct place to put XML parsing code
+        // the scene of renderTwoColorTest, parsed from the XML file
+        Scene xmlScene = XmlSceneLoader.load(
+                Path.of(System.getProperty("user.dir"), "xml", "basicRenderTestTwoColors.xml"));
 
         camera
+                .setRayTracer(new SimpleRayTracer(xmlScene))
                 .setImageWriter(new ImageWriter("xml render test", 1000, 1000))
                 .build()
                 .renderImage()
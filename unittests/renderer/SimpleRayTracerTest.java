@@ -0,0 +1,172 @@
+package renderer;
+
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import renderer.RenderMetrics.RayType;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.SimpleRayTracer class
+ */
+class SimpleRayTracerTest {
+    /**
+     * Scene of two spheres on mirrors, with blurry glass and glossy mirror
+     */
+    private final Scene scene = new Scene("Ray tree test");
+
+    /**
+     * Constructor - builds the scene
+     */
+    SimpleRayTracerTest() {
+        scene.geometries.add(
+                new Sphere(new Point(-950, -900, -1000), 400d).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setkD(0.25).setkS(0.25).setnShininess(20)
+                                .setkT(new Double3(0.5, 0, 0)).setBlurGlass(5, 100, 20)),
+                new Sphere(new Point(-950, -900, -1000), 200d).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setkD(0.25).setkS(0.25).setnShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setkR(1).setBlurGlass(3, 100, 10)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setkR(new Double3(0.5, 0, 0.4))));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setkL(0.00001).setkQ(0.000005));
+    }
+
+    /**
+     * @param x column of the ray (0..19)
+     * @param y row of the ray (0..19)
+     * @return a primary ray of a 20x20 grid over the scene
+     */
+    private static Ray primaryRay(int x, int y) {
+        Point camera = new Point(0, 0, 10000);
+        return new Ray(camera, new Point(-1250 + 125 * x + 60, -1250 + 125 * y + 60, 0).subtract(camera));
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setIterative(boolean)}.
+     */
+    @Test
+    void testIterative() {
+        SimpleRayTracer recursive = new SimpleRayTracer(scene);
+        SimpleRayTracer iterative = new SimpleRayTracer(scene).setIterative(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same colors (up to the rounding) with the same random beams
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 20; y++) {
+                Util.setRandomSeed(x * 20 + y);
+                Color expected = recursive.traceRay(primaryRay(x, y));
+                Util.setRandomSeed(x * 20 + y);
+                Color actual = iterative.traceRay(primaryRay(x, y));
+                assertEquals(expected.getRed(), actual.getRed(), 1e-9 * (1 + expected.getRed()), "Wrong red");
+                assertEquals(expected.getGreen(), actual.getGreen(), 1e-9 * (1 + expected.getGreen()), "Wrong green");
+                assertEquals(expected.getBlue(), actual.getBlue(), 1e-9 * (1 + expected.getBlue()), "Wrong blue");
+            }
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setRayBudget(int)}.
+     */
+    @Test
+    void testRayBudget() {
+        RenderMetrics metrics = new RenderMetrics();
+        SimpleRayTracer tracer = new SimpleRayTracer(scene).setIterative(true).setRayBudget(6);
+        tracer.setMetrics(metrics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: No primary ray traces more rays than the budget
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 20; y++) {
+                long before = metrics.getTotalRays() - metrics.getRays(RayType.SHADOW)
+                        - metrics.getRays(RayType.BEAM);
+                tracer.traceRay(primaryRay(x, y));
+                assertTrue(metrics.getTotalRays() - metrics.getRays(RayType.SHADOW) - metrics.getRays(RayType.BEAM)
+                        - before <= 6, "Too many rays for a primary ray");
+            }
+        // TC02: The primary rays of a pixel share its budget
+        RenderMetrics pixelMetrics = new RenderMetrics();
+        SimpleRayTracer pixelTracer = new SimpleRayTracer(scene).setIterative(true).setRayBudget(12);
+        pixelTracer.setMetrics(pixelMetrics);
+        pixelTracer.beginPixel(4, 4);
+        for (int sample = 0; sample < 4; sample++)
+            pixelTracer.traceRay(primaryRay(15, 15));
+        pixelTracer.endPixel();
+        assertTrue(pixelMetrics.getTotalRays() - pixelMetrics.getRays(RayType.SHADOW)
+                - pixelMetrics.getRays(RayType.BEAM) <= 12, "Too many rays for a pixel");
+        // TC03: The heaviest work is traced first - the refracted ray of a mostly transparent
+        // sphere before its reflected ray
+        Scene glass = new Scene("Budget order test");
+        glass.geometries.add(new Sphere(new Point(0, 0, -100), 20)
+                        .setMaterial(new Material().setkT(0.9).setkR(0.1)),
+                new Sphere(new Point(0, 0, -200), 20).setEmission(new Color(0, 100, 0)));
+        SimpleRayTracer ordered = new SimpleRayTracer(glass).setIterative(true).setRayBudget(5);
+        assertEquals(81, ordered.traceRay(new Ray(Point.ZERO, new Vector(0, 0, -1))).getGreen(), 1e-9,
+                "Refracted rays must be traced before the reflected ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Budget of the primary ray only - the color of the first intersection
+        SimpleRayTracer local = new SimpleRayTracer(scene).setIterative(true).setRayBudget(1);
+        Ray mirror = primaryRay(15, 15);
+        Color color = local.traceRay(mirror);
+        assertEquals(new Color(20, 20, 20).add(new Color(25.5, 25.5, 25.5)).toString(), color.toString(),
+                "Only the emission and the ambient light must be seen in the mirror");
+        // TC11: Zero budget
+        assertThrows(IllegalArgumentException.class, () -> local.setRayBudget(0), "Zero budget must be rejected");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setRussianRoulette(double)}.
+     */
+    @Test
+    void testRussianRoulette() {
+        RenderMetrics fullMetrics = new RenderMetrics();
+        RenderMetrics rouletteMetrics = new RenderMetrics();
+        SimpleRayTracer full = new SimpleRayTracer(scene);
+        full.setMetrics(fullMetrics);
+        SimpleRayTracer roulette = new SimpleRayTracer(scene).setRussianRoulette(0.5);
+        roulette.setMetrics(rouletteMetrics);
+        SimpleRayTracer iterativeRoulette = new SimpleRayTracer(scene).setRussianRoulette(0.5).setIterative(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The average color doesn't change, with fewer secondary rays
+        Util.setRandomSeed(1);
+        double expected = 0, actual = 0;
+        for (int sample = 0; sample < 20; sample++)
+            for (int x = 0; x < 20; x++)
+                for (int y = 0; y < 20; y++) {
+                    Color a = full.traceRay(primaryRay(x, y)), b = roulette.traceRay(primaryRay(x, y));
+                    expected += a.getRed() + a.getGreen() + a.getBlue();
+                    actual += b.getRed() + b.getGreen() + b.getBlue();
+                }
+        assertEquals(expected, actual, 0.01 * expected, "Russian roulette must not change the average color");
+        long fullRays = fullMetrics.getRays(RayType.REFLECTED) + fullMetrics.getRays(RayType.REFRACTED);
+        long rouletteRays = rouletteMetrics.getRays(RayType.REFLECTED) + rouletteMetrics.getRays(RayType.REFRACTED);
+        assertTrue(rouletteRays < 0.9 * fullRays, "Russian roulette must trace fewer secondary rays");
+        // TC02: The iterative evaluation plays the same roulette
+        for (int x = 0; x < 20; x++)
+            for (int y = 0; y < 20; y++) {
+                Util.setRandomSeed(x * 20 + y);
+                Color a = roulette.traceRay(primaryRay(x, y));
+                Util.setRandomSeed(x * 20 + y);
+                Color b = iterativeRoulette.traceRay(primaryRay(x, y));
+                assertEquals(a.getRed() + a.getGreen() + a.getBlue(), b.getRed() + b.getGreen() + b.getBlue(),
+                        1e-9 * (1 + a.getRed() + a.getGreen() + a.getBlue()), "Wrong iterative roulette");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Threshold out of the range
+        assertThrows(IllegalArgumentException.class, () -> roulette.setRussianRoulette(1.5),
+                "Threshold above 1 must be rejected");
+    }
+}
@@ -0,0 +1,248 @@
+package scene;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import renderer.SimpleRayTracer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.SceneCache class
+ */
+class SceneCacheTest {
+    /**
+     * Folder of the cache files of the tests
+     */
+    @TempDir
+    Path folder;
+
+    /**
+     * @return scene with all the kinds of geometries and lights, with a built hierarchy
+     */
+    private static Scene createScene() {
+        Material shiny = new Material().setkD(0.5).setkS(0.5).setnShininess(60).setkR(0.2);
+        Material glass = new Material().setkT(new Double3(0.5, 0.6, 0.7)).setBlurGlass(1, 2, 3);
+        Geometries shared = new Geometries(new Sphere(Point.ZERO, 6).setEmission(new Color(20, 40, 0)),
+                new Triangle(new Point(-8, -8, 8), new Point(8, -8, 8), new Point(0, 8, 8)).setMaterial(glass))
+                .buildBVH();
+        Instance moved = new Instance(shared,
+                Transform.scaling(1.5).then(Transform.translation(new Vector(25, -45, -110))));
+        moved.setTransform(Transform.translation(new Vector(0, 0, -10)));
+        double[] vertices = new double[3 * 36];
+        int[] indices = new int[6 * 25];
+        for (int i = 0; i < 6; i++)
+            for (int j = 0; j < 6; j++) {
+                int v = 3 * (6 * i + j);
+                vertices[v] = -60 + 4 * i;
+                vertices[v + 1] = -60 + 4 * j;
+                vertices[v + 2] = -150 + Math.sin(i + j);
+            }
+        for (int i = 0, t = 0; i < 5; i++)
+            for (int j = 0; j < 5; j++, t += 6) {
+                int a = 6 * i + j;
+                indices[t] = a;
+                indices[t + 1] = a + 6;
+                indices[t + 2] = a + 7;
+                indices[t + 3] = a;
+                indices[t + 4] = a + 7;
+                indices[t + 5] = a + 1;
+            }
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(0, 0, -100), 20).setEmission(new Color(0, 0, 100)).setMaterial(shiny),
+                new Sphere(new Point(40, 0, -100), 10).setMaterial(shiny),
+                new Triangle(new Point(-50, 30, -120), new Point(-20, 30, -120), new Point(-35, 60, -120))
+                        .setMaterial(glass),
+                new Polygon(new Point(20, 30, -130), new Point(50, 30, -130), new Point(50, 60, -130),
+                        new Point(20, 60, -130)).setEmission(new Color(30, 20, 10)),
+                new Plane(new Point(0, 0, -300), new Vector(0, 0.1, 1)).setMaterial(shiny),
+                new Tube(5, new Ray(new Point(-40, -40, -110), new Vector(0, 1, 1))),
+                new Cylinder(5, new Ray(new Point(40, -40, -110), new Vector(1, 1, 0)), 15),
+                new Geometries(new Sphere(new Point(0, 50, -90), 5)),
+                new TriangleMesh(vertices, indices).setMaterial(shiny),
+                new Instance(shared, Transform.rotation(new Vector(0, 0, 1), 30)
+                        .then(Transform.translation(new Vector(-20, -45, -100)))),
+                moved);
+        return new Scene("Cache test")
+                .setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(100, 100, 100), 0.2))
+                .setGeometries(geometries.buildBVH())
+                .setLights(new LinkedList<>(List.of(
+                        new DirectionalLight(new Color(200, 200, 200), new Vector(1, -1, -1)),
+                        new PointLight(new Color(300, 100, 0), new Point(0, 0, 0)).setkL(0.001).setkQ(0.0001),
+                        new SpotLight(new Color(500, 300, 0), new Point(0, 50, 50), new Vector(0, -1, -1))
+                                .setNarrowBeam(4).setkL(0.0005))));
+    }
+
+    /**
+     * @param scene the scene
+     * @return bytes of the flattened geometries of the scene
+     */
+    private static byte[] flatten(Scene scene) {
+        FlatHierarchy hierarchy = FlatHierarchy.flatten(scene.geometries);
+        ByteBuffer buffer = ByteBuffer.allocate((int) hierarchy.byteSize());
+        hierarchy.write(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#write(Scene, Path)} and {@link scene.SceneCache#read(Path)}.
+     */
+    @Test
+    void testWriteRead() throws IOException {
+        Scene scene = createScene();
+        Path file = folder.resolve("scene.cache");
+        SceneCache.write(scene, file);
+        Scene restored = SceneCache.read(file);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scene attributes and lights
+        assertEquals(scene.name, restored.name, "Wrong scene name");
+        assertEquals(scene.background.toString(), restored.background.toString(), "Wrong background");
+        assertEquals(scene.ambientLight.getIntensity().toString(), restored.ambientLight.getIntensity().toString(),
+                "Wrong ambient light");
+        assertEquals(3, restored.lights.size(), "Wrong amount of lights");
+        for (int i = 0; i < 3; i++)
+            assertSame(scene.lights.get(i).getClass(), restored.lights.get(i).getClass(), "Wrong light type");
+        // TC02: The same intersections, geometries, materials and colors
+        SimpleRayTracer tracer = new SimpleRayTracer(scene), restoredTracer = new SimpleRayTracer(restored);
+        for (double x = -70; x < 70; x += 3.7)
+            for (double y = -70; y < 70; y += 4.3) {
+                Ray ray = new Ray(Point.ZERO, new Vector(x, y, -100));
+                GeoPoint expected = scene.geometries.findClosestGeoIntersection(ray);
+                GeoPoint actual = restored.geometries.findClosestGeoIntersection(ray);
+                if (expected == null) {
+                    assertNull(actual, "Intersection must not be found");
+                    continue;
+                }
+                assertNotNull(actual, "Intersection must be found");
+                assertEquals(expected.point, actual.point, "Wrong intersection");
+                assertSame(expected.geometry.getClass(), actual.geometry.getClass(), "Wrong geometry type");
+                assertEquals(expected.geometry.getEmission().toString(), actual.geometry.getEmission().toString(),
+                        "Wrong emission");
+                assertEquals(expected.geometry.getMaterial().kT, actual.geometry.getMaterial().kT,
+                        "Wrong material");
+                assertEquals(expected.geometry.getMaterial().nShininess, actual.geometry.getMaterial().nShininess,
+                        "Wrong material");
+                // the directions of the lights are normalized again, up to the rounding
+                Color color = tracer.traceRay(ray), restoredColor = restoredTracer.traceRay(ray);
+                assertEquals(color.getRed(), restoredColor.getRed(), 1e-9, "Wrong color");
+                assertEquals(color.getGreen(), restoredColor.getGreen(), 1e-9, "Wrong color");
+                assertEquals(color.getBlue(), restoredColor.getBlue(), 1e-9, "Wrong color");
+            }
+        // TC03: A material shared by many geometries is restored as one object
+        GeoPoint first = restored.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1)));
+        GeoPoint second = restored.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0.4, 0, -1)));
+        assertSame(first.geometry.getMaterial(), second.geometry.getMaterial(), "Shared material must stay shared");
+        // TC04: The restored geometries flatten into the same tree (the directions are normalized again)
+        assertEquals(flatten(scene).length, flatten(restored).length, "Restored geometries must flatten the same");
+        // TC05: A collection shared by instances is restored as one collection
+        Ray left = new Ray(Point.ZERO, new Vector(-20, -45, -92));
+        Ray right = new Ray(Point.ZERO, new Vector(25, -45, -108));
+        assertEquals(scene.geometries.findClosestGeoIntersection(right).point,
+                restored.geometries.findClosestGeoIntersection(right).point, "Moved instance must stay moved");
+        restored.geometries.findClosestGeoIntersection(left).geometry.setEmission(new Color(1, 2, 3));
+        assertEquals(new Color(1, 2, 3).toString(),
+                restored.geometries.findClosestGeoIntersection(right).geometry.getEmission().toString(),
+                "Instances must share the restored collection");
+        // TC06: A transformed mesh is transformed again from its original placement
+        TriangleMesh mesh = new TriangleMesh(new double[]{-1, -1, 0, 1, -1, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        mesh.setTransform(Transform.translation(new Vector(0, 0, -10)));
+        Path moved = folder.resolve("moved.cache");
+        SceneCache.write(new Scene("Moved").setGeometries(new Geometries(mesh).buildBVH()), moved);
+        Geometries movedGeometries = SceneCache.read(moved).geometries;
+        Ray down = new Ray(Point.ZERO, new Vector(0, 0, -1));
+        ((TriangleMesh) movedGeometries.findClosestGeoIntersection(down).geometry)
+                .setTransform(Transform.translation(new Vector(0, 0, -20)));
+        movedGeometries.refit();
+        assertEquals(new Point(0, 0, -20), movedGeometries.findClosestGeoIntersection(down).point,
+                "Restored mesh must be transformed from its original placement");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Empty scene
+        SceneCache.write(new Scene("Empty"), folder.resolve("empty.cache"));
+        Scene empty = SceneCache.read(folder.resolve("empty.cache"));
+        assertEquals("Empty", empty.name, "Wrong name of the empty scene");
+        assertNull(empty.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1))),
+                "Empty scene must have no intersections");
+        // TC11: File of another format version
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, 99);
+        Path other = Files.write(folder.resolve("other.cache"), bytes);
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.read(other), "Other version must be rejected");
+        // TC12: Not a cache file
+        Path text = Files.writeString(folder.resolve("text.cache"), "not a scene cache at all");
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.read(text), "Other file must be rejected");
+        // TC13: Truncated file
+        Path truncated = Files.write(folder.resolve("truncated.cache"),
+                Arrays.copyOf(bytes = Files.readAllBytes(file), bytes.length / 2));
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.read(truncated),
+                "Truncated file must be rejected");
+        // TC14: Missing file
+        assertThrows(IllegalStateException.class, () -> SceneCache.read(folder.resolve("none.cache")),
+                "Missing file must be rejected");
+        // TC15: Geometry of an unknown type
+        Scene unknown = new Scene("Unknown").setGeometries(new Geometries(new Sphere(Point.ZERO, 1) {
+        }));
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.write(unknown, folder.resolve("unknown.cache")),
+                "Unknown geometry must be rejected");
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#load(Path, java.util.function.Supplier)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        Path file = folder.resolve("load.cache");
+        AtomicInteger builds = new AtomicInteger();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The scene is built once and then loaded from the cache
+        Scene built = SceneCache.load(file, () -> {
+            builds.incrementAndGet();
+            return createScene();
+        });
+        Scene loaded = SceneCache.load(file, () -> {
+            builds.incrementAndGet();
+            return createScene();
+        });
+        assertEquals(1, builds.get(), "Cached scene must not be built again");
+        assertNotSame(built, loaded, "Second scene must be loaded from the cache");
+        assertEquals(built.name, loaded.name, "Wrong loaded scene");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Cache of another format version is built again and replaced
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, 99);
+        Files.write(file, bytes);
+        SceneCache.load(file, () -> {
+            builds.incrementAndGet();
+            return createScene();
+        });
+        assertEquals(2, builds.get(), "Cache of another version must be built again");
+        SceneCache.read(file);
+        // TC11: Broken cache of this format version is rejected, not replaced
+        bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.load(file, () -> {
+            builds.incrementAndGet();
+            return createScene();
+        }), "Broken cache must be rejected");
+        assertEquals(2, builds.get(), "Broken cache must not be built again");
+    }
+}
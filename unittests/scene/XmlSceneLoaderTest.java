@@ -0,0 +1,128 @@
+package scene;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.DirectionalLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.XmlSceneLoader class
+ */
+class XmlSceneLoaderTest {
+    /**
+     * Scene with all the sections
+     */
+    private static final String SCENE = """
+            <scene name="Loader test" background-color="10 20 30">
+                <ambient-light color="100 100 100" ka="0.5"/>
+                <materials>
+                    <material id="mirror" kr="1" kd="0.2"/>
+                    <material id="glass" kt="0.5 0.6 0.7" ks="0.5" shininess="30"/>
+                </materials>
+                <lights>
+                    <directional-light color="200 200 200" direction="0 0 -1"/>
+                    <spot-light color="500 300 0" position="0 50 50" direction="0 -1 -1" kl="0.001" narrow-beam="4"/>
+                </lights>
+                <geometries>
+                    <sphere center="0 0 -100" radius="10" emission="0 0 255" material="mirror"/>
+                    <sphere center="0 0 -200" radius="10" material="mirror"/>
+                    <sphere center="0 0 -300" radius="10">
+                        <material kd="0.2" kr="1 1 1"/>
+                    </sphere>
+                    <polygon vertices="-50 -50 -400, 50 -50 -400, 50 50 -400, -50 50 -400" material="glass"/>
+                </geometries>
+            </scene>
+            """;
+
+    /**
+     * @param xml the XML of a scene
+     * @return the loaded scene
+     */
+    private static Scene load(String xml) {
+        return XmlSceneLoader.load(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "default");
+    }
+
+    /**
+     * Test method for {@link scene.XmlSceneLoader#load(java.io.InputStream, String)}.
+     */
+    @Test
+    void testLoad() {
+        Scene scene = load(SCENE);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Scene attributes, ambient light and lights
+        assertEquals("Loader test", scene.name, "Wrong scene name");
+        assertEquals(new Color(10, 20, 30).toString(), scene.background.toString(), "Wrong background");
+        assertEquals(new Color(50, 50, 50).toString(), scene.ambientLight.getIntensity().toString(),
+                "Wrong ambient light");
+        assertEquals(2, scene.lights.size(), "Wrong amount of lights");
+        assertInstanceOf(DirectionalLight.class, scene.lights.get(0), "Wrong directional light");
+        assertInstanceOf(SpotLight.class, scene.lights.get(1), "Wrong spot light");
+        // TC02: Geometries with their emission and materials
+        var intersections = scene.geometries.findGeoIntersections(new Ray(Point.ZERO, new Vector(0, 0, -1)));
+        assertEquals(7, intersections.size(), "Wrong amount of intersections of the geometries");
+        GeoPoint first = scene.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1)));
+        assertEquals(new Color(0, 0, 255).toString(), first.geometry.getEmission().toString(), "Wrong emission");
+        assertEquals(new Double3(1), first.geometry.getMaterial().kR, "Wrong material");
+        // TC03: Materials with the same factors are shared - in the table and nested
+        Material mirror = first.geometry.getMaterial();
+        for (GeoPoint gp : intersections) {
+            if (gp.point.getZ() > -350)
+                assertSame(mirror, gp.geometry.getMaterial(), "Same materials must be shared");
+            else
+                assertEquals(new Double3(0.5, 0.6, 0.7), gp.geometry.getMaterial().kT, "Wrong glass material");
+        }
+        // TC04: Scene without a name is named by the default name
+        assertEquals("default", load("<scene/>").name, "Wrong default name");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Unknown element
+        assertThrows(IllegalArgumentException.class, () -> load("<scene><cube/></scene>"),
+                "Unknown element must be rejected");
+        // TC11: Unknown material
+        assertThrows(IllegalArgumentException.class,
+                () -> load("<scene><geometries><sphere center='0 0 0' radius='1' material='x'/></geometries></scene>"),
+                "Unknown material must be rejected");
+        // TC12: Missing attribute
+        assertThrows(IllegalArgumentException.class,
+                () -> load("<scene><geometries><sphere center='0 0 0'/></geometries></scene>"),
+                "Missing radius must be rejected");
+        // TC13: Bad point
+        assertThrows(IllegalArgumentException.class,
+                () -> load("<scene><geometries><sphere center='0 0' radius='1'/></geometries></scene>"),
+                "Point of 2 numbers must be rejected");
+        // TC14: Malformed XML
+        assertThrows(IllegalArgumentException.class, () -> load("<scene><geometries></scene>"),
+                "Malformed XML must be rejected");
+        // TC15: Other root element
+        assertThrows(IllegalArgumentException.class, () -> load("<geometries/>"),
+                "Root element other than scene must be rejected");
+    }
+
+    /**
+     * Test method for {@link scene.XmlSceneLoader#load(Path)}.
+     */
+    @Test
+    void testLoadFile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The scene of the basic render test
+        Scene scene = XmlSceneLoader.load(
+                Path.of(System.getProperty("user.dir"), "xml", "basicRenderTestTwoColors.xml"));
+        assertEquals("XML test scene", scene.name, "Wrong scene name");
+        assertEquals(new Color(75, 127, 90).toString(), scene.background.toString(), "Wrong background");
+        assertNotNull(scene.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1))),
+                "The sphere must be loaded");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Missing file
+        assertThrows(IllegalStateException.class, () -> XmlSceneLoader.load(Path.of("no such scene.xml")),
+                "Missing file must be rejected");
+    }
+}